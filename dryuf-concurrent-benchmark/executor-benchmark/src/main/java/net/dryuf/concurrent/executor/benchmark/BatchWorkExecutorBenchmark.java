@@ -0,0 +1,97 @@
+package net.dryuf.concurrent.executor.benchmark;
+
+import net.dryuf.concurrent.executor.BatchWorkExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmark measuring submission throughput of {@link BatchWorkExecutor} with many concurrent producers.  Each
+ * operation submits {@link #BURST} items and waits for the last one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(Config.FORK_COUNT)
+@Warmup(iterations = Config.WARMUP_COUNT, time = Config.WARMUP_TIME, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = Config.MEASURE_COUNT, time = Config.MEASURE_TIME, timeUnit = TimeUnit.SECONDS)
+public class BatchWorkExecutorBenchmark
+{
+	public static final int BATCH_SIZE = 256;
+
+	public static final int BURST = 64;
+
+	public ExecutorService pool;
+
+	public BatchWorkExecutor<Integer, Integer> executor;
+
+	@Setup
+	public void setup()
+	{
+		pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		executor = new BatchWorkExecutor<>(
+			pool,
+			BATCH_SIZE,
+			l -> {
+				List<CompletableFuture<Integer>> results = new ArrayList<>(l.size());
+				for (Integer v: l) {
+					results.add(CompletableFuture.completedFuture(v));
+				}
+				return results;
+			}
+		);
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		executor.close();
+		pool.shutdown();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Integer b0_submit8()
+	{
+		return submitBurst();
+	}
+
+	@Benchmark
+	@Threads(32)
+	public Integer b1_submit32()
+	{
+		return submitBurst();
+	}
+
+	@Benchmark
+	@Threads(64)
+	public Integer b2_submit64()
+	{
+		return submitBurst();
+	}
+
+	private Integer submitBurst()
+	{
+		for (int i = 1; i < BURST; ++i) {
+			executor.submit(i);
+		}
+		return executor.submit(0).join();
+	}
+}
@@ -0,0 +1,98 @@
+package net.dryuf.concurrent.executor.benchmark;
+
+import net.dryuf.concurrent.executor.BatchWorkExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmark showing throughput of {@link BatchWorkExecutor} with asynchronous processor for different max in flight
+ * batches settings.  The processor simulates downstream with fixed latency, completing the batch futures after
+ * {@link #LATENCY_US} from the call.  The throughput is reported per item.
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(Config.FORK_COUNT)
+@Warmup(iterations = Config.WARMUP_COUNT, time = Config.WARMUP_TIME, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = Config.MEASURE_COUNT, time = Config.MEASURE_TIME, timeUnit = TimeUnit.SECONDS)
+public class BatchWorkExecutorInFlightBenchmark
+{
+	public static final long LATENCY_US = 1000;
+
+	public static final int BATCH_SIZE = 64;
+
+	public static final int ITEMS = 4096;
+
+	@Param({ "1", "2", "4", "16", "64" })
+	public int maxInFlight;
+
+	public ExecutorService pool;
+
+	public ScheduledExecutorService downstream;
+
+	public BatchWorkExecutor<Integer, Integer> executor;
+
+	@Setup
+	public void setup()
+	{
+		pool = Executors.newCachedThreadPool();
+		downstream = Executors.newSingleThreadScheduledExecutor();
+		executor = new BatchWorkExecutor<>(
+			pool,
+			BATCH_SIZE,
+			maxInFlight,
+			l -> {
+				List<CompletableFuture<Integer>> results = new ArrayList<>(l.size());
+				for (int i = 0; i < l.size(); ++i) {
+					results.add(new CompletableFuture<>());
+				}
+				List<Integer> values = new ArrayList<>(l);
+				downstream.schedule(() -> {
+					for (int i = 0; i < values.size(); ++i) {
+						results.get(i).complete(values.get(i));
+					}
+				}, LATENCY_US, TimeUnit.MICROSECONDS);
+				return results;
+			}
+		);
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		executor.close();
+		pool.shutdown();
+		downstream.shutdown();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OperationsPerInvocation(ITEMS)
+	public void b0_pipelined() throws Exception
+	{
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[ITEMS];
+		for (int i = 0; i < ITEMS; ++i) {
+			futures[i] = executor.submit(i);
+		}
+		CompletableFuture.allOf(futures).get();
+	}
+}
@@ -0,0 +1,124 @@
+package net.dryuf.concurrent.executor.benchmark;
+
+import net.dryuf.concurrent.executor.BatchWorkExecutor;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Benchmark showing throughput and latency of {@link BatchWorkExecutor} for different linger settings.  The processor
+ * simulates bulk downstream API, with significant cost per call and small cost per item.
+ *
+ * The throughput benchmark submits items paced by short pauses, so without linger the processor is called with small
+ * batches.  The number of processor calls and submitted items is reported as {@code calls} and {@code items} counters,
+ * their ratio being the average batch size.  The latency benchmark submits single item and waits for its result, simulating light load.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(Config.FORK_COUNT)
+@Warmup(iterations = Config.WARMUP_COUNT, time = Config.WARMUP_TIME, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = Config.MEASURE_COUNT, time = Config.MEASURE_TIME, timeUnit = TimeUnit.SECONDS)
+public class BatchWorkExecutorLingerBenchmark
+{
+	public static final int CALL_WORK = 20_000;
+
+	public static final int ITEM_WORK = 100;
+
+	public static final int BATCH_SIZE = 256;
+
+	public static final int MIN_BATCH_SIZE = 64;
+
+	public static final int PACED_ITEMS = 200;
+
+	public static final long PACE_NS = 10_000;
+
+	@Param({ "0", "1", "5" })
+	public int lingerMs;
+
+	public ExecutorService pool;
+
+	public final AtomicLong calls = new AtomicLong();
+
+	public BatchWorkExecutor<Integer, Integer> executor;
+
+	@Setup
+	public void setup()
+	{
+		pool = Executors.newCachedThreadPool();
+		executor = new BatchWorkExecutor<>(
+			pool,
+			BATCH_SIZE,
+			MIN_BATCH_SIZE,
+			lingerMs,
+			TimeUnit.MILLISECONDS,
+			l -> {
+				calls.incrementAndGet();
+				Blackhole.consumeCPU(CALL_WORK+ITEM_WORK*l.size());
+				List<CompletableFuture<Integer>> results = new ArrayList<>(l.size());
+				for (Integer v: l) {
+					results.add(CompletableFuture.completedFuture(v));
+				}
+				return results;
+			}
+		);
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		executor.close();
+		pool.shutdown();
+	}
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Counters
+	{
+		public long calls;
+
+		public long items;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	public void b0_pacedThroughput(Counters counters) throws Exception
+	{
+		long startCalls = calls.get();
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[PACED_ITEMS];
+		for (int i = 0; i < PACED_ITEMS; ++i) {
+			futures[i] = executor.submit(i);
+			LockSupport.parkNanos(PACE_NS);
+		}
+		CompletableFuture.allOf(futures).get();
+		counters.calls += calls.get()-startCalls;
+		counters.items += PACED_ITEMS;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	public Integer b1_singleLatency() throws Exception
+	{
+		return executor.submit(1).get();
+	}
+}
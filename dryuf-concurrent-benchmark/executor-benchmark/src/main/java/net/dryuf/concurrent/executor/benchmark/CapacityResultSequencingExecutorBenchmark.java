@@ -0,0 +1,94 @@
+package net.dryuf.concurrent.executor.benchmark;
+
+import net.dryuf.concurrent.executor.CapacityResultSequencingExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmark measuring admission throughput of {@link CapacityResultSequencingExecutor} with several producers, for
+ * uniform and mixed task weights.  The capacity is exhausted most of the time, so producers block on admission.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(Config.FORK_COUNT)
+@Warmup(iterations = Config.WARMUP_COUNT, time = Config.WARMUP_TIME, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = Config.MEASURE_COUNT, time = Config.MEASURE_TIME, timeUnit = TimeUnit.SECONDS)
+public class CapacityResultSequencingExecutorBenchmark
+{
+	public static final int WORK = 100;
+
+	public static final long CAPACITY = 256;
+
+	public static final long COUNT = 64;
+
+	@Param({ "uniform", "mixed" })
+	public String weights;
+
+	public ExecutorService pool;
+
+	public CapacityResultSequencingExecutor executor;
+
+	private long[] weightTable;
+
+	@Setup
+	public void setup()
+	{
+		pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		executor = new CapacityResultSequencingExecutor(CAPACITY, COUNT, pool);
+		switch (weights) {
+		case "uniform":
+			weightTable = new long[]{ 4 };
+			break;
+
+		case "mixed":
+			weightTable = new long[]{ 1, 1, 2, 1, 64, 1, 4, 1, 16, 2, 1, 128, 1, 8, 1, 32 };
+			break;
+
+		default:
+			throw new IllegalArgumentException("Unknown weights: "+weights);
+		}
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		executor.close();
+		pool.shutdown();
+	}
+
+	@State(Scope.Thread)
+	public static class ProducerState
+	{
+		int next;
+	}
+
+	@Benchmark
+	@Threads(4)
+	public CompletableFuture<Integer> b0_submit(ProducerState producer)
+	{
+		int index = producer.next++ & (weightTable.length-1);
+		return executor.submit(weightTable[index], () -> {
+			Blackhole.consumeCPU(WORK);
+			return index;
+		});
+	}
+}
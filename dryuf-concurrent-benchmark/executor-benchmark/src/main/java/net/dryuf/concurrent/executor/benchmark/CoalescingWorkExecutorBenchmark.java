@@ -0,0 +1,103 @@
+package net.dryuf.concurrent.executor.benchmark;
+
+import net.dryuf.concurrent.executor.CoalescingWorkExecutor;
+import net.dryuf.concurrent.executor.SingleWorkExecutor;
+import net.dryuf.concurrent.executor.WorkExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Benchmark simulating thundering herd of requests for few hot keys, with downstream of fixed latency.  Compares
+ * {@link SingleWorkExecutor} directly and wrapped by {@link CoalescingWorkExecutor}.  The number of downstream calls
+ * per request is printed at the end of each iteration.
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(Config.FORK_COUNT)
+@Warmup(iterations = Config.WARMUP_COUNT, time = Config.WARMUP_TIME, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = Config.MEASURE_COUNT, time = Config.MEASURE_TIME, timeUnit = TimeUnit.SECONDS)
+@Threads(32)
+public class CoalescingWorkExecutorBenchmark
+{
+	public static final long LATENCY_NS = 100_000;
+
+	public static final int HOT_KEYS = 4;
+
+	public ExecutorService pool;
+
+	public final AtomicLong calls = new AtomicLong();
+
+	public final AtomicLong requests = new AtomicLong();
+
+	public WorkExecutor<Integer, Integer> direct;
+
+	public WorkExecutor<Integer, Integer> coalescing;
+
+	@Setup
+	public void setup()
+	{
+		pool = Executors.newCachedThreadPool();
+		direct = new SingleWorkExecutor<>(pool, this::load);
+		coalescing = new CoalescingWorkExecutor<>(new SingleWorkExecutor<>(pool, this::load));
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		direct.close();
+		coalescing.close();
+		pool.shutdown();
+	}
+
+	@TearDown(Level.Iteration)
+	public void reportCalls()
+	{
+		System.out.printf("calls per request: %.4f%n", (double) calls.getAndSet(0)/Math.max(1, requests.getAndSet(0)));
+	}
+
+	private Integer load(Integer key)
+	{
+		calls.incrementAndGet();
+		LockSupport.parkNanos(LATENCY_NS);
+		return key;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	public Integer b0_direct()
+	{
+		return request(direct);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	public Integer b1_coalescing()
+	{
+		return request(coalescing);
+	}
+
+	private Integer request(WorkExecutor<Integer, Integer> executor)
+	{
+		requests.incrementAndGet();
+		return executor.submit(ThreadLocalRandom.current().nextInt(HOT_KEYS)).join();
+	}
+}
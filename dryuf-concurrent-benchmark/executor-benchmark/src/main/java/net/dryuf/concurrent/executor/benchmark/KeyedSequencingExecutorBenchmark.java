@@ -0,0 +1,89 @@
+package net.dryuf.concurrent.executor.benchmark;
+
+import net.dryuf.concurrent.executor.KeyedSequencingExecutor;
+import net.dryuf.concurrent.executor.SequencingExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmark comparing {@link KeyedSequencingExecutor} with single {@link SequencingExecutor}, for number of distinct
+ * ordering keys.  Each task burns few CPU cycles so the parallelism is visible.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(Config.FORK_COUNT)
+@Warmup(iterations = Config.WARMUP_COUNT, time = Config.WARMUP_TIME, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = Config.MEASURE_COUNT, time = Config.MEASURE_TIME, timeUnit = TimeUnit.SECONDS)
+public class KeyedSequencingExecutorBenchmark
+{
+	public static final int WORK = 200;
+
+	@Param({ "1", "64", "1000000" })
+	public int keys;
+
+	public final ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+	public final SequencingExecutor single = new SequencingExecutor(pool);
+
+	public final KeyedSequencingExecutor<Integer> keyed = new KeyedSequencingExecutor<>(pool);
+
+	private int next;
+
+	@TearDown
+	public void teardown()
+	{
+		single.close();
+		keyed.close();
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public void b0_single() throws InterruptedException
+	{
+		CountDownLatch latch = new CountDownLatch(Config.EXECS);
+		for (int i = 0; i < Config.EXECS; ++i) {
+			single.execute(() -> {
+				Blackhole.consumeCPU(WORK);
+				latch.countDown();
+			});
+		}
+		latch.await();
+	}
+
+	@Benchmark
+	public void b1_keyed() throws InterruptedException
+	{
+		CountDownLatch latch = new CountDownLatch(Config.EXECS);
+		for (int i = 0; i < Config.EXECS; ++i) {
+			keyed.execute(nextKey(), () -> {
+				Blackhole.consumeCPU(WORK);
+				latch.countDown();
+			});
+		}
+		latch.await();
+	}
+
+	private Integer nextKey()
+	{
+		int key = next;
+		next = key+1 == keys ? 0 : key+1;
+		return key;
+	}
+}
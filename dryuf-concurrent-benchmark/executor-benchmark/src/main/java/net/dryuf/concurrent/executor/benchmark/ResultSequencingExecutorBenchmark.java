@@ -0,0 +1,85 @@
+package net.dryuf.concurrent.executor.benchmark;
+
+import net.dryuf.concurrent.executor.CapacityResultSequencingExecutor;
+import net.dryuf.concurrent.executor.ResultSequencingExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmark measuring throughput of ordered result delivery of {@link ResultSequencingExecutor} and
+ * {@link CapacityResultSequencingExecutor}, compared with unordered {@link CompletableFuture#supplyAsync}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(Config.FORK_COUNT)
+@Warmup(iterations = Config.WARMUP_COUNT, time = Config.WARMUP_TIME, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = Config.MEASURE_COUNT, time = Config.MEASURE_TIME, timeUnit = TimeUnit.SECONDS)
+public class ResultSequencingExecutorBenchmark
+{
+	public final ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+	public final ResultSequencingExecutor resultSequencing = new ResultSequencingExecutor(pool);
+
+	public final CapacityResultSequencingExecutor capacityResultSequencing =
+		new CapacityResultSequencingExecutor(Long.MAX_VALUE, Config.EXECS, pool);
+
+	@TearDown
+	public void teardown()
+	{
+		resultSequencing.close();
+		capacityResultSequencing.close();
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public void b0_unordered() throws InterruptedException
+	{
+		CountDownLatch latch = new CountDownLatch(Config.EXECS);
+		for (int i = 0; i < Config.EXECS; ++i) {
+			int i0 = i;
+			CompletableFuture.supplyAsync(() -> i0, pool)
+				.thenRun(latch::countDown);
+		}
+		latch.await();
+	}
+
+	@Benchmark
+	public void b1_resultSequencing() throws InterruptedException
+	{
+		CountDownLatch latch = new CountDownLatch(Config.EXECS);
+		for (int i = 0; i < Config.EXECS; ++i) {
+			int i0 = i;
+			resultSequencing.submit(() -> i0)
+				.thenRun(latch::countDown);
+		}
+		latch.await();
+	}
+
+	@Benchmark
+	public void b2_capacityResultSequencing() throws InterruptedException
+	{
+		CountDownLatch latch = new CountDownLatch(Config.EXECS);
+		for (int i = 0; i < Config.EXECS; ++i) {
+			int i0 = i;
+			capacityResultSequencing.submit(1, () -> i0)
+				.thenRun(latch::countDown);
+		}
+		latch.await();
+	}
+}
@@ -0,0 +1,96 @@
+package net.dryuf.concurrent.executor.benchmark;
+
+import net.dryuf.concurrent.executor.SequencingExecutor;
+import net.dryuf.concurrent.executor.UncontrolledCloseableExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Measures latency of tasks submitted to 99 quiet {@link SequencingExecutor} instances, while another one sharing the
+ * same pool is flooded by bursts of tasks.  Compares unlimited drain quantum with limited one.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(Config.FORK_COUNT)
+@Warmup(iterations = Config.WARMUP_COUNT, time = Config.WARMUP_TIME, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = Config.MEASURE_COUNT, time = Config.MEASURE_TIME, timeUnit = TimeUnit.SECONDS)
+public class SequencingFairnessBenchmark
+{
+	public static final int SEQUENCERS = 100;
+
+	public static final int WORK = 500;
+
+	public static final int BURST = 2000;
+
+	@Param({ "2147483647", "64" })
+	public int quantum;
+
+	public final ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+	private SequencingExecutor[] sequencers;
+
+	private Thread feeder;
+
+	private volatile boolean running = true;
+
+	private int next;
+
+	@Setup
+	public void setup()
+	{
+		sequencers = new SequencingExecutor[SEQUENCERS];
+		for (int i = 0; i < SEQUENCERS; ++i) {
+			sequencers[i] = new SequencingExecutor(new UncontrolledCloseableExecutor(pool), quantum, 0, TimeUnit.NANOSECONDS);
+		}
+		feeder = new Thread(() -> {
+			while (running) {
+				for (int i = 0; i < BURST; ++i) {
+					sequencers[0].execute(() -> Blackhole.consumeCPU(WORK));
+				}
+				LockSupport.parkNanos(2_000_000);
+			}
+		});
+		feeder.setDaemon(true);
+		feeder.start();
+	}
+
+	@TearDown
+	public void teardown() throws InterruptedException
+	{
+		running = false;
+		feeder.join();
+		for (SequencingExecutor sequencer: sequencers) {
+			sequencer.close();
+		}
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public Object b0_quietLatency() throws Exception
+	{
+		int index = next;
+		next = index+1 >= SEQUENCERS ? 1 : index+1;
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		sequencers[index].execute(() -> future.complete(null));
+		return future.get();
+	}
+}
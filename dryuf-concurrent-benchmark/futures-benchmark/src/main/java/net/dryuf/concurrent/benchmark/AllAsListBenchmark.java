@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.benchmark;
+
+import com.google.common.util.concurrent.SettableFuture;
+import net.dryuf.concurrent.Futures;
+import net.dryuf.concurrent.ListenableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Aggregates results of many futures into list, completing the inputs after the aggregate was created.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AllAsListBenchmark
+{
+	public static final int         WARMUP_ITERATIONS = BenchmarkSupport.WARMUP_ITERATIONS;
+
+	@Param({ "10", "1000", "100000" })
+	public int                      inputs;
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public List<Integer>            benchmarkJdk()
+	{
+		List<CompletableFuture<Integer>> futures = new ArrayList<>(inputs);
+		for (int i = 0; i < inputs; ++i)
+			futures.add(new CompletableFuture<Integer>());
+		CompletableFuture<List<Integer>> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+			.thenApply(v -> {
+				List<Integer> results = new ArrayList<>(futures.size());
+				for (CompletableFuture<Integer> future: futures)
+					results.add(future.join());
+				return results;
+			});
+		for (int i = 0; i < inputs; ++i)
+			futures.get(i).complete(i);
+		return all.join();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public List<Integer>            benchmarkGuava() throws ExecutionException, InterruptedException
+	{
+		List<SettableFuture<Integer>> futures = new ArrayList<>(inputs);
+		for (int i = 0; i < inputs; ++i)
+			futures.add(SettableFuture.create());
+		com.google.common.util.concurrent.ListenableFuture<List<Integer>> all = com.google.common.util.concurrent.Futures.allAsList(futures);
+		for (int i = 0; i < inputs; ++i)
+			futures.get(i).set(i);
+		return all.get();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public List<Integer>            benchmarkLwFutureAllOf() throws ExecutionException, InterruptedException
+	{
+		List<net.dryuf.concurrent.SettableFuture<Integer>> futures = createLwFutures();
+		@SuppressWarnings("unchecked")
+		ListenableFuture<Void> all = Futures.allOf((List<ListenableFuture<?>>)(List<?>)futures);
+		for (int i = 0; i < inputs; ++i)
+			futures.get(i).set(i);
+		all.get();
+		List<Integer> results = new ArrayList<>(futures.size());
+		for (net.dryuf.concurrent.SettableFuture<Integer> future: futures)
+			results.add(future.get());
+		return results;
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public List<Integer>            benchmarkLwFutureAllAsList() throws ExecutionException, InterruptedException
+	{
+		List<net.dryuf.concurrent.SettableFuture<Integer>> futures = createLwFutures();
+		ListenableFuture<List<Integer>> all = Futures.allAsList(futures);
+		for (int i = 0; i < inputs; ++i)
+			futures.get(i).set(i);
+		return all.get();
+	}
+
+	private List<net.dryuf.concurrent.SettableFuture<Integer>> createLwFutures()
+	{
+		List<net.dryuf.concurrent.SettableFuture<Integer>> futures = new ArrayList<>(inputs);
+		for (int i = 0; i < inputs; ++i)
+			futures.add(new net.dryuf.concurrent.SettableFuture<Integer>());
+		return futures;
+	}
+}
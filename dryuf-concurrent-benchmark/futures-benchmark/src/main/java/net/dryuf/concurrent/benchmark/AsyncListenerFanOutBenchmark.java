@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.benchmark;
+
+import net.dryuf.concurrent.DefaultFutureListener;
+import net.dryuf.concurrent.SettableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures completion of future with many asynchronous listeners registered on the same executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AsyncListenerFanOutBenchmark
+{
+	public static final int         WARMUP_ITERATIONS = BenchmarkSupport.WARMUP_ITERATIONS;
+
+	@Param({ "1", "8", "64" })
+	public int                      listeners;
+
+	@Param({ "threadPool", "commonPool" })
+	public String                   executorType;
+
+	@Setup(Level.Trial)
+	public void                     setup()
+	{
+		switch (executorType) {
+		case "threadPool":
+			int threads = Runtime.getRuntime().availableProcessors();
+			threadPool = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>());
+			executor = threadPool;
+			break;
+
+		case "commonPool":
+			executor = ForkJoinPool.commonPool();
+			break;
+
+		default:
+			throw new IllegalArgumentException("Unknown executorType: "+executorType);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void                     teardown()
+	{
+		if (threadPool != null)
+			threadPool.shutdown();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public void                     benchmarkLwFuture() throws InterruptedException
+	{
+		CountDownLatch latch = new CountDownLatch(listeners);
+		SettableFuture<Integer> future = new SettableFuture<Integer>();
+		for (int i = 0; i < listeners; ++i) {
+			future.addAsyncListener(new DefaultFutureListener<Integer>() {
+				@Override
+				public void onNotify() {
+					latch.countDown();
+				}
+			}, executor);
+		}
+		future.set(0);
+		latch.await();
+	}
+
+	private Executor                executor;
+
+	private ExecutorService         threadPool;
+}
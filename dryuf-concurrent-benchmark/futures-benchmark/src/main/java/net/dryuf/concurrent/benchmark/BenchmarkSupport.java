@@ -69,6 +69,24 @@ public class BenchmarkSupport
 		return array;
 	}
 
+	public static class NoopListenerNode<V> extends net.dryuf.concurrent.AbstractFuture.FutureListenerNode<V>
+	{
+		@Override
+		public void                     onSuccess(V result)
+		{
+		}
+
+		@Override
+		public void                     onFailure(Throwable ex)
+		{
+		}
+
+		@Override
+		public void                     onCancelled()
+		{
+		}
+	}
+
 	public static void                     threadedRunFutures(RunnableFuture<Integer>[] array)
 	{
 		Thread t = new Thread(() -> {
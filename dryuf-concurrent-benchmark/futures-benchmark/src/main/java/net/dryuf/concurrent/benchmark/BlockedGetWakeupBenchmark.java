@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Measures latency of waking up threads blocked in {@link Future#get()} once the future completes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BlockedGetWakeupBenchmark
+{
+	public static final int         WARMUP_ITERATIONS = BenchmarkSupport.WARMUP_ITERATIONS;
+
+	@Param({ "1", "4", "16", "64" })
+	public int                      waiters;
+
+	@Setup(Level.Trial)
+	public void                     setup()
+	{
+		phaser = new Phaser(waiters+1);
+		threads = new Thread[waiters];
+		for (int i = 0; i < waiters; ++i) {
+			threads[i] = new Thread(this::runWaiter);
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void                     teardown()
+	{
+		phaser.forceTermination();
+		for (Thread thread: threads) {
+			thread.interrupt();
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public void                     benchmarkJdk()
+	{
+		runWakeup(new FutureTask<Integer>(func));
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public void                     benchmarkLwFuture()
+	{
+		runWakeup(new net.dryuf.concurrent.ListenableFutureTask<Integer>(func));
+	}
+
+	private void                    runWakeup(RunnableFuture<Integer> future)
+	{
+		current = future;
+		entered.set(0);
+		phaser.arriveAndAwaitAdvance();
+		while (entered.get() != waiters) {
+			// busy wait until the waiters block
+		}
+		for (Thread thread: threads) {
+			while (thread.getState() == Thread.State.RUNNABLE) {
+				// busy wait until the waiters block
+			}
+		}
+		future.run();
+		phaser.arriveAndAwaitAdvance();
+	}
+
+	private void                    runWaiter()
+	{
+		try {
+			for (;;) {
+				if (phaser.arriveAndAwaitAdvance() < 0)
+					return;
+				Future<Integer> future = current;
+				entered.incrementAndGet();
+				future.get();
+				if (phaser.arriveAndAwaitAdvance() < 0)
+					return;
+			}
+		}
+		catch (InterruptedException e) {
+			// finishing
+		}
+		catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static final Callable<Integer> func = () -> 0;
+
+	private Thread[]                threads;
+
+	private Phaser                  phaser;
+
+	private final AtomicInteger     entered = new AtomicInteger();
+
+	private volatile Future<Integer> current;
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.benchmark;
+
+import net.dryuf.concurrent.SettableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Completes chain of dependent futures, each completed by direct listener of the previous one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DependentChainBenchmark
+{
+	public static final int         WARMUP_ITERATIONS = BenchmarkSupport.WARMUP_ITERATIONS;
+
+	public static final int         LENGTH = 100_000;
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public Integer                  benchmarkJdk() throws ExecutionException, InterruptedException
+	{
+		CompletableFuture<Integer> first = new CompletableFuture<Integer>();
+		CompletableFuture<Integer> last = first;
+		for (int i = 1; i < LENGTH; ++i) {
+			last = last.thenApply(v -> v+1);
+		}
+		first.complete(0);
+		return last.get();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public Integer                  benchmarkLwFuture() throws ExecutionException, InterruptedException
+	{
+		return runLwFutureChain();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1, jvmArgsAppend = "-Dnet.dryuf.concurrent.listenerRecursionDepth=1")
+	public Integer                  benchmarkLwFutureDepth1() throws ExecutionException, InterruptedException
+	{
+		return runLwFutureChain();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1, jvmArgsAppend = "-Dnet.dryuf.concurrent.listenerRecursionDepth=256")
+	public Integer                  benchmarkLwFutureDepth256() throws ExecutionException, InterruptedException
+	{
+		return runLwFutureChain();
+	}
+
+	private Integer                 runLwFutureChain() throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Integer> first = new SettableFuture<Integer>();
+		SettableFuture<Integer> last = first;
+		for (int i = 1; i < LENGTH; ++i) {
+			final SettableFuture<Integer> next = new SettableFuture<Integer>();
+			last.addListener((Integer v) -> next.set(v+1), null, null);
+			last = next;
+		}
+		first.set(0);
+		return last.get();
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.benchmark;
+
+import net.dryuf.concurrent.DefaultFutureListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutionException;
+
+
+/**
+ * Compares AbstractFuture field access implementations from multi-release jar: atomic field updaters (base
+ * classes, forced by disabling multi-release jar processing) and VarHandles (Java 9+ classes).
+ */
+public class FieldAccessBenchmark
+{
+	public static final int         WARMUP_ITERATIONS = BenchmarkSupport.WARMUP_ITERATIONS;
+	public static final int         COUNT = BenchmarkSupport.COUNT;
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2, batchSize = 1)
+	@Fork(warmups = 1, value = 1, jvmArgsAppend = "-Djdk.util.jar.enableMultiRelease=false")
+	public void                     benchmarkNoListenerUpdaters() throws ExecutionException, InterruptedException
+	{
+		runNoListener();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2, batchSize = 1)
+	@Fork(warmups = 1, value = 1)
+	public void                     benchmarkNoListenerVarHandles() throws ExecutionException, InterruptedException
+	{
+		runNoListener();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2, batchSize = 1)
+	@Fork(warmups = 1, value = 1, jvmArgsAppend = "-Djdk.util.jar.enableMultiRelease=false")
+	public void                     benchmarkSinglePreListenerUpdaters()
+	{
+		runSinglePreListener();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2, batchSize = 1)
+	@Fork(warmups = 1, value = 1)
+	public void                     benchmarkSinglePreListenerVarHandles()
+	{
+		runSinglePreListener();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void             runNoListener() throws ExecutionException, InterruptedException
+	{
+		net.dryuf.concurrent.ListenableFutureTask[] array = BenchmarkSupport.populateLwFutureArray(COUNT);
+		BenchmarkSupport.threadedRunFutures(array);
+		for (net.dryuf.concurrent.ListenableFutureTask f: array) {
+			f.get();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void             runSinglePreListener()
+	{
+		net.dryuf.concurrent.ListenableFutureTask[] array = BenchmarkSupport.populateLwFutureArray(COUNT);
+		for (net.dryuf.concurrent.ListenableFutureTask f: array) {
+			f.addListener(new DefaultFutureListener<Integer>());
+		}
+		BenchmarkSupport.threadedRunFutures(array);
+	}
+}
@@ -69,6 +69,24 @@ public class MixedListenerAsyncBenchmark
 		// skip futures.get() as we already handled in listeners
 	}
 
+	@SuppressWarnings("unchecked")
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2, batchSize = 1)
+	@Fork(warmups = 1, value = 1)
+	public void                     benchmarkLwFutureListenerNode() throws ExecutionException, InterruptedException
+	{
+		net.dryuf.concurrent.ListenableFutureTask[] array = BenchmarkSupport.populateLwFutureArray(COUNT);
+		for (net.dryuf.concurrent.ListenableFutureTask f: array) {
+			f.addListener(new BenchmarkSupport.NoopListenerNode<Integer>());
+		}
+		BenchmarkSupport.threadedRunFutures(array);
+		for (net.dryuf.concurrent.ListenableFutureTask f: array) {
+			f.addListener(new BenchmarkSupport.NoopListenerNode<Integer>());
+		}
+		// skip futures.get() as we already handled in listeners
+	}
+
 	@SuppressWarnings("unchecked")
 	@Benchmark
 	@Warmup(iterations = WARMUP_ITERATIONS)
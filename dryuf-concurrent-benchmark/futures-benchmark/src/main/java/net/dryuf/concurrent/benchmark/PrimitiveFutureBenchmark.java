@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.benchmark;
+
+import net.dryuf.concurrent.LongFutureListener;
+import net.dryuf.concurrent.SettableFuture;
+import net.dryuf.concurrent.SettableLongFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares boxed {@link SettableFuture} of {@link Long} with {@link SettableLongFuture}, completing futures with
+ * values outside of {@link Long} cache and consuming them via listener and get.  Run with {@code -prof gc} to see
+ * the allocation difference.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PrimitiveFutureBenchmark
+{
+	public static final int         WARMUP_ITERATIONS = BenchmarkSupport.WARMUP_ITERATIONS;
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public long                     benchmarkBoxed(Blackhole blackhole) throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Long> future = new SettableFuture<Long>();
+		future.addListener(blackhole::consume, null, null);
+		future.set(++counter+1024);
+		return future.get();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public long                     benchmarkPrimitive(Blackhole blackhole) throws ExecutionException, InterruptedException
+	{
+		SettableLongFuture future = new SettableLongFuture();
+		future.addLongListener(new LongFutureListener()
+		{
+			@Override
+			public void onSuccess(long result)
+			{
+				blackhole.consume(result);
+			}
+
+			@Override
+			public void onFailure(Throwable ex)
+			{
+			}
+
+			@Override
+			public void onCancelled()
+			{
+			}
+		});
+		future.setLong(++counter+1024);
+		return future.getLong();
+	}
+
+	private long                    counter;
+}
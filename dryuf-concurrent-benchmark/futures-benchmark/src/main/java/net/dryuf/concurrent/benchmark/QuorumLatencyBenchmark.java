@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.benchmark;
+
+import net.dryuf.concurrent.Futures;
+import net.dryuf.concurrent.ListenableFuture;
+import net.dryuf.concurrent.SettableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures latency of waiting for 2 of 3 replicas, each completing after random delay with occasional slow
+ * outlier, compared to waiting for all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuorumLatencyBenchmark
+{
+	public static final int         WARMUP_ITERATIONS = BenchmarkSupport.WARMUP_ITERATIONS;
+
+	@Setup(Level.Trial)
+	public void                     setup()
+	{
+		scheduler = Executors.newScheduledThreadPool(4);
+	}
+
+	@TearDown(Level.Trial)
+	public void                     teardown()
+	{
+		scheduler.shutdownNow();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public List<Integer>            benchmarkAllAsList() throws ExecutionException, InterruptedException
+	{
+		return Futures.allAsList(startReplicas()).get();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public List<Integer>            benchmarkQuorum() throws ExecutionException, InterruptedException
+	{
+		return Futures.quorum(startReplicas()).get();
+	}
+
+	private List<ListenableFuture<Integer>> startReplicas()
+	{
+		@SuppressWarnings("unchecked")
+		ListenableFuture<Integer>[] replicas = new ListenableFuture[3];
+		for (int i = 0; i < replicas.length; ++i) {
+			SettableFuture<Integer> replica = new SettableFuture<Integer>();
+			final int value = i;
+			// 10% of responses are slow outliers
+			long delay = ThreadLocalRandom.current().nextInt(10) == 0 ? 2000 : ThreadLocalRandom.current().nextInt(50, 100);
+			scheduler.schedule(() -> replica.set(value), delay, TimeUnit.MICROSECONDS);
+			replicas[i] = replica;
+		}
+		return Arrays.asList(replicas);
+	}
+
+	private ScheduledExecutorService scheduler;
+}
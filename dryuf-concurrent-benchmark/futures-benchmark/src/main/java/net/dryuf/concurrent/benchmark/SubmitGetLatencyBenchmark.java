@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.benchmark;
+
+import net.dryuf.concurrent.ListeningExecutorService;
+import net.dryuf.concurrent.ListeningExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures latency distribution of submitting short task and waiting for it in {@code get()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SubmitGetLatencyBenchmark
+{
+	public static final int         WARMUP_ITERATIONS = BenchmarkSupport.WARMUP_ITERATIONS;
+
+	@Setup(Level.Trial)
+	public void                     setup()
+	{
+		jdkExecutor = Executors.newSingleThreadExecutor();
+		lwExecutor = ListeningExecutors.listeningDecorator(Executors.newSingleThreadExecutor());
+	}
+
+	@TearDown(Level.Trial)
+	public void                     teardown()
+	{
+		jdkExecutor.shutdown();
+		lwExecutor.shutdown();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public Integer                  benchmarkJdk() throws ExecutionException, InterruptedException
+	{
+		return jdkExecutor.submit(func).get();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public Integer                  benchmarkLwFuture() throws ExecutionException, InterruptedException
+	{
+		return lwExecutor.submit(func).get();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1, jvmArgsAppend = { "-Dnet.dryuf.concurrent.waitSpins=0", "-Dnet.dryuf.concurrent.waitYields=0" })
+	public Integer                  benchmarkLwFutureParkOnly() throws ExecutionException, InterruptedException
+	{
+		return lwExecutor.submit(func).get();
+	}
+
+	private static final Callable<Integer> func = () -> 0;
+
+	private ExecutorService         jdkExecutor;
+
+	private ListeningExecutorService lwExecutor;
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.benchmark;
+
+import net.dryuf.concurrent.Futures;
+import net.dryuf.concurrent.HashedWheelTimer;
+import net.dryuf.concurrent.ListenableFuture;
+import net.dryuf.concurrent.SettableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * Compares timing out futures via {@link ScheduledThreadPoolExecutor} and via {@link HashedWheelTimer}, with
+ * number of other timers outstanding.  The futures complete before the timeout, so the timer is always cancelled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimeoutBenchmark
+{
+	public static final int         WARMUP_ITERATIONS = BenchmarkSupport.WARMUP_ITERATIONS;
+
+	@Param({ "10000", "1000000" })
+	public int                      outstanding;
+
+	@Setup(Level.Trial)
+	public void                     setup()
+	{
+		stpe = new ScheduledThreadPoolExecutor(1);
+		stpe.setRemoveOnCancelPolicy(true);
+		timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 4096, Executors.defaultThreadFactory(), null);
+		for (int i = 0; i < outstanding; ++i) {
+			stpe.schedule(NOOP, 3600+i%3600, TimeUnit.SECONDS);
+			timer.newTimeout(NOOP, 3600+i%3600, TimeUnit.SECONDS);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void                     teardown()
+	{
+		stpe.shutdownNow();
+		timer.close();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public boolean                  benchmarkStpeScheduleCancel()
+	{
+		return stpe.schedule(NOOP, 30, TimeUnit.SECONDS).cancel(false);
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public boolean                  benchmarkWheelScheduleCancel()
+	{
+		return timer.newTimeout(NOOP, 30, TimeUnit.SECONDS).cancel();
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public ListenableFuture<Integer> benchmarkStpeFutureTimeout()
+	{
+		SettableFuture<Integer> future = new SettableFuture<Integer>();
+		ScheduledFuture<?> timeout = stpe.schedule(() -> future.setException(new TimeoutException()), 30, TimeUnit.SECONDS);
+		future.addListener(() -> timeout.cancel(false));
+		future.set(0);
+		return future;
+	}
+
+	@Benchmark
+	@Warmup(iterations = WARMUP_ITERATIONS)
+	@Measurement(iterations = 2)
+	@Fork(warmups = 1, value = 1)
+	public ListenableFuture<Integer> benchmarkWheelFutureTimeout()
+	{
+		SettableFuture<Integer> future = new SettableFuture<Integer>();
+		ListenableFuture<Integer> timed = Futures.withTimeout(future, 30, TimeUnit.SECONDS, timer);
+		future.set(0);
+		return timed;
+	}
+
+	private static final Runnable   NOOP = () -> {};
+
+	private ScheduledThreadPoolExecutor stpe;
+
+	private HashedWheelTimer        timer;
+}
@@ -0,0 +1,12 @@
+package net.dryuf.concurrent.scheduler.benchmark;
+
+public class Config
+{
+	public static final int EXECS = 1000;
+	public static final int OUTSTANDING = 100000;
+	public static final int FORK_COUNT = 1;
+	public static final int WARMUP_COUNT = 2;
+	public static final int WARMUP_TIME = 2;
+	public static final int MEASURE_COUNT = 2;
+	public static final int MEASURE_TIME = 2;
+}
@@ -0,0 +1,70 @@
+package net.dryuf.concurrent.scheduler.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmark for {@link ScheduledThreadPoolExecutor}, with {@link Config#OUTSTANDING} long timers outstanding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(Config.FORK_COUNT)
+@Warmup(iterations = Config.WARMUP_COUNT, time = Config.WARMUP_TIME, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = Config.MEASURE_COUNT, time = Config.MEASURE_TIME, timeUnit = TimeUnit.SECONDS)
+public class JavaSchedulerBenchmark
+{
+	public final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors());
+
+	@Setup
+	public void setup()
+	{
+		executor.setRemoveOnCancelPolicy(true);
+		for (int i = 0; i < Config.OUTSTANDING; ++i) {
+			executor.schedule(() -> {}, 3600+i%3600, TimeUnit.SECONDS);
+		}
+	}
+
+	@TearDown
+	public void teardown()
+	{
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public void b0_scheduleCancel()
+	{
+		ScheduledFuture<?>[] futures = new ScheduledFuture<?>[Config.EXECS];
+		for (int i = 0; i < Config.EXECS; ++i) {
+			futures[i] = executor.schedule(() -> {}, 30+i, TimeUnit.SECONDS);
+		}
+		for (ScheduledFuture<?> future: futures) {
+			future.cancel(false);
+		}
+	}
+
+	@Benchmark
+	public void b1_scheduleRun() throws InterruptedException
+	{
+		CountDownLatch latch = new CountDownLatch(Config.EXECS);
+		for (int i = 0; i < Config.EXECS; ++i) {
+			executor.schedule(latch::countDown, 0, TimeUnit.MILLISECONDS);
+		}
+		latch.await();
+	}
+}
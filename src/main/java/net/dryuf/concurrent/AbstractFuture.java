@@ -16,14 +16,15 @@
 
 package net.dryuf.concurrent;
 
+import java.util.Optional;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -67,6 +68,8 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	protected                       AbstractFuture(int initialStatus)
 	{
 		setStatusLazy(initialStatus);
+		if (FutureMetrics.ENABLED && (initialStatus&ST_RUNNING) != 0)
+			startMetrics();
 	}
 
 	@Override
@@ -110,9 +113,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		case ST_WAITING|ST_RUNNING:
 		case ST_WAITING|ST_RUNNING|ST_COMPLETING:
 		case ST_DELAYED_CANCEL|ST_WAITING:
-			synchronized (this) {
-				notifyAll();
-			}
+			unparkWaiters();
 			processListenersCancelled();
 			break;
 
@@ -122,9 +123,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		case ST_DELAYED_CANCEL|ST_WAITING|ST_COMPLETING:
 		case ST_DELAYED_CANCEL|ST_WAITING|ST_RUNNING:
 		case ST_DELAYED_CANCEL|ST_WAITING|ST_RUNNING|ST_COMPLETING:
-			synchronized (this) {
-				notifyAll();
-			}
+			unparkWaiters();
 			break;
 		}
 		return true;
@@ -144,40 +143,70 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 
 	@Override
 	public V			get() throws InterruptedException, ExecutionException
+	{
+		awaitSuccess();
+		return getResult();
+	}
+
+	@Override
+	public V			get(long l, @SuppressWarnings("NullableProblems") TimeUnit timeUnit) throws InterruptedException, ExecutionException, TimeoutException
+	{
+		awaitSuccess(l, timeUnit);
+		return getResult();
+	}
+
+	/**
+	 * Waits until this future finishes successfully.
+	 *
+	 * @throws InterruptedException
+	 *      if the thread was interrupted while waiting
+	 * @throws ExecutionException
+	 *      if the future failed
+	 * @throws CancellationException
+	 *      if the future was cancelled
+	 */
+	final void                      awaitSuccess() throws InterruptedException, ExecutionException
 	{
 		for (;;) {
 			try {
-				return get(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+				awaitSuccess(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+				return;
 			}
 			catch (TimeoutException e) {
 			}
 		}
 	}
 
-	@Override
-	public V			get(long l, @SuppressWarnings("NullableProblems") TimeUnit timeUnit) throws InterruptedException, ExecutionException, TimeoutException
+	/**
+	 * Waits until this future finishes successfully.
+	 *
+	 * @param l
+	 *      time to wait
+	 * @param timeUnit
+	 *      unit of time to wait
+	 *
+	 * @throws InterruptedException
+	 *      if the thread was interrupted while waiting
+	 * @throws ExecutionException
+	 *      if the future failed
+	 * @throws CancellationException
+	 *      if the future was cancelled
+	 * @throws TimeoutException
+	 *      if the future did not finish within the time
+	 */
+	final void                      awaitSuccess(long l, TimeUnit timeUnit) throws InterruptedException, ExecutionException, TimeoutException
 	{
 		int oldStatus = getStatus();
 		if (oldStatus < ST_FINISHED) {
 			// this would hardly ever happen as we expect any get would be run by listener
-			synchronized (this) {
-				for (;;) {
-					oldStatus = getStatus();
-					if (oldStatus >= ST_FINISHED)
-						break;
-					if (casStatus(oldStatus, oldStatus|ST_WAITING)) {
-						long nanos = timeUnit.toNanos(l);
-						if (nanos == Long.MAX_VALUE)
-							this.wait(timeUnit.toMillis(l));
-						else
-							this.wait(nanos/1000000, (int)(nanos%1000000));
-						oldStatus = getStatus();
-						if (oldStatus < ST_FINISHED)
-							throw new TimeoutException(String.valueOf(l));
-					}
-				}
-			}
+			long nanos = timeUnit.toNanos(l);
+			oldStatus = awaitDone(nanos == Long.MAX_VALUE ? 0 : System.nanoTime()+nanos, nanos != Long.MAX_VALUE);
+			if (oldStatus < ST_FINISHED)
+				throw new TimeoutException(String.valueOf(l));
 		}
+		// cancel() of not yet running future publishes FINISHED together with CANCELLING, before CANCELLED
+		if ((oldStatus&ST_CANCELLING) != 0)
+			throw new CancellationException();
 		switch (oldStatus&(ST_CANCELLED|ST_FINISHED)) {
 		case ST_CANCELLED:
 		case ST_CANCELLED|ST_FINISHED:
@@ -186,7 +215,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		case ST_FINISHED:
 			if (excepted != null)
 				throw new ExecutionException(excepted);
-			return result;
+			return;
 
 		default:
 			assert false : "Unexpected final status: "+oldStatus;
@@ -194,6 +223,30 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		}
 	}
 
+	/**
+	 * Gets the result of successfully finished future.
+	 *
+	 * Overridden by primitive specializations, which box the value only when requested via generic interface.
+	 *
+	 * @return
+	 *      result of this future
+	 */
+	V                               getResult()
+	{
+		return result;
+	}
+
+	/**
+	 * Gets the failure cause of finished future.
+	 *
+	 * @return
+	 *      failure cause of this future or null if the future did not fail
+	 */
+	final Throwable                 getExcepted()
+	{
+		return excepted;
+	}
+
 	@Override
 	public ListenableFuture<V>      setDelayedCancel()
 	{
@@ -290,7 +343,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 
 			@Override
 			public void executeSet() {
-				listener.onSuccess(result);
+				listener.onSuccess(getResult());
 			}
 
 			@Override
@@ -328,7 +381,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 			@Override
 			public void executeSet() {
 				if (successListener != null)
-					successListener.onSuccess(result);
+					successListener.onSuccess(getResult());
 			}
 
 			@Override
@@ -349,25 +402,25 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	@Override
 	public ListenableFuture<V>	addAsyncListener(final Runnable listener, final Executor executor)
 	{
-		addListenerNode(new RegularListenerNode<V>() {
+		addListenerNode(new ExecutorListenerNode<V>(executor) {
 			@Override
 			public String toString() {
 				return listener.toString();
 			}
 
 			@Override
-			public void executeSet() {
-				executor.execute(listener);
+			public void runSet() {
+				listener.run();
 			}
 
 			@Override
-			public void executeExcepted() {
-				executor.execute(listener);
+			public void runExcepted() {
+				listener.run();
 			}
 
 			@Override
-			public void executeCancelled() {
-				executor.execute(listener);
+			public void runCancelled() {
+				listener.run();
 			}
 		});
 		return this;
@@ -376,7 +429,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	@Override
 	public <FT extends Future<V>> ListenableFuture<V> addAsyncListener(final FutureNotifier<FT> listener, final Executor executor)
 	{
-		addListenerNode(new RegularListenerNode<V>() {
+		addListenerNode(new ExecutorListenerNode<V>(executor) {
 			@Override
 			public String toString() {
 				return listener.toString();
@@ -384,35 +437,20 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 
 			@Override
 			@SuppressWarnings("unchecked")
-			public void executeSet() {
-				executor.execute(new Runnable() {
-					@Override
-					public void run() {
-						listener.accept((FT) AbstractFuture.this);
-					}
-				});
+			public void runSet() {
+				listener.accept((FT) AbstractFuture.this);
 			}
 
 			@Override
 			@SuppressWarnings("unchecked")
-			public void executeExcepted() {
-				executor.execute(new Runnable() {
-					@Override
-					public void run() {
-						listener.accept((FT) AbstractFuture.this);
-					}
-				});
+			public void runExcepted() {
+				listener.accept((FT) AbstractFuture.this);
 			}
 
 			@Override
 			@SuppressWarnings("unchecked")
-			public void executeCancelled() {
-				executor.execute(new Runnable() {
-					@Override
-					public void run() {
-						listener.accept((FT) AbstractFuture.this);
-					}
-				});
+			public void runCancelled() {
+				listener.accept((FT) AbstractFuture.this);
 			}
 		});
 		return this;
@@ -421,40 +459,25 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	@Override
 	public ListenableFuture<V>      addAsyncListener(final FutureListener<V> listener, final Executor executor)
 	{
-		addListenerNode(new RegularListenerNode<V>() {
+		addListenerNode(new ExecutorListenerNode<V>(executor) {
 			@Override
 			public String toString() {
 				return listener.toString();
 			}
 
 			@Override
-			public void executeSet() {
-				executor.execute(new Runnable() {
-					@Override
-					public void run() {
-						listener.onSuccess(result);
-					}
-				});
+			public void runSet() {
+				listener.onSuccess(getResult());
 			}
 
 			@Override
-			public void executeExcepted() {
-				executor.execute(new Runnable() {
-					@Override
-					public void run() {
-						listener.onFailure(excepted);
-					}
-				});
+			public void runExcepted() {
+				listener.onFailure(excepted);
 			}
 
 			@Override
-			public void executeCancelled() {
-				executor.execute(new Runnable() {
-					@Override
-					public void run() {
-						listener.onCancelled();
-					}
-				});
+			public void runCancelled() {
+				listener.onCancelled();
 			}
 		});
 		return this;
@@ -463,7 +486,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	@Override
 	public ListenableFuture<V>      addAsyncListener(final SuccessListener<V> successListener, final FailureListener failureListener, final CancelListener cancelListener, final Executor executor)
 	{
-		addListenerNode(new RegularListenerNode<V>() {
+		addListenerNode(new ExecutorListenerNode<V>(executor) {
 			@Override
 			public String toStringSet() {
 				return successListener.toString();
@@ -480,44 +503,83 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 			}
 
 			@Override
-			public void executeSet() {
-				if (successListener != null) {
-					executor.execute(new Runnable() {
-						@Override
-						public void run() {
-							successListener.onSuccess(result);
-						}
-					});
+			boolean acceptNotification(int notification) {
+				switch (notification) {
+				case NOTIFICATION_SET:
+					return successListener != null;
+
+				case NOTIFICATION_EXCEPTED:
+					return failureListener != null;
+
+				default:
+					return cancelListener != null;
 				}
 			}
 
 			@Override
-			public void executeExcepted() {
-				if (failureListener != null) {
-					executor.execute(new Runnable() {
-						@Override
-						public void run() {
-							failureListener.onFailure(excepted);
-						}
-					});
-				}
+			public void runSet() {
+				successListener.onSuccess(getResult());
 			}
 
 			@Override
-			public void executeCancelled() {
-				if (cancelListener != null) {
-					executor.execute(new Runnable() {
-						@Override
-						public void run() {
-							cancelListener.onCancelled();
-						}
-					});
-				}
+			public void runExcepted() {
+				failureListener.onFailure(excepted);
+			}
+
+			@Override
+			public void runCancelled() {
+				cancelListener.onCancelled();
 			}
 		});
 		return this;
 	}
 
+	/**
+	 * Registers new listener which is also the listener queue node, avoiding any additional allocation.
+	 *
+	 * The node can be registered only once.
+	 *
+	 * @param listenerNode
+	 * 	listener to be called when future is done
+	 *
+	 * @return
+	 *      this instance
+	 *
+	 * @throws IllegalStateException
+	 *      if the node was already registered
+	 */
+	public ListenableFuture<V>      addListener(FutureListenerNode<V> listenerNode)
+	{
+		listenerNode.register(this, null);
+		addListenerNode(listenerNode);
+		return this;
+	}
+
+	/**
+	 * Registers new listener which is also the listener queue node, avoiding any additional allocation.
+	 *
+	 * The node itself is submitted as {@link Runnable} to the executor.  The node can be registered only once.
+	 *
+	 * @param listenerNode
+	 * 	listener to be called when future is done
+	 * @param executor
+	 *      executor which will execute listener
+	 *
+	 * @return
+	 *      this instance
+	 *
+	 * @throws IllegalStateException
+	 *      if the node was already registered
+	 */
+	public ListenableFuture<V>      addAsyncListener(FutureListenerNode<V> listenerNode, Executor executor)
+	{
+		if (executor == null)
+			throw new NullPointerException("executor cannot be null");
+		listenerNode.register(this, executor);
+		addListenerNode(listenerNode);
+		return this;
+	}
+
 	/**
 	 * Customizable method to interrupt running task.
 	 *
@@ -545,8 +607,11 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		// optimize for the most common case when we update to RUNNING from initial state
 		int oldStatus = 0;
 		for (;;) {
-			if (casStatus(oldStatus, oldStatus|ST_RUNNING))
+			if (casStatus(oldStatus, oldStatus|ST_RUNNING)) {
+				if (FutureMetrics.ENABLED)
+					startMetrics();
 				return true;
+			}
 			oldStatus = getStatusLazy();
 			if (oldStatus >= ST_COMPLETING)
 				return false;
@@ -591,11 +656,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		if (!updateStatusCompleting())
 			return false;
 		this.result = result;
-		if (updateStatusFinished(ST_FINISHED) < ST_FINISHED) {
-			processListenersSet();
-			return true;
-		}
-		return false;
+		return updateStatusSet();
 	}
 
 	/**
@@ -644,6 +705,23 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		return false;
 	}
 
+	/**
+	 * Finishes successful completion, once the result was stored after {@link #updateStatusCompleting()}.
+	 *
+	 * @return true
+	 *      if the task was not yet cancelled
+	 * false
+	 *      if the task was already cancelled
+	 */
+	final boolean                   updateStatusSet()
+	{
+		if (updateStatusFinished(ST_FINISHED) < ST_FINISHED) {
+			processListenersSet();
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Sets the status to completing state.
 	 *
@@ -653,7 +731,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	 * @return
 	 *      old status value
 	 */
-	private final boolean           updateStatusCompleting()
+	final boolean                   updateStatusCompleting()
 	{
 		// optimize for the most common case when we update to final from RUNNING state
 		int oldStatus = ST_RUNNING;
@@ -678,23 +756,21 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 
 		// we got CANCELLING and COMPLETING at the same time
 		// we have to wait for potential interrupt request and wait for notification from cancel()
-		synchronized (this) {
-			for (;;) {
-				if (casStatus(oldStatus, oldStatus|ST_FINISHED))
-					break;
-				oldStatus = getStatusLazy();
-			}
-			if ((oldStatus&ST_CANCELLING) != 0) {
+		for (;;) {
+			if (casStatus(oldStatus, oldStatus|ST_FINISHED))
+				break;
+			oldStatus = getStatusLazy();
+		}
+		if ((oldStatus&ST_CANCELLING) != 0) {
+			WaiterListenerNode<V> waiter = acquireWaiterNode();
+			if (waiter != null) {
 				boolean interrupted = false;
-				for (;;) {
-					try {
-						this.wait();
-						break;
-					}
-					catch (InterruptedException e) {
+				while ((getStatus()&ST_CANCELLING) != 0) {
+					LockSupport.park(this);
+					if (Thread.interrupted())
 						interrupted = true;
-					}
 				}
+				waiter.release();
 				if (interrupted)
 					Thread.currentThread().interrupt();
 			}
@@ -719,13 +795,9 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	private final int               updateStatusFinished(int finalStatus)
 	{
 		int old = updateStatusFinal(finalStatus);
-		if ((old&ST_CANCELLED) != 0) {
-			synchronized (this) {
-				// dummy lock so we stay within the thread until interruptTask() finishes
-			}
-			if ((old&(ST_CANCELLED|ST_DELAYED_CANCEL)) == (ST_CANCELLED|ST_DELAYED_CANCEL))
-				processListenersCancelled();
-		}
+		// interruptTask() is always finished before ST_CANCELLED is published, no need to wait for it
+		if ((old&(ST_CANCELLED|ST_DELAYED_CANCEL)) == (ST_CANCELLED|ST_DELAYED_CANCEL))
+			processListenersCancelled();
 		return old;
 	}
 
@@ -751,13 +823,160 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 				return oldStatus;
 		}
 		if ((oldStatus&ST_WAITING) != 0) {
-			synchronized (this) {
-				notifyAll();
-			}
+			unparkWaiters();
 		}
 		return oldStatus;
 	}
 
+	/**
+	 * Gets number of busy spins before the thread waiting in {@link #get()} yields and later parks.
+	 *
+	 * Futures expected to complete shortly after {@code get()} may override this to increase the number, futures
+	 * running long tasks may override this to return zero.  By default returns {@link #WAIT_SPINS}.
+	 *
+	 * @return
+	 *      number of busy spins
+	 */
+	protected int                   getWaitSpins()
+	{
+		return WAIT_SPINS;
+	}
+
+	/**
+	 * Waits until this future reaches final state.
+	 *
+	 * The thread spins for {@link #getWaitSpins()} iterations and then yields {@link #WAIT_YIELDS} times, in case
+	 * the future completes shortly, avoiding context switch.  Then it parks.
+	 *
+	 * The waiting thread is pushed as special node into listeners queue, so it does not cost any additional
+	 * memory in this future.  The node is woken either by {@link #unparkWaiters()} or latest when the listeners
+	 * are processed.
+	 *
+	 * @param deadline
+	 *      deadline in {@link System#nanoTime()} units, ignored if not timed
+	 * @param timed
+	 *      indicator whether deadline applies
+	 *
+	 * @return
+	 *      last known status
+	 *
+	 * @throws InterruptedException
+	 *      if the thread was interrupted while waiting
+	 */
+	private final int               awaitDone(long deadline, boolean timed) throws InterruptedException
+	{
+		int oldStatus;
+		for (int i = getWaitSpins(); i > 0; --i) {
+			if ((oldStatus = getStatus()) >= ST_FINISHED)
+				return oldStatus;
+			AbstractFutureFields.onSpinWait();
+		}
+		for (int i = WAIT_YIELDS; i > 0; --i) {
+			if ((oldStatus = getStatus()) >= ST_FINISHED)
+				return oldStatus;
+			if (timed && deadline-System.nanoTime() <= 0)
+				return oldStatus;
+			Thread.yield();
+		}
+		for (;;) {
+			oldStatus = getStatus();
+			if (oldStatus >= ST_FINISHED)
+				return oldStatus;
+			if ((oldStatus&ST_WAITING) != 0 || casStatus(oldStatus, oldStatus|ST_WAITING))
+				break;
+		}
+		WaiterListenerNode<V> waiter = acquireWaiterNode();
+		if (waiter == null)
+			return getStatus();
+		try {
+			for (;;) {
+				if ((oldStatus = getStatus()) >= ST_FINISHED)
+					return oldStatus;
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				if (timed) {
+					long remaining = deadline-System.nanoTime();
+					if (remaining <= 0)
+						return oldStatus;
+					LockSupport.parkNanos(this, remaining);
+				}
+				else {
+					LockSupport.park(this);
+				}
+			}
+		}
+		finally {
+			waiter.release();
+		}
+	}
+
+	/**
+	 * Acquires waiter node for current thread in listeners queue.
+	 *
+	 * The nodes cannot be safely unlinked from the queue, therefore released nodes are reused by next waiters and
+	 * the queue never grows above the number of concurrently waiting threads.
+	 *
+	 * @return
+	 *      the waiter node or null if the listeners were already processed and therefore the future is already in
+	 *      final state
+	 */
+	private final WaiterListenerNode<V> acquireWaiterNode()
+	{
+		ListenerNode<V> oldListeners = getListenersLazy();
+		for (ListenerNode<V> current = oldListeners; current != null; current = current.getNextNode()) {
+			if (current instanceof WaiterListenerNode && ((WaiterListenerNode<V>)current).tryAcquire())
+				return (WaiterListenerNode<V>)current;
+		}
+		WaiterListenerNode<V> waiter = new WaiterListenerNode<V>();
+		for (;; oldListeners = getListenersLazy()) {
+			if (oldListeners != null && oldListeners.getNodeType() != ListenerNode.NT_REGULAR)
+				return null;
+			((ListenerNode<V>)waiter).nextNode = oldListeners;
+			if (casListeners(oldListeners, waiter))
+				return waiter;
+		}
+	}
+
+	/**
+	 * Starts measuring time to complete, see {@link FutureMetrics}.
+	 *
+	 * The start time is kept in special node in listeners queue, so the future does not need any additional field.
+	 * Node already present from previous run is reused.
+	 */
+	private final void              startMetrics()
+	{
+		long now = System.nanoTime();
+		ListenerNode<V> oldListeners = getListenersLazy();
+		for (ListenerNode<V> current = oldListeners; current != null; current = current.getNextNode()) {
+			if (current instanceof MetricsListenerNode) {
+				((MetricsListenerNode<V>)current).startNanos = now;
+				return;
+			}
+		}
+		MetricsListenerNode<V> node = new MetricsListenerNode<V>(now);
+		for (;; oldListeners = getListenersLazy()) {
+			if (oldListeners != null && oldListeners.getNodeType() != ListenerNode.NT_REGULAR)
+				return;
+			((ListenerNode<V>)node).nextNode = oldListeners;
+			if (casListeners(oldListeners, node))
+				return;
+		}
+	}
+
+	/**
+	 * Wakes up threads waiting for this future.
+	 *
+	 * The links of published nodes are never modified, so the traversal is safe even when the listeners are being
+	 * processed concurrently.
+	 */
+	private final void              unparkWaiters()
+	{
+		for (ListenerNode<V> current = getListeners(); current != null; current = current.getNextNode()) {
+			if (current instanceof WaiterListenerNode)
+				((WaiterListenerNode<V>)current).unpark();
+		}
+	}
+
 	/**
 	 * Adds single listener node.
 	 *
@@ -766,7 +985,7 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	 * @param listenerNode
 	 *      listener to be added
 	 */
-	private final void              addListenerNode(ListenerNode<V> listenerNode)
+	final void                      addListenerNode(ListenerNode<V> listenerNode)
 	{
 		// optimize for the most common case when there is only single listener registered for the future
 		if (casListeners(null, listenerNode))
@@ -793,26 +1012,50 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	{
 		switch (getStatusLazy()&(ST_FINISHED|ST_CANCELLED)) {
 		case ST_FINISHED:
-			if (excepted != null) {
-				try {
-					listener.executeExcepted();
-				}
-				catch (RuntimeException ex) {
-					logger.log(Level.SEVERE, "RuntimeException raised by FutureListener.onSuccess() "+listener.toStringExcepted(), ex);
-				}
-			}
-			else {
-				try {
-					listener.executeSet();
-				}
-				catch (RuntimeException ex) {
-					logger.log(Level.SEVERE, "RuntimeException raised by FutureListener.onFailure() "+listener.toStringSet(), ex);
-				}
-			}
+			executeListener(listener, excepted != null ? NOTIFICATION_EXCEPTED : NOTIFICATION_SET);
 			break;
 
 		case ST_CANCELLED:
 		case ST_CANCELLED|ST_FINISHED:
+			executeListener(listener, NOTIFICATION_CANCELLED);
+			break;
+
+		default:
+			assert false : "Unexpected final status: "+getStatusLazy();
+			throw new AssertionError("Unexpected final status: "+getStatusLazy());
+		}
+	}
+
+	/**
+	 * Executes single listener, logging any exception.
+	 *
+	 * @param listener
+	 *      listener to be executed
+	 * @param notification
+	 *      type of notification, one of NOTIFICATION_* constants
+	 */
+	private static <V> void         executeListener(ListenerNode<V> listener, int notification)
+	{
+		switch (notification) {
+		case NOTIFICATION_SET:
+			try {
+				listener.executeSet();
+			}
+			catch (RuntimeException ex) {
+				logger.log(Level.SEVERE, "RuntimeException raised by FutureListener.onSuccess() "+listener.toStringSet(), ex);
+			}
+			break;
+
+		case NOTIFICATION_EXCEPTED:
+			try {
+				listener.executeExcepted();
+			}
+			catch (RuntimeException ex) {
+				logger.log(Level.SEVERE, "RuntimeException raised by FutureListener.onFailure() "+listener.toStringExcepted(), ex);
+			}
+			break;
+
+		case NOTIFICATION_CANCELLED:
 			try {
 				listener.executeCancelled();
 			}
@@ -822,128 +1065,211 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 			break;
 
 		default:
-			assert false : "Unexpected final status: "+getStatusLazy();
-			throw new AssertionError("Unexpected final status: "+getStatusLazy());
+			throw new AssertionError("Unexpected notification: "+notification);
 		}
 	}
 
 	/**
 	 * Processes listeners by notifying about successful completion.
 	 */
-	@SuppressWarnings("unchecked")
 	private final void              processListenersSet()
 	{
-		ListenerNode<V> boundaryListener = null;
-		for (;;) {
-			ListenerNode<V> lastListener = getListeners();
-			for (ListenerNode<V> current = ListenerNode.reverseListenersQueue(lastListener, boundaryListener); current != boundaryListener; current = current.nextNode) {
-				try {
-					current.executeSet();
-				}
-				catch (RuntimeException ex) {
-					logger.log(Level.SEVERE, "RuntimeException raised by FutureListener.onSuccess() "+current.toStringSet(), ex);
-				}
-			}
-			if (casListeners(lastListener, (ListenerNode<V>)LN_MARKER_CLOSED))
-				return;
-			boundaryListener = lastListener;
-		}
+		processListeners(NOTIFICATION_SET);
 	}
 
 	/**
 	 * Processes listeners by notifying about exception.
 	 */
-	@SuppressWarnings("unchecked")
 	private final void              processListenersExcepted()
 	{
-		ListenerNode<V> boundaryListener = null;
-		for (;;) {
-			ListenerNode<V> lastListener = getListeners();
-			for (ListenerNode<V> current = ListenerNode.reverseListenersQueue(lastListener, boundaryListener); current != boundaryListener; current = current.nextNode) {
-				try {
-					current.executeExcepted();
-				}
-				catch (RuntimeException ex) {
-					logger.log(Level.SEVERE, "RuntimeException raised by FutureListener.onExcepted() "+current.toStringExcepted(), ex);
-				}
-			}
-			if (casListeners(lastListener, (ListenerNode<V>)LN_MARKER_CLOSED))
-				return;
-			boundaryListener = lastListener;
-		}
+		processListeners(NOTIFICATION_EXCEPTED);
 	}
 
 	/**
 	 * Processes listeners by notifying about cancellation
 	 */
-	@SuppressWarnings("unchecked")
 	private final void              processListenersCancelled()
 	{
+		processListeners(NOTIFICATION_CANCELLED);
+	}
+
+	/**
+	 * Processes listeners by executing the notification.
+	 *
+	 * Direct listeners completing other futures would recurse into their processing.  Once the recursion reaches
+	 * {@link #LISTENER_RECURSION_DEPTH}, the processing is deferred to the thread-local trampoline and executed
+	 * iteratively by the outermost processing on the current thread.
+	 *
+	 * @param notification
+	 *      type of notification, one of NOTIFICATION_* constants
+	 */
+	@SuppressWarnings("unchecked")
+	private final void              processListeners(int notification)
+	{
+		// optimize for the most common case when there is no listener registered
+		if (getListenersLazy() == null && casListeners(null, (ListenerNode<V>)LN_MARKER_CLOSED)) {
+			if (FutureMetrics.ENABLED)
+				FutureMetrics.recordListeners(0, 0);
+			return;
+		}
+		ListenerTrampoline trampoline = listenerTrampoline.get();
+		if (trampoline.depth >= LISTENER_RECURSION_DEPTH) {
+			trampoline.defer(this, notification);
+			return;
+		}
+		++trampoline.depth;
+		try {
+			runListeners(notification);
+			if (trampoline.depth == 1)
+				trampoline.drain();
+		}
+		finally {
+			// do not leave deferred processing to unrelated futures on this thread if Error escaped:
+			if (--trampoline.depth == 0)
+				trampoline.clear();
+		}
+	}
+
+	/**
+	 * Runs listeners by executing the notification.
+	 *
+	 * Asynchronous listeners are collected and submitted at the end of each round, single task per distinct
+	 * executor, see {@link #dispatchBatched(ExecutorListenerNode)}.
+	 *
+	 * @param notification
+	 *      type of notification, one of NOTIFICATION_* constants
+	 */
+	@SuppressWarnings("unchecked")
+	private final void              runListeners(int notification)
+	{
+		long started = FutureMetrics.ENABLED ? System.nanoTime() : 0;
+		int count = 0;
 		ListenerNode<V> boundaryListener = null;
 		for (;;) {
 			ListenerNode<V> lastListener = getListeners();
-			for (ListenerNode<V> current = ListenerNode.reverseListenersQueue(lastListener, boundaryListener); current != boundaryListener; current = current.nextNode) {
-				try {
-					current.executeCancelled();
-				}
-				catch (RuntimeException ex) {
-					logger.log(Level.SEVERE, "RuntimeException raised by FutureListener.onCancelled() "+current.toStringCancelled(), ex);
+			ExecutorListenerNode<V> batchHead = null;
+			ExecutorListenerNode<V> batchTail = null;
+			for (ListenerNode<V> current = ListenerNode.reverseListenersQueue(lastListener, boundaryListener); current != boundaryListener; current = current.processingNext) {
+				if (current instanceof ExecutorListenerNode) {
+					ExecutorListenerNode<V> executorNode = (ExecutorListenerNode<V>)current;
+					if (executorNode.executor != null) {
+						if (executorNode.acceptNotification(notification)) {
+							executorNode.notification = notification;
+							if (batchTail == null)
+								batchHead = executorNode;
+							else
+								batchTail.nextBatched = executorNode;
+							batchTail = executorNode;
+						}
+						continue;
+					}
 				}
+				if (FutureMetrics.ENABLED && !(current instanceof WaiterListenerNode || current instanceof MetricsListenerNode))
+					++count;
+				executeListener(current, notification);
 			}
-			if (casListeners(lastListener, (ListenerNode<V>)LN_MARKER_CLOSED))
+			if (batchHead != null)
+				dispatchBatched(batchHead);
+			if (casListeners(lastListener, (ListenerNode<V>)LN_MARKER_CLOSED)) {
+				if (FutureMetrics.ENABLED)
+					FutureMetrics.recordListeners(count, System.nanoTime()-started);
 				return;
+			}
 			boundaryListener = lastListener;
 		}
 	}
 
+	/**
+	 * Submits asynchronous listeners to their executors.
+	 *
+	 * Listeners sharing the same executor are chained and submitted as single task, running them in original
+	 * order.
+	 *
+	 * @param head
+	 *      first node of the chain of asynchronous listeners
+	 */
+	private static <V> void         dispatchBatched(ExecutorListenerNode<V> head)
+	{
+		while (head != null) {
+			Executor executor = head.executor;
+			ExecutorListenerNode<V> groupTail = head;
+			ExecutorListenerNode<V> rest = null;
+			ExecutorListenerNode<V> restTail = null;
+			for (ExecutorListenerNode<V> current = head.nextBatched, next; current != null; current = next) {
+				next = current.nextBatched;
+				if (current.executor == executor) {
+					groupTail.nextBatched = current;
+					groupTail = current;
+				}
+				else {
+					if (restTail == null)
+						rest = current;
+					else
+						restTail.nextBatched = current;
+					restTail = current;
+				}
+			}
+			groupTail.nextBatched = null;
+			if (restTail != null)
+				restTail.nextBatched = null;
+			try {
+				executor.execute(head);
+			}
+			catch (RuntimeException ex) {
+				logger.log(Level.SEVERE, "RuntimeException raised by Executor.execute() "+head, ex);
+			}
+			head = rest;
+		}
+	}
+
 	private final int               getStatus()
 	{
-		return this.status;
+		return AbstractFutureFields.getStatus(this);
 	}
 
 	private final int               getStatusLazy()
 	{
-		return this.status;
+		return AbstractFutureFields.getStatusAcquire(this);
 	}
 
 	private final void              setStatus(int status)
 	{
-		this.status = status;
+		AbstractFutureFields.setStatus(this, status);
 	}
 
 	private final void              setStatusLazy(int status)
 	{
-		this.status = status;
+		AbstractFutureFields.setStatusRelease(this, status);
 	}
 
 	private final boolean           casStatus(int expected, int set)
 	{
-		return statusUpdater.compareAndSet(this, expected, set);
+		return AbstractFutureFields.casStatus(this, expected, set);
 	}
 
 	private final ListenerNode<V>   getListeners()
 	{
-		return this.listeners;
+		return AbstractFutureFields.getListeners(this);
 	}
 
 	private final ListenerNode<V>   getListenersLazy()
 	{
-		return this.listeners;
+		return AbstractFutureFields.getListenersAcquire(this);
 	}
 
 	private final void              setListeners(ListenerNode<V> listeners)
 	{
-		this.listeners = listeners;
+		AbstractFutureFields.setListeners(this, listeners);
 	}
 
 	private final void              setListenersLazy(ListenerNode<V> listeners)
 	{
-		this.listeners = listeners;
+		AbstractFutureFields.setListenersRelease(this, listeners);
 	}
 
 	private final boolean           casListeners(ListenerNode<V> expected, ListenerNode<V> set)
 	{
-		return listenersUpdater.compareAndSet(this, expected, set);
+		return AbstractFutureFields.casListeners(this, expected, set);
 	}
 
 	/**
@@ -968,7 +1294,8 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		}
 
 		/**
-		 * Reverses listeners queue.
+		 * Reverses listeners queue.  The reversed order is linked by separate processing link, the published
+		 * {@code nextNode} links are never modified, so they can be traversed concurrently.
 		 *
 		 * @param last
 		 *      lastly registered listener
@@ -982,20 +1309,12 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		 */
 		public static <V> ListenerNode<V> reverseListenersQueue(ListenerNode<V> last, ListenerNode<V> boundary)
 		{
-			if (last == null) {
-				return last;
+			ListenerNode<V> reversed = boundary;
+			for (ListenerNode<V> current = last; current != boundary; current = current.nextNode) {
+				current.processingNext = reversed;
+				reversed = current;
 			}
-			else if (last.getNextNode() == boundary) {
-				return last;
-			}
-			ListenerNode<V> next = last.getNextNode();
-			last.nextNode = boundary;
-			for (ListenerNode<V> current = next; current != boundary; current = next) {
-				next = current.getNextNode();
-				current.nextNode = last;
-				last = current;
-			}
-			return last;
+			return reversed;
 		}
 
 		/**
@@ -1071,6 +1390,9 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		private final int               nodeType;
 
 		private ListenerNode<V>		nextNode;
+
+		/** Next node in processing order, owned by thread processing the listeners */
+		private ListenerNode<V>		processingNext;
 	}
 
 	/**
@@ -1087,6 +1409,377 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 		}
 	}
 
+	/**
+	 * Listener node executing the notification via executor, submitting itself as the task.
+	 *
+	 * When the future completes, the nodes sharing the same executor are chained and submitted as single task.
+	 *
+	 * @param <V>
+	 *      future result type
+	 */
+	protected static abstract class ExecutorListenerNode<V> extends RegularListenerNode<V> implements Runnable
+	{
+		/**
+		 * Constructs new instance with executor running the notifications.
+		 *
+		 * @param executor
+		 *      executor which will run the notification, null to run directly
+		 */
+		protected                       ExecutorListenerNode(Executor executor)
+		{
+			this.executor = executor;
+		}
+
+		@Override
+		public void                     executeSet()
+		{
+			execute(NOTIFICATION_SET);
+		}
+
+		@Override
+		public void                     executeExcepted()
+		{
+			execute(NOTIFICATION_EXCEPTED);
+		}
+
+		@Override
+		public void                     executeCancelled()
+		{
+			execute(NOTIFICATION_CANCELLED);
+		}
+
+		/**
+		 * Runs the notification, followed by other notifications chained for the same executor.  Called by
+		 * executor, not supposed to be called by user code.
+		 */
+		@Override
+		public final void               run()
+		{
+			ExecutorListenerNode<V> next = nextBatched;
+			if (next == null) {
+				runNotification();
+				return;
+			}
+			nextBatched = null;
+			runNotificationLogged();
+			for (ExecutorListenerNode<V> current = next; current != null; current = next) {
+				next = current.nextBatched;
+				current.nextBatched = null;
+				current.runNotificationLogged();
+			}
+		}
+
+		/**
+		 * Runs set notification.
+		 */
+		public abstract void		runSet();
+
+		/**
+		 * Runs failure notification.
+		 */
+		public abstract void		runExcepted();
+
+		/**
+		 * Runs cancelled notification.
+		 */
+		public abstract void		runCancelled();
+
+		/**
+		 * Checks whether this node handles the notification.
+		 *
+		 * @param notification
+		 *      type of notification, one of NOTIFICATION_* constants
+		 *
+		 * @return
+		 *      true if notification should be run
+		 */
+		boolean                         acceptNotification(int notification)
+		{
+			return true;
+		}
+
+		private void                    execute(int notification)
+		{
+			if (!acceptNotification(notification))
+				return;
+			this.notification = notification;
+			if (executor == null)
+				runNotification();
+			else
+				executor.execute(this);
+		}
+
+		private void                    runNotification()
+		{
+			switch (notification) {
+			case NOTIFICATION_SET:
+				runSet();
+				break;
+
+			case NOTIFICATION_EXCEPTED:
+				runExcepted();
+				break;
+
+			case NOTIFICATION_CANCELLED:
+				runCancelled();
+				break;
+
+			default:
+				throw new IllegalStateException("Unexpected notification: "+notification);
+			}
+		}
+
+		private void                    runNotificationLogged()
+		{
+			try {
+				runNotification();
+			}
+			catch (RuntimeException ex) {
+				logger.log(Level.SEVERE, "RuntimeException raised by asynchronous FutureListener "+this, ex);
+			}
+		}
+
+		/** Executor running the notification, null for direct */
+		private Executor                executor;
+
+		/** Notification to run, does not need to be volatile as executor provides memory barrier */
+		private int                     notification;
+
+		/** Next node submitted within the same task */
+		private ExecutorListenerNode<V> nextBatched;
+	}
+
+	/**
+	 * Listener which serves as listener queue node at the same time.
+	 *
+	 * Saves allocation of the wrapping node when registered via {@link #addListener(FutureListenerNode)} and of
+	 * the wrapping {@link Runnable} when registered via {@link #addAsyncListener(FutureListenerNode, Executor)}.
+	 * The instance can be registered to single future only and only once.
+	 *
+	 * @param <V>
+	 *      future result type
+	 */
+	public static abstract class FutureListenerNode<V> extends ExecutorListenerNode<V> implements FutureListener<V>
+	{
+		/**
+		 * Constructs new instance, the executor is provided at registration time.
+		 */
+		public                          FutureListenerNode()
+		{
+			super(null);
+		}
+
+		@Override
+		public final void               runSet()
+		{
+			onSuccess(future.getResult());
+		}
+
+		@Override
+		public final void               runExcepted()
+		{
+			onFailure(future.excepted);
+		}
+
+		@Override
+		public final void               runCancelled()
+		{
+			onCancelled();
+		}
+
+		/**
+		 * Binds this node to future.
+		 *
+		 * @param future
+		 *      future this node is registered to
+		 * @param executor
+		 *      executor to run the notifications, null for direct execution
+		 */
+		private void                    register(AbstractFuture<V> future, Executor executor)
+		{
+			if (this.future != null)
+				throw new IllegalStateException("FutureListenerNode already registered: "+this);
+			this.future = future;
+			((ExecutorListenerNode<V>)this).executor = executor;
+		}
+
+		/** Future this node is registered to */
+		private AbstractFuture<V>       future;
+	}
+
+	/**
+	 * Waiter node, holding thread blocked in {@link #get(long, TimeUnit)} or waiting for cancel to finish.
+	 *
+	 * @param <V>
+	 *    	type of value
+	 */
+	private static final class WaiterListenerNode<V> extends RegularListenerNode<V>
+	{
+		@Override
+		public void                     executeSet()
+		{
+			unpark();
+		}
+
+		@Override
+		public void                     executeExcepted()
+		{
+			unpark();
+		}
+
+		@Override
+		public void                     executeCancelled()
+		{
+			unpark();
+		}
+
+		/**
+		 * Unparks waiting thread if still waiting.
+		 */
+		public void                     unpark()
+		{
+			Thread t = thread;
+			if (t != null)
+				LockSupport.unpark(t);
+		}
+
+		/**
+		 * Tries to reuse this node for current thread.
+		 *
+		 * @return
+		 *      true if the node was free and is now owned by current thread
+		 */
+		public boolean                  tryAcquire()
+		{
+			return thread == null && threadUpdater.compareAndSet(this, null, Thread.currentThread());
+		}
+
+		/**
+		 * Releases this node so it can be reused by another waiter.
+		 */
+		public void                     release()
+		{
+			thread = null;
+		}
+
+		/**
+		 * Waiting thread, reset to null once the thread stops waiting.
+		 */
+		private volatile Thread         thread = Thread.currentThread();
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicReferenceFieldUpdater<WaiterListenerNode, Thread> threadUpdater = AtomicReferenceFieldUpdater.newUpdater(WaiterListenerNode.class, Thread.class, "thread");
+	}
+
+	/**
+	 * Metrics node, recording time to complete once the listeners are processed.
+	 *
+	 * @param <V>
+	 *    	type of value
+	 */
+	private static final class MetricsListenerNode<V> extends RegularListenerNode<V>
+	{
+		public                          MetricsListenerNode(long startNanos)
+		{
+			this.startNanos = startNanos;
+		}
+
+		@Override
+		public void                     executeSet()
+		{
+			FutureMetrics.recordCompletion(System.nanoTime()-startNanos);
+		}
+
+		@Override
+		public void                     executeExcepted()
+		{
+			FutureMetrics.recordCompletion(System.nanoTime()-startNanos);
+		}
+
+		@Override
+		public void                     executeCancelled()
+		{
+			FutureMetrics.recordCompletion(System.nanoTime()-startNanos);
+		}
+
+		/** Time when the future was set running, in {@link System#nanoTime()} units */
+		volatile long                   startNanos;
+	}
+
+	/**
+	 * Per-thread state of listeners processing, bounding the recursion of direct listeners.
+	 */
+	private static final class ListenerTrampoline
+	{
+		/**
+		 * Defers processing of listeners until the outermost processing drains it.
+		 *
+		 * @param future
+		 *      future to process listeners of
+		 * @param notification
+		 *      type of notification, one of NOTIFICATION_* constants
+		 */
+		public void                     defer(AbstractFuture<?> future, int notification)
+		{
+			DeferredProcessing deferred = new DeferredProcessing(future, notification);
+			if (pendingTail == null)
+				pendingHead = deferred;
+			else
+				pendingTail.next = deferred;
+			pendingTail = deferred;
+		}
+
+		/**
+		 * Processes deferred listeners in the order they were deferred.
+		 *
+		 * The processing may defer further futures, these are appended to the end and processed in the same loop.
+		 */
+		public void                     drain()
+		{
+			for (DeferredProcessing current; (current = pendingHead) != null; ) {
+				if ((pendingHead = current.next) == null)
+					pendingTail = null;
+				current.future.runListeners(current.notification);
+			}
+		}
+
+		/**
+		 * Discards deferred processing, in case the drain was aborted.
+		 */
+		public void                     clear()
+		{
+			pendingHead = null;
+			pendingTail = null;
+		}
+
+		/** Current depth of listeners processing */
+		int                             depth;
+
+		/** First deferred processing */
+		private DeferredProcessing      pendingHead;
+
+		/** Last deferred processing */
+		private DeferredProcessing      pendingTail;
+	}
+
+	/**
+	 * Processing of listeners deferred by {@link ListenerTrampoline}.
+	 */
+	private static final class DeferredProcessing
+	{
+		public                          DeferredProcessing(AbstractFuture<?> future, int notification)
+		{
+			this.future = future;
+			this.notification = notification;
+		}
+
+		private final AbstractFuture<?> future;
+
+		private final int               notification;
+
+		private DeferredProcessing      next;
+	}
+
 	/**
 	 * Marker listener node, marking states of processing the listeners queue.
 	 * @param <V>
@@ -1136,13 +1829,17 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 
 	/**
 	 * Status of this future, may be ORs of ST_* constants.
+	 *
+	 * Package private so it can be accessed by {@link AbstractFutureFields}.
 	 */
-	private volatile int		status;
+	volatile int			status;
 
 	/**
 	 * Listeners queue.
+	 *
+	 * Package private so it can be accessed by {@link AbstractFutureFields}.
 	 */
-	private volatile ListenerNode<V> listeners = null;
+	volatile ListenerNode<V>	listeners = null;
 
 	/** Delayed cancel notifications flag */
 	private static final int        ST_DELAYED_CANCEL               = 1;
@@ -1161,13 +1858,46 @@ public class AbstractFuture<V> implements ListenableFuture<V>
 	/** Cancelled requested */
 	private static final int        ST_CANCELLED                    = 128;
 
+	/** Set notification */
+	static final int                NOTIFICATION_SET                = 1;
+	/** Excepted notification */
+	static final int                NOTIFICATION_EXCEPTED           = 2;
+	/** Cancelled notification */
+	static final int                NOTIFICATION_CANCELLED          = 3;
+
 	/** Marks closed listener queue */
 	private static final ListenerNode<?> LN_MARKER_CLOSED = new MarkerListenerNode<Object>(ListenerNode.NT_MARKER_CLOSED);
 
-	@SuppressWarnings("rawtypes")
-	private static final AtomicIntegerFieldUpdater<AbstractFuture> statusUpdater = AtomicIntegerFieldUpdater.newUpdater(AbstractFuture.class, "status");
-	@SuppressWarnings("rawtypes")
-	private static final AtomicReferenceFieldUpdater<AbstractFuture, ListenerNode> listenersUpdater = AtomicReferenceFieldUpdater.newUpdater(AbstractFuture.class, ListenerNode.class, "listeners");
+	/**
+	 * Maximum depth of recursive direct listeners processing on single thread.  Deeper processing is deferred and
+	 * executed iteratively.  Configurable via {@code net.dryuf.concurrent.listenerRecursionDepth} system property.
+	 */
+	public static final int         LISTENER_RECURSION_DEPTH =
+			Optional.ofNullable(System.getProperty("net.dryuf.concurrent.listenerRecursionDepth"))
+			.map(Integer::valueOf)
+			.map(depth -> Math.max(depth, 1))
+			.orElse(64);
+
+	/**
+	 * Default number of busy spins in {@link #get()} before yielding, see {@link #getWaitSpins()}.  Configurable
+	 * via {@code net.dryuf.concurrent.waitSpins} system property, zero on single CPU systems by default.
+	 */
+	public static final int         WAIT_SPINS =
+			Optional.ofNullable(System.getProperty("net.dryuf.concurrent.waitSpins"))
+			.map(Integer::valueOf)
+			.orElse(Runtime.getRuntime().availableProcessors() > 1 ? 128 : 0);
+
+	/**
+	 * Number of yields in {@link #get()} after spinning and before parking.  Configurable via
+	 * {@code net.dryuf.concurrent.waitYields} system property, zero on single CPU systems by default.
+	 */
+	public static final int         WAIT_YIELDS =
+			Optional.ofNullable(System.getProperty("net.dryuf.concurrent.waitYields"))
+			.map(Integer::valueOf)
+			.orElse(Runtime.getRuntime().availableProcessors() > 1 ? 4 : 0);
+
+	/** Per-thread listeners processing state */
+	private static final ThreadLocal<ListenerTrampoline> listenerTrampoline = ThreadLocal.withInitial(ListenerTrampoline::new);
 
 	private static final Logger     logger = Logger.getLogger(AbstractFuture.class.getName());
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+
+/**
+ * Atomic access to {@link AbstractFuture} fields, Java 8 implementation based on atomic field updaters.
+ *
+ * Java 9+ variant in {@code META-INF/versions/9} uses {@code VarHandle} with acquire/release access modes.
+ *
+ * @author
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ */
+final class AbstractFutureFields
+{
+	/**
+	 * Private constructor to avoid instantiation.
+	 */
+	private                         AbstractFutureFields()
+	{
+	}
+
+	static int                      getStatus(AbstractFuture<?> future)
+	{
+		return future.status;
+	}
+
+	static int                      getStatusAcquire(AbstractFuture<?> future)
+	{
+		return future.status;
+	}
+
+	static void                     setStatus(AbstractFuture<?> future, int status)
+	{
+		future.status = status;
+	}
+
+	static void                     setStatusRelease(AbstractFuture<?> future, int status)
+	{
+		statusUpdater.lazySet(future, status);
+	}
+
+	static boolean                  casStatus(AbstractFuture<?> future, int expected, int set)
+	{
+		return statusUpdater.compareAndSet(future, expected, set);
+	}
+
+	static <V> AbstractFuture.ListenerNode<V> getListeners(AbstractFuture<V> future)
+	{
+		return future.listeners;
+	}
+
+	static <V> AbstractFuture.ListenerNode<V> getListenersAcquire(AbstractFuture<V> future)
+	{
+		return future.listeners;
+	}
+
+	static <V> void                 setListeners(AbstractFuture<V> future, AbstractFuture.ListenerNode<V> listeners)
+	{
+		future.listeners = listeners;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <V> void                 setListenersRelease(AbstractFuture<V> future, AbstractFuture.ListenerNode<V> listeners)
+	{
+		listenersUpdater.lazySet(future, listeners);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <V> boolean              casListeners(AbstractFuture<V> future, AbstractFuture.ListenerNode<V> expected, AbstractFuture.ListenerNode<V> set)
+	{
+		return listenersUpdater.compareAndSet(future, expected, set);
+	}
+
+	/**
+	 * Hints processor the thread is busy waiting.  No-op on Java 8.
+	 */
+	static void                     onSpinWait()
+	{
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<AbstractFuture> statusUpdater = AtomicIntegerFieldUpdater.newUpdater(AbstractFuture.class, "status");
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<AbstractFuture, AbstractFuture.ListenerNode> listenersUpdater = AtomicReferenceFieldUpdater.newUpdater(AbstractFuture.class, AbstractFuture.ListenerNode.class, "listeners");
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * Base implementation of {@link ListenableLongFuture}.
+ *
+ * The result is stored as primitive and boxed only when requested via generic {@link ListenableFuture} methods.
+ *
+ * @author
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ */
+public class AbstractLongFuture extends AbstractFuture<Long> implements ListenableLongFuture
+{
+	/**
+	 * Initializes instance of {@link AbstractLongFuture} with state {@code RUNNING}.
+	 */
+	protected                       AbstractLongFuture()
+	{
+		super();
+	}
+
+	/**
+	 * Initializes instance of {@link AbstractLongFuture} with provided state.
+	 *
+	 * @param isRunning
+	 *      sets state to {@code RUNNING} if isRunning is true
+	 */
+	protected                       AbstractLongFuture(boolean isRunning)
+	{
+		super(isRunning);
+	}
+
+	@Override
+	public long                     getLong() throws InterruptedException, ExecutionException
+	{
+		awaitSuccess();
+		return value;
+	}
+
+	@Override
+	public long                     getLong(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
+	{
+		awaitSuccess(timeout, unit);
+		return value;
+	}
+
+	@Override
+	public ListenableLongFuture     addLongListener(final LongFutureListener listener)
+	{
+		addListenerNode(new RegularListenerNode<Long>() {
+			@Override
+			public String toString() {
+				return listener.toString();
+			}
+
+			@Override
+			public void executeSet() {
+				listener.onSuccess(value);
+			}
+
+			@Override
+			public void executeExcepted() {
+				listener.onFailure(getExcepted());
+			}
+
+			@Override
+			public void executeCancelled() {
+				listener.onCancelled();
+			}
+		});
+		return this;
+	}
+
+	@Override
+	public ListenableLongFuture     addLongListener(final LongSuccessListener successListener, final FailureListener failureListener, final CancelListener cancelListener)
+	{
+		addListenerNode(new RegularListenerNode<Long>() {
+			@Override
+			public String toStringSet() {
+				return successListener.toString();
+			}
+
+			@Override
+			public String toStringExcepted() {
+				return failureListener.toString();
+			}
+
+			@Override
+			public String toStringCancelled() {
+				return cancelListener.toString();
+			}
+
+			@Override
+			public void executeSet() {
+				if (successListener != null)
+					successListener.onSuccess(value);
+			}
+
+			@Override
+			public void executeExcepted() {
+				if (failureListener != null)
+					failureListener.onFailure(getExcepted());
+			}
+
+			@Override
+			public void executeCancelled() {
+				if (cancelListener != null)
+					cancelListener.onCancelled();
+			}
+		});
+		return this;
+	}
+
+	@Override
+	public ListenableLongFuture     addAsyncLongListener(final LongFutureListener listener, final Executor executor)
+	{
+		addListenerNode(new ExecutorListenerNode<Long>(executor) {
+			@Override
+			public String toString() {
+				return listener.toString();
+			}
+
+			@Override
+			public void runSet() {
+				listener.onSuccess(value);
+			}
+
+			@Override
+			public void runExcepted() {
+				listener.onFailure(getExcepted());
+			}
+
+			@Override
+			public void runCancelled() {
+				listener.onCancelled();
+			}
+		});
+		return this;
+	}
+
+	@Override
+	public ListenableLongFuture     addAsyncLongListener(final LongSuccessListener successListener, final FailureListener failureListener, final CancelListener cancelListener, final Executor executor)
+	{
+		addListenerNode(new ExecutorListenerNode<Long>(executor) {
+			@Override
+			public String toStringSet() {
+				return successListener.toString();
+			}
+
+			@Override
+			public String toStringExcepted() {
+				return failureListener.toString();
+			}
+
+			@Override
+			public String toStringCancelled() {
+				return cancelListener.toString();
+			}
+
+			@Override
+			boolean acceptNotification(int notification) {
+				switch (notification) {
+				case NOTIFICATION_SET:
+					return successListener != null;
+
+				case NOTIFICATION_EXCEPTED:
+					return failureListener != null;
+
+				default:
+					return cancelListener != null;
+				}
+			}
+
+			@Override
+			public void runSet() {
+				successListener.onSuccess(value);
+			}
+
+			@Override
+			public void runExcepted() {
+				failureListener.onFailure(getExcepted());
+			}
+
+			@Override
+			public void runCancelled() {
+				cancelListener.onCancelled();
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Sets the result of this future.
+	 *
+	 * @param result
+	 *      result of this future
+	 *
+	 * @return true
+	 *      if the task was not yet cancelled
+	 * false
+	 *      if the task was already cancelled
+	 */
+	protected boolean               setLong(long result)
+	{
+		if (!updateStatusCompleting())
+			return false;
+		this.value = result;
+		return updateStatusSet();
+	}
+
+	/**
+	 * Sets the result of this future, unboxing the value.
+	 *
+	 * @param result
+	 *      result of this future, must not be null
+	 *
+	 * @return true
+	 *      if the task was not yet cancelled
+	 * false
+	 *      if the task was already cancelled
+	 */
+	@Override
+	protected boolean               set(Long result)
+	{
+		return setLong(result);
+	}
+
+	@Override
+	Long                            getResult()
+	{
+		return value;
+	}
+
+	/**
+	 * Result of this future. Does not need to be volatile as reads/writes are surrounded by other memory barriers.
+	 */
+	private long                    value;
+}
@@ -17,7 +17,10 @@
 package net.dryuf.concurrent;
 
 
+import java.util.Iterator;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -107,5 +110,171 @@ public class ForwardingListeningScheduledExecutorService extends ForwardingListe
 		return task;
 	}
 
+	/**
+	 * Schedules periodic task at fixed rate, sharing single underlying timer entry with other tasks of the same
+	 * period.  The tasks of the same period are run as a batch by the underlying executor thread, aligned to
+	 * phase of the first task of that period, therefore the first execution may be postponed by up to one period.
+	 *
+	 * The number of timer entries and wakeups is therefore proportional to number of distinct periods instead of
+	 * number of tasks.  Cancelled tasks are removed from the batch on its next run, the shared timer entry is
+	 * cancelled once there are no tasks left.  Failure of a task does not affect the other tasks.
+	 */
+	@Override
+	public ListenableScheduledFuture<?> scheduleAtFixedRateCoalesced(Runnable command, long initialDelay, long period, TimeUnit unit)
+	{
+		if (period <= 0)
+			throw new IllegalArgumentException("period must be positive: "+period);
+		long periodNanos = unit.toNanos(period);
+		CoalescedTask task = new CoalescedTask(command, System.nanoTime()+Math.max(0, unit.toNanos(initialDelay)));
+		for (;;) {
+			CoalescedGroup group = coalescedGroups.get(periodNanos);
+			if (group == null) {
+				CoalescedGroup created = new CoalescedGroup(periodNanos);
+				created.add(task);
+				if ((group = coalescedGroups.putIfAbsent(periodNanos, created)) == null) {
+					// scheduled only once fully constructed and published, outside of the map update:
+					created.start();
+					return task;
+				}
+			}
+			if (group.add(task))
+				return task;
+		}
+	}
+
+	/**
+	 * Task run as part of {@link CoalescedGroup}.
+	 */
+	private class CoalescedTask extends RepeatingScheduledFutureTask<Object>
+	{
+		public                          CoalescedTask(Runnable runnable, long firstRun)
+		{
+			super(runnable, null);
+			this.firstRun = firstRun;
+		}
+
+		@Override
+		public long                     getDelay(TimeUnit unit)
+		{
+			long now = System.nanoTime();
+			return unit.convert(Math.max(firstRun-now, group.getDelay(TimeUnit.NANOSECONDS)), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		protected void                  interruptTask()
+		{
+			// do not cancel the shared delegate
+			Thread thread = myThread;
+			if (thread != null)
+				thread.interrupt();
+		}
+
+		@Override
+		public boolean                  enforcedCancel()
+		{
+			return cancelled;
+		}
+
+		private final long              firstRun;
+
+		private CoalescedGroup          group;
+	}
+
+	/**
+	 * Group of tasks with the same period, backed by single periodic task in underlying executor.
+	 */
+	private class CoalescedGroup implements Runnable
+	{
+		public                          CoalescedGroup(long period)
+		{
+			this.period = period;
+		}
+
+		/**
+		 * Schedules the group in underlying executor.  In case of failure, the group is retired and its tasks
+		 * cancelled.
+		 */
+		public synchronized void        start()
+		{
+			try {
+				delegate = executor.scheduleAtFixedRate(this, period, period, TimeUnit.NANOSECONDS);
+			}
+			catch (RuntimeException ex) {
+				retired = true;
+				coalescedGroups.remove(period, this);
+				for (CoalescedTask task: tasks)
+					task.cancel(false);
+				throw ex;
+			}
+		}
+
+		/**
+		 * Adds the task to this group.
+		 *
+		 * @return true
+		 *      if the task was added
+		 * false
+		 *      if the group was already retired
+		 */
+		public synchronized boolean     add(CoalescedTask task)
+		{
+			if (retired)
+				return false;
+			task.group = this;
+			tasks.add(task);
+			return true;
+		}
+
+		public long                     getDelay(TimeUnit unit)
+		{
+			ScheduledFuture<?> delegate = this.delegate;
+			return delegate != null ? delegate.getDelay(unit) : unit.convert(period, TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public void                     run()
+		{
+			long now = System.nanoTime();
+			for (Iterator<CoalescedTask> it = tasks.iterator(); it.hasNext(); ) {
+				CoalescedTask task = it.next();
+				if (task.isDone()) {
+					it.remove();
+					continue;
+				}
+				if (now-task.firstRun < 0)
+					continue;
+				try {
+					task.run();
+				}
+				catch (Throwable ex) {
+					// already propagated to the task future
+					it.remove();
+				}
+				// do not leak interruption of single task to the others
+				Thread.interrupted();
+			}
+			if (tasks.isEmpty()) {
+				synchronized (this) {
+					if (tasks.isEmpty()) {
+						retired = true;
+						coalescedGroups.remove(period, this);
+						delegate.cancel(false);
+					}
+				}
+			}
+		}
+
+		private final long              period;
+
+		/** Shared timer entry, set by {@link #start()} */
+		private volatile ScheduledFuture<?> delegate;
+
+		private final ConcurrentLinkedQueue<CoalescedTask> tasks = new ConcurrentLinkedQueue<CoalescedTask>();
+
+		private boolean                 retired;
+	}
+
 	private ScheduledExecutorService executor;
+
+	private final ConcurrentHashMap<Long, CoalescedGroup> coalescedGroups = new ConcurrentHashMap<Long, CoalescedGroup>();
 }
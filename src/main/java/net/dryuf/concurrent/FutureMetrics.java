@@ -0,0 +1,387 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Optional instrumentation of {@link AbstractFuture}, collecting time to complete, number of listeners and time
+ * spent in listeners.
+ *
+ * The instrumentation is enabled by {@code net.dryuf.concurrent.futureMetrics} system property set to
+ * {@code true}.  When disabled, the instrumentation code is removed by JIT as dead code.  Time to complete is
+ * measured from the moment the future was set to running state, either by constructor or by
+ * {@link AbstractFuture#setRunning()}.
+ *
+ * The values are recorded into histograms with power-of-two buckets, backed by {@link LongAdder} so they do not
+ * cause contention between threads.
+ *
+ * @author
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ */
+public final class FutureMetrics
+{
+	/** Indicator whether the metrics are collected. */
+	public static final boolean	ENABLED =
+			Optional.ofNullable(System.getProperty("net.dryuf.concurrent.futureMetrics"))
+			.map(Boolean::valueOf)
+			.orElse(false);
+
+	/** Name under which the MBean is registered by {@link #registerMBean()}. */
+	public static final String      MBEAN_NAME = "net.dryuf.concurrent:type=FutureMetrics";
+
+	private                         FutureMetrics()
+	{
+	}
+
+	/**
+	 * Gets snapshot of current metrics.
+	 *
+	 * @return
+	 *      snapshot of current metrics
+	 */
+	public static Snapshot          snapshot()
+	{
+		return new Snapshot(completionTime.snapshot(), listenerCount.snapshot(), listenerTime.snapshot());
+	}
+
+	/**
+	 * Resets the collected metrics.
+	 *
+	 * Values recorded concurrently with reset may be partially lost.
+	 */
+	public static void              reset()
+	{
+		completionTime.reset();
+		listenerCount.reset();
+		listenerTime.reset();
+	}
+
+	/**
+	 * Registers {@link FutureMetricsMXBean} in platform MBean server under {@link #MBEAN_NAME}.  Does nothing
+	 * if already registered.
+	 *
+	 * @throws IllegalStateException
+	 *      if the registration failed
+	 */
+	public static void              registerMBean()
+	{
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(new MXBeanImpl(), new ObjectName(MBEAN_NAME));
+		}
+		catch (InstanceAlreadyExistsException ex) {
+			// already registered
+		}
+		catch (JMException ex) {
+			throw new IllegalStateException("Failed to register "+MBEAN_NAME, ex);
+		}
+	}
+
+	/**
+	 * Records time to complete the future.
+	 *
+	 * @param nanos
+	 *      time from running state to completion, in nanoseconds
+	 */
+	static void                     recordCompletion(long nanos)
+	{
+		completionTime.record(nanos);
+	}
+
+	/**
+	 * Records processing of listeners.
+	 *
+	 * @param count
+	 *      number of listeners executed
+	 * @param nanos
+	 *      time spent in listeners, in nanoseconds
+	 */
+	static void                     recordListeners(int count, long nanos)
+	{
+		listenerCount.record(count);
+		listenerTime.record(nanos);
+	}
+
+	/**
+	 * Snapshot of all metrics.
+	 */
+	public static final class Snapshot
+	{
+		Snapshot(HistogramSnapshot completionTime, HistogramSnapshot listenerCount, HistogramSnapshot listenerTime)
+		{
+			this.completionTime = completionTime;
+			this.listenerCount = listenerCount;
+			this.listenerTime = listenerTime;
+		}
+
+		/**
+		 * Gets histogram of time to complete, in nanoseconds.
+		 *
+		 * @return
+		 *      histogram of time to complete
+		 */
+		public HistogramSnapshot        getCompletionTime()
+		{
+			return completionTime;
+		}
+
+		/**
+		 * Gets histogram of number of listeners per future.
+		 *
+		 * @return
+		 *      histogram of listener counts
+		 */
+		public HistogramSnapshot        getListenerCount()
+		{
+			return listenerCount;
+		}
+
+		/**
+		 * Gets histogram of time spent in listeners per future, in nanoseconds.
+		 *
+		 * @return
+		 *      histogram of listener execution time
+		 */
+		public HistogramSnapshot        getListenerTime()
+		{
+			return listenerTime;
+		}
+
+		@Override
+		public String                   toString()
+		{
+			return "FutureMetrics.Snapshot{completionTime="+completionTime+", listenerCount="+listenerCount+", listenerTime="+listenerTime+"}";
+		}
+
+		private final HistogramSnapshot completionTime;
+
+		private final HistogramSnapshot listenerCount;
+
+		private final HistogramSnapshot listenerTime;
+	}
+
+	/**
+	 * Snapshot of single histogram.  Bucket {@code i} contains values from {@code 2^(i-1)} to {@code 2^i-1},
+	 * bucket {@code 0} contains zero values.
+	 */
+	public static final class HistogramSnapshot
+	{
+		HistogramSnapshot(long[] buckets, long sum)
+		{
+			this.buckets = buckets;
+			this.sum = sum;
+			long count = 0;
+			for (long bucket: buckets)
+				count += bucket;
+			this.count = count;
+		}
+
+		/**
+		 * Gets number of recorded values.
+		 *
+		 * @return
+		 *      number of recorded values
+		 */
+		public long                     getCount()
+		{
+			return count;
+		}
+
+		/**
+		 * Gets sum of recorded values.
+		 *
+		 * @return
+		 *      sum of recorded values
+		 */
+		public long                     getSum()
+		{
+			return sum;
+		}
+
+		/**
+		 * Gets mean of recorded values.
+		 *
+		 * @return
+		 *      mean of recorded values or 0 if there is no value
+		 */
+		public double                   getMean()
+		{
+			return count == 0 ? 0 : (double)sum/count;
+		}
+
+		/**
+		 * Gets median, as upper bound of the bucket it falls into.
+		 *
+		 * @return
+		 *      approximate median
+		 */
+		public long                     getMedian()
+		{
+			return getPercentile(0.5);
+		}
+
+		/**
+		 * Gets 99th percentile, as upper bound of the bucket it falls into.
+		 *
+		 * @return
+		 *      approximate 99th percentile
+		 */
+		public long                     getP99()
+		{
+			return getPercentile(0.99);
+		}
+
+		/**
+		 * Gets percentile, as upper bound of the bucket it falls into.
+		 *
+		 * @param quantile
+		 *      quantile, between 0 and 1
+		 *
+		 * @return
+		 *      approximate percentile or 0 if there is no value
+		 */
+		public long                     getPercentile(double quantile)
+		{
+			long threshold = (long)Math.ceil(count*quantile);
+			long accumulated = 0;
+			for (int i = 0; i < buckets.length; ++i) {
+				accumulated += buckets[i];
+				if (accumulated >= threshold && accumulated != 0)
+					return i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L<<i)-1;
+			}
+			return 0;
+		}
+
+		/**
+		 * Gets counts of values in buckets.
+		 *
+		 * @return
+		 *      counts of values in buckets
+		 */
+		public long[]                   getBuckets()
+		{
+			return buckets.clone();
+		}
+
+		@Override
+		public String                   toString()
+		{
+			return "{count="+count+", mean="+getMean()+", median="+getMedian()+", p99="+getP99()+"}";
+		}
+
+		private final long[]            buckets;
+
+		private final long              sum;
+
+		private final long              count;
+	}
+
+	/**
+	 * Histogram with power-of-two buckets.
+	 */
+	static final class Histogram
+	{
+		/**
+		 * Records single value.
+		 *
+		 * @param value
+		 *      value to record, negative values are recorded as zero
+		 */
+		public void                     record(long value)
+		{
+			if (value < 0)
+				value = 0;
+			buckets[64-Long.numberOfLeadingZeros(value)].increment();
+			sum.add(value);
+		}
+
+		public HistogramSnapshot        snapshot()
+		{
+			long[] counts = new long[buckets.length];
+			for (int i = 0; i < buckets.length; ++i)
+				counts[i] = buckets[i].sum();
+			// trim empty tail
+			int length = counts.length;
+			while (length > 0 && counts[length-1] == 0)
+				--length;
+			return new HistogramSnapshot(Arrays.copyOf(counts, length), sum.sum());
+		}
+
+		public void                     reset()
+		{
+			for (LongAdder bucket: buckets)
+				bucket.reset();
+			sum.reset();
+		}
+
+		private final LongAdder[]       buckets = new LongAdder[65];
+		{
+			for (int i = 0; i < buckets.length; ++i)
+				buckets[i] = new LongAdder();
+		}
+
+		private final LongAdder         sum = new LongAdder();
+	}
+
+	private static final class MXBeanImpl implements FutureMetricsMXBean
+	{
+		@Override
+		public HistogramSnapshot        getCompletionTime()
+		{
+			return completionTime.snapshot();
+		}
+
+		@Override
+		public HistogramSnapshot        getListenerCount()
+		{
+			return listenerCount.snapshot();
+		}
+
+		@Override
+		public HistogramSnapshot        getListenerTime()
+		{
+			return listenerTime.snapshot();
+		}
+
+		@Override
+		public boolean                  isEnabled()
+		{
+			return ENABLED;
+		}
+
+		@Override
+		public void                     reset()
+		{
+			FutureMetrics.reset();
+		}
+	}
+
+	private static final Histogram  completionTime = new Histogram();
+
+	private static final Histogram  listenerCount = new Histogram();
+
+	private static final Histogram  listenerTime = new Histogram();
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+
+/**
+ * JMX interface exposing {@link FutureMetrics}.
+ *
+ * @author
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ */
+public interface FutureMetricsMXBean
+{
+	/**
+	 * Gets histogram of time to complete, in nanoseconds.
+	 *
+	 * @return
+	 *      histogram of time to complete
+	 */
+	FutureMetrics.HistogramSnapshot getCompletionTime();
+
+	/**
+	 * Gets histogram of number of listeners per future.
+	 *
+	 * @return
+	 *      histogram of listener counts
+	 */
+	FutureMetrics.HistogramSnapshot getListenerCount();
+
+	/**
+	 * Gets histogram of time spent in listeners per future, in nanoseconds.
+	 *
+	 * @return
+	 *      histogram of listener execution time
+	 */
+	FutureMetrics.HistogramSnapshot getListenerTime();
+
+	/**
+	 * Indicates whether metrics are collected.
+	 *
+	 * @return
+	 *      true if metrics are collected
+	 */
+	boolean                         isEnabled();
+
+	/**
+	 * Resets the collected metrics.
+	 */
+	void                            reset();
+}
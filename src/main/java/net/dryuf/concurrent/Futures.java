@@ -16,8 +16,15 @@
 
 package net.dryuf.concurrent;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 
@@ -159,6 +166,270 @@ public final class Futures
 		return new AnyOfFuture<V>(Arrays.asList(futures));
 	}
 
+	/**
+	 * Returns future that will be completed with list of results once all of the dependent futures succeed.
+	 *
+	 * The results are stored directly by index into array backing the returned list, in the order of
+	 * {@code futures}.  If any of the futures fails or is cancelled, the returned future fails or is cancelled
+	 * immediately.  The dependent futures are not cancelled in such case.
+	 *
+	 * @param futures
+	 *      dependent futures
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future that will complete with results of all of {@code futures}
+	 */
+	public static <V> ListenableFuture<List<V>> allAsList(Iterable<? extends ListenableFuture<? extends V>> futures)
+	{
+		return new AllAsListFuture<V>(futures, false, false);
+	}
+
+	/**
+	 * Returns future that will be completed with list of results once all of the dependent futures succeed.
+	 *
+	 * The results are stored directly by index into array backing the returned list, in the order of
+	 * {@code futures}.  If any of the futures fails or is cancelled, the returned future fails or is cancelled
+	 * immediately.
+	 *
+	 * @param futures
+	 *      dependent futures
+	 * @param cancelOnFailure
+	 *      whether to cancel remaining futures when any of them fails or is cancelled
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future that will complete with results of all of {@code futures}
+	 */
+	public static <V> ListenableFuture<List<V>> allAsList(Iterable<? extends ListenableFuture<? extends V>> futures, boolean cancelOnFailure)
+	{
+		return new AllAsListFuture<V>(futures, false, cancelOnFailure);
+	}
+
+	/**
+	 * Returns future that will be completed with list of results once all of the dependent futures succeed.
+	 *
+	 * If any of the futures fails or is cancelled, the returned future fails or is cancelled immediately.  The
+	 * dependent futures are not cancelled in such case.
+	 *
+	 * @param futures
+	 *      dependent futures
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future that will complete with results of all of {@code futures}
+	 */
+	@SafeVarargs
+	public static <V> ListenableFuture<List<V>> allAsList(ListenableFuture<? extends V>... futures)
+	{
+		return new AllAsListFuture<V>(Arrays.asList(futures), false, false);
+	}
+
+	/**
+	 * Returns future that will be completed with list of results once all of the dependent futures complete.
+	 *
+	 * The results are stored directly by index into array backing the returned list, in the order of
+	 * {@code futures}.  Failed or cancelled futures have {@code null} at their position, the returned future
+	 * never fails.
+	 *
+	 * @param futures
+	 *      dependent futures
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future that will complete with results of all of {@code futures}
+	 */
+	public static <V> ListenableFuture<List<V>> successfulAsList(Iterable<? extends ListenableFuture<? extends V>> futures)
+	{
+		return new AllAsListFuture<V>(futures, true, false);
+	}
+
+	/**
+	 * Returns future that will be completed with list of results once all of the dependent futures complete.
+	 *
+	 * Failed or cancelled futures have {@code null} at their position, the returned future never fails.
+	 *
+	 * @param futures
+	 *      dependent futures
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future that will complete with results of all of {@code futures}
+	 */
+	@SafeVarargs
+	public static <V> ListenableFuture<List<V>> successfulAsList(ListenableFuture<? extends V>... futures)
+	{
+		return new AllAsListFuture<V>(Arrays.asList(futures), true, false);
+	}
+
+	/**
+	 * Returns future that will be completed with first {@code k} successful results of the dependent futures.
+	 *
+	 * The results are listed in the order of completion.  Once {@code k} futures succeed, the remaining futures
+	 * are cancelled.  Once so many futures fail or get cancelled that {@code k} successes are no longer possible,
+	 * the returned future fails with the last failure and the remaining futures are cancelled too.
+	 *
+	 * @param k
+	 *      number of required successful results
+	 * @param futures
+	 *      dependent futures
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future that will complete with first {@code k} results of {@code futures}
+	 *
+	 * @throws IllegalArgumentException
+	 *      if {@code k} is negative or higher than number of {@code futures}
+	 */
+	public static <V> ListenableFuture<List<V>> firstN(int k, Iterable<? extends ListenableFuture<? extends V>> futures)
+	{
+		return new FirstNFuture<V>(k, toCollection(futures));
+	}
+
+	/**
+	 * Returns future that will be completed with first {@code k} successful results of the dependent futures.
+	 *
+	 * See {@link #firstN(int, Iterable)}.
+	 *
+	 * @param k
+	 *      number of required successful results
+	 * @param futures
+	 *      dependent futures
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future that will complete with first {@code k} results of {@code futures}
+	 *
+	 * @throws IllegalArgumentException
+	 *      if {@code k} is negative or higher than number of {@code futures}
+	 */
+	@SafeVarargs
+	public static <V> ListenableFuture<List<V>> firstN(int k, ListenableFuture<? extends V>... futures)
+	{
+		return new FirstNFuture<V>(k, Arrays.asList(futures));
+	}
+
+	/**
+	 * Returns future that will be completed with results of majority of the dependent futures.
+	 *
+	 * This is equivalent to {@link #firstN(int, Iterable)} with {@code k} set to {@code n/2+1}.
+	 *
+	 * @param futures
+	 *      dependent futures
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future that will complete with results of majority of {@code futures}
+	 */
+	public static <V> ListenableFuture<List<V>> quorum(Iterable<? extends ListenableFuture<? extends V>> futures)
+	{
+		Collection<? extends ListenableFuture<? extends V>> collection = toCollection(futures);
+		return new FirstNFuture<V>(collection.size()/2+1, collection);
+	}
+
+	/**
+	 * Returns future that will be completed with results of majority of the dependent futures.
+	 *
+	 * This is equivalent to {@link #firstN(int, Iterable)} with {@code k} set to {@code n/2+1}.
+	 *
+	 * @param futures
+	 *      dependent futures
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future that will complete with results of majority of {@code futures}
+	 */
+	@SafeVarargs
+	public static <V> ListenableFuture<List<V>> quorum(ListenableFuture<? extends V>... futures)
+	{
+		return new FirstNFuture<V>(futures.length/2+1, Arrays.asList(futures));
+	}
+
+	/**
+	 * Returns future that completes with the result of {@code future} or fails with {@link TimeoutException}
+	 * if {@code future} does not complete within the timeout.  In case of timeout, the original future is
+	 * cancelled.
+	 *
+	 * The timeout is tracked by shared {@link HashedWheelTimer}, see
+	 * {@link SharedScheduledExecutorInstance#getTimer()}, the timer entry is removed in O(1) once the original
+	 * future completes.
+	 *
+	 * @param future
+	 *      original future
+	 * @param timeout
+	 *      timeout
+	 * @param unit
+	 *      unit of timeout
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future completing with result of {@code future} or with {@link TimeoutException}
+	 */
+	public static <V> ListenableFuture<V> withTimeout(ListenableFuture<V> future, long timeout, TimeUnit unit)
+	{
+		return withTimeout(future, timeout, unit, SharedScheduledExecutorInstance.getTimer());
+	}
+
+	/**
+	 * Returns future that completes with the result of {@code future} or fails with {@link TimeoutException}
+	 * if {@code future} does not complete within the timeout.  In case of timeout, the original future is
+	 * cancelled.
+	 *
+	 * @param future
+	 *      original future
+	 * @param timeout
+	 *      timeout
+	 * @param unit
+	 *      unit of timeout
+	 * @param timer
+	 *      timer tracking the timeout
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      future completing with result of {@code future} or with {@link TimeoutException}
+	 */
+	public static <V> ListenableFuture<V> withTimeout(ListenableFuture<V> future, long timeout, TimeUnit unit, HashedWheelTimer timer)
+	{
+		return new TimeoutFuture<V>(future, timeout, unit, timer);
+	}
+
+	/**
+	 * Cancels the future if it does not complete within the timeout.
+	 *
+	 * Unlike {@link #withTimeout(ListenableFuture, long, TimeUnit)}, this does not create any derived future.
+	 *
+	 * @param future
+	 *      future to cancel
+	 * @param timeout
+	 *      timeout
+	 * @param unit
+	 *      unit of timeout
+	 * @param <V>
+	 *      type of value
+	 *
+	 * @return
+	 *      the original {@code future}
+	 */
+	public static <V> ListenableFuture<V> cancelAfter(ListenableFuture<V> future, long timeout, TimeUnit unit)
+	{
+		if (!future.isDone()) {
+			HashedWheelTimer.Timeout timerTimeout = SharedScheduledExecutorInstance.getTimer().newTimeout(() -> future.cancel(true), timeout, unit);
+			future.addListener(timerTimeout::cancel);
+		}
+		return future;
+	}
+
 	/**
 	 * Cancels all futures in the list.
 	 *
@@ -229,6 +500,300 @@ public final class Futures
 		private static final AtomicIntegerFieldUpdater<AllOfFuture> counterUpdater = AtomicIntegerFieldUpdater.newUpdater(AllOfFuture.class, "counter");
 	}
 
+	/**
+	 * Converts futures to collection, so their size is known upfront.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V> Collection<? extends ListenableFuture<? extends V>> toCollection(Iterable<? extends ListenableFuture<? extends V>> futures)
+	{
+		if (futures instanceof Collection)
+			return (Collection<? extends ListenableFuture<? extends V>>)futures;
+		ArrayList<ListenableFuture<? extends V>> list = new ArrayList<ListenableFuture<? extends V>>();
+		for (ListenableFuture<? extends V> future: futures)
+			list.add(future);
+		return list;
+	}
+
+	private static class AllAsListFuture<V> extends AbstractFuture<List<V>>
+	{
+		@SuppressWarnings("unchecked")
+		public                          AllAsListFuture(Iterable<? extends ListenableFuture<? extends V>> futures, boolean successful, boolean cancelOnFailure)
+		{
+			Collection<? extends ListenableFuture<? extends V>> collection = toCollection(futures);
+			this.futures = collection;
+			this.successful = successful;
+			this.cancelOnFailure = cancelOnFailure;
+			this.results = new Object[collection.size()];
+			this.counter = results.length+1;
+			int index = 0;
+			for (ListenableFuture<? extends V> future: collection) {
+				IndexedListener<V> listener = new IndexedListener<V>(this, index++);
+				if (future instanceof AbstractFuture)
+					((AbstractFuture<V>)future).addListener(listener);
+				else
+					((ListenableFuture<V>)future).addListener((FutureListener<V>)listener);
+			}
+			if (index != results.length)
+				throw new IllegalArgumentException("Collection size changed while iterating: "+results.length+" -> "+index);
+			countDown();
+		}
+
+		@Override
+		public void                     interruptTask()
+		{
+			cancelInputs();
+		}
+
+		void                            onSuccess(int index, V result)
+		{
+			results[index] = result;
+			countDown();
+		}
+
+		void                            onFailure(Throwable ex)
+		{
+			if (successful) {
+				countDown();
+			}
+			else if (setException(ex) && cancelOnFailure) {
+				cancelInputs();
+			}
+		}
+
+		void                            onCancelled()
+		{
+			if (successful) {
+				countDown();
+			}
+			else if (cancel(false) && cancelOnFailure) {
+				cancelInputs();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void                    countDown()
+		{
+			if (counterUpdater.decrementAndGet(this) == 0)
+				set(Collections.unmodifiableList(Arrays.asList((V[])results)));
+		}
+
+		private void                    cancelInputs()
+		{
+			Collection<? extends ListenableFuture<? extends V>> futures = this.futures;
+			if (futures != null) {
+				this.futures = null;
+				for (ListenableFuture<?> future: futures)
+					future.cancel(true);
+			}
+		}
+
+		private volatile Collection<? extends ListenableFuture<? extends V>> futures;
+
+		private final boolean           successful;
+
+		private final boolean           cancelOnFailure;
+
+		private final Object[]          results;
+
+		private volatile int            counter;
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<AllAsListFuture> counterUpdater = AtomicIntegerFieldUpdater.newUpdater(AllAsListFuture.class, "counter");
+	}
+
+	private static class FirstNFuture<V> extends AbstractFuture<List<V>> implements FutureListener<V>
+	{
+		@SuppressWarnings("unchecked")
+		public                          FirstNFuture(int k, Collection<? extends ListenableFuture<? extends V>> futures)
+		{
+			if (k < 0 || k > futures.size())
+				throw new IllegalArgumentException("Required count out of range 0 to "+futures.size()+": "+k);
+			this.futures = futures;
+			this.results = new Object[k];
+			this.allowedFailures = futures.size()-k;
+			if (k == 0) {
+				set(Collections.<V>emptyList());
+				return;
+			}
+			for (ListenableFuture<? extends V> future: futures) {
+				if (isDone())
+					break;
+				((ListenableFuture<V>)future).addListener(this);
+			}
+			if (isDone())
+				cancelInputs();
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void                     onSuccess(V result)
+		{
+			int slot = successesUpdater.getAndIncrement(this);
+			if (slot < results.length) {
+				results[slot] = result;
+				if (filledUpdater.incrementAndGet(this) == results.length) {
+					set(Collections.unmodifiableList(Arrays.asList((V[])results)));
+					cancelInputs();
+				}
+			}
+		}
+
+		@Override
+		public void                     onFailure(Throwable ex)
+		{
+			if (failuresUpdater.incrementAndGet(this) == allowedFailures+1) {
+				setException(ex);
+				cancelInputs();
+			}
+		}
+
+		@Override
+		public void                     onCancelled()
+		{
+			onFailure(new CancellationException("Dependent future cancelled"));
+		}
+
+		@Override
+		public void                     interruptTask()
+		{
+			cancelInputs();
+		}
+
+		private void                    cancelInputs()
+		{
+			Collection<? extends ListenableFuture<? extends V>> futures = this.futures;
+			if (futures != null) {
+				this.futures = null;
+				for (ListenableFuture<?> future: futures)
+					future.cancel(true);
+			}
+		}
+
+		private volatile Collection<? extends ListenableFuture<? extends V>> futures;
+
+		private final Object[]          results;
+
+		private final int               allowedFailures;
+
+		/** Number of claimed result slots */
+		private volatile int            successes;
+
+		/** Number of filled result slots */
+		private volatile int            filled;
+
+		private volatile int            failures;
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<FirstNFuture> successesUpdater = AtomicIntegerFieldUpdater.newUpdater(FirstNFuture.class, "successes");
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<FirstNFuture> filledUpdater = AtomicIntegerFieldUpdater.newUpdater(FirstNFuture.class, "filled");
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<FirstNFuture> failuresUpdater = AtomicIntegerFieldUpdater.newUpdater(FirstNFuture.class, "failures");
+	}
+
+	private static class TimeoutFuture<V> extends AbstractFuture<V> implements FutureListener<V>, Runnable
+	{
+		public                          TimeoutFuture(ListenableFuture<V> future, long timeout, TimeUnit unit, HashedWheelTimer timer)
+		{
+			this.future = future;
+			if (future.isDone()) {
+				future.addListener((FutureListener<V>)this);
+				return;
+			}
+			this.timerTimeout = timer.newTimeout(this, timeout, unit);
+			future.addListener((FutureListener<V>)this);
+		}
+
+		@Override
+		public void                     run()
+		{
+			if (isDone())
+				return;
+			// cancel the original first, so it is already cancelled once the timeout is reported
+			timedOut = true;
+			future.cancel(true);
+			setException(new TimeoutException("Future timed out"));
+		}
+
+		@Override
+		public void                     onSuccess(V result)
+		{
+			set(result);
+			cancelTimer();
+		}
+
+		@Override
+		public void                     onFailure(Throwable ex)
+		{
+			setException(ex);
+			cancelTimer();
+		}
+
+		@Override
+		public void                     onCancelled()
+		{
+			if (!timedOut) {
+				cancel(false);
+				cancelTimer();
+			}
+		}
+
+		@Override
+		protected void                  interruptTask()
+		{
+			future.cancel(true);
+			cancelTimer();
+		}
+
+		private void                    cancelTimer()
+		{
+			HashedWheelTimer.Timeout timerTimeout = this.timerTimeout;
+			if (timerTimeout != null)
+				timerTimeout.cancel();
+		}
+
+		private final ListenableFuture<V> future;
+
+		/** Timer entry, the listener is registered only after it is assigned */
+		private HashedWheelTimer.Timeout timerTimeout;
+
+		/** Indicator the timeout expired and the original future is being cancelled by this */
+		private volatile boolean        timedOut;
+	}
+
+	/**
+	 * Listener of single input of {@link AllAsListFuture}, serving also as listener queue node.
+	 */
+	private static final class IndexedListener<V> extends AbstractFuture.FutureListenerNode<V>
+	{
+		public                          IndexedListener(AllAsListFuture<V> owner, int index)
+		{
+			this.owner = owner;
+			this.index = index;
+		}
+
+		@Override
+		public void                     onSuccess(V result)
+		{
+			owner.onSuccess(index, result);
+		}
+
+		@Override
+		public void                     onFailure(Throwable ex)
+		{
+			owner.onFailure(ex);
+		}
+
+		@Override
+		public void                     onCancelled()
+		{
+			owner.onCancelled();
+		}
+
+		private final AllAsListFuture<V> owner;
+
+		private final int               index;
+	}
 
 	private static class AnyOfFuture<V> extends AbstractFuture<V> implements FutureListener<V>
 	{
@@ -0,0 +1,382 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * Timer based on hashed timing wheel, suitable for large number of timeouts which are mostly cancelled before they
+ * expire.
+ *
+ * Scheduling and cancellation are O(1) and lock free: new and cancelled timeouts are pushed to lock-free stacks
+ * and moved into or out of the wheel buckets by the timer thread on next tick.  The precision of expiration is
+ * limited by the tick duration.  The timer thread is started lazily and parks indefinitely while there are no
+ * timeouts.
+ *
+ * The expired tasks are run by the timer thread unless executor is provided, so they should be short.
+ *
+ * @author
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ */
+public class HashedWheelTimer implements AutoCloseable
+{
+	/**
+	 * Creates new timer.
+	 *
+	 * @param tickDuration
+	 *      duration of single tick
+	 * @param unit
+	 *      unit of tickDuration
+	 * @param wheelSize
+	 *      number of buckets in the wheel, rounded up to power of two
+	 * @param threadFactory
+	 *      factory creating timer thread
+	 * @param executor
+	 *      executor to run expired tasks, null to run them directly by timer thread
+	 */
+	public                          HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, ThreadFactory threadFactory, Executor executor)
+	{
+		if (tickDuration <= 0)
+			throw new IllegalArgumentException("tickDuration must be positive: "+tickDuration);
+		if (wheelSize <= 0 || wheelSize > 1<<30)
+			throw new IllegalArgumentException("wheelSize out of range: "+wheelSize);
+		this.tickNanos = unit.toNanos(tickDuration);
+		this.wheel = new Timeout[wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize-1)<<1];
+		this.mask = wheel.length-1;
+		this.executor = executor;
+		this.worker = threadFactory.newThread(this::runWorker);
+		this.startTime = System.nanoTime();
+	}
+
+	/**
+	 * Schedules task to be run after specified delay.
+	 *
+	 * @param task
+	 *      task to run
+	 * @param delay
+	 *      delay after which the task is run
+	 * @param unit
+	 *      unit of delay
+	 *
+	 * @return
+	 *      timeout handle which can be used to cancel the task
+	 *
+	 * @throws IllegalStateException
+	 *      if the timer was already closed
+	 */
+	public Timeout                  newTimeout(Runnable task, long delay, TimeUnit unit)
+	{
+		if (task == null)
+			throw new NullPointerException("task");
+		int state = workerState;
+		if (state != WS_STARTED) {
+			if (state == WS_INIT && workerStateUpdater.compareAndSet(this, WS_INIT, WS_STARTED))
+				worker.start();
+			else if (state == WS_CLOSED)
+				throw new IllegalStateException("Timer already closed");
+		}
+		Timeout timeout = new Timeout(this, task, deadline(unit.toNanos(delay)));
+		for (;;) {
+			Timeout head = pending;
+			timeout.next = head;
+			if (pendingUpdater.compareAndSet(this, head, timeout))
+				break;
+		}
+		if (idle)
+			LockSupport.unpark(worker);
+		return timeout;
+	}
+
+	/**
+	 * Calculates deadline relative to timer start, saturating at Long.MAX_VALUE for large delays.
+	 */
+	private long                    deadline(long delayNanos)
+	{
+		long now = System.nanoTime()-startTime;
+		if (delayNanos <= 0)
+			return now;
+		return delayNanos > Long.MAX_VALUE-now ? Long.MAX_VALUE : now+delayNanos;
+	}
+
+	/**
+	 * Stops the timer thread.  Pending timeouts are not run.
+	 */
+	@Override
+	public void                     close()
+	{
+		if (workerStateUpdater.getAndSet(this, WS_CLOSED) == WS_STARTED) {
+			LockSupport.unpark(worker);
+			if (Thread.currentThread() != worker) {
+				boolean interrupted = false;
+				for (;;) {
+					try {
+						worker.join();
+						break;
+					}
+					catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+				if (interrupted)
+					Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void                    runWorker()
+	{
+		long tick = 0;
+		while (workerState != WS_CLOSED) {
+			processCancelled();
+			transferPending(tick);
+			if (count == 0) {
+				idle = true;
+				if (pending == null && cancelled == null && workerState != WS_CLOSED)
+					LockSupport.park(this);
+				idle = false;
+				// nothing in the wheel, skip the ticks elapsed while idle
+				tick = Math.max(tick, (System.nanoTime()-startTime)/tickNanos);
+				continue;
+			}
+			long deadline = (tick+1)*tickNanos;
+			for (;;) {
+				long remaining = deadline-(System.nanoTime()-startTime);
+				if (remaining <= 0 || workerState == WS_CLOSED)
+					break;
+				LockSupport.parkNanos(this, remaining);
+			}
+			processCancelled();
+			transferPending(tick);
+			expireBucket(tick);
+			++tick;
+		}
+	}
+
+	/**
+	 * Moves newly added timeouts into the wheel.
+	 */
+	private void                    transferPending(long tick)
+	{
+		for (Timeout current = pendingUpdater.getAndSet(this, null), next; current != null; current = next) {
+			next = current.next;
+			if (current.state != Timeout.ST_INIT)
+				continue;
+			long deadlineTick = Math.max(tick, current.deadline/tickNanos+(current.deadline%tickNanos != 0 ? 1 : 0)-1);
+			current.deadlineTick = deadlineTick;
+			int index = (int)(deadlineTick&mask);
+			Timeout head = wheel[index];
+			current.prev = null;
+			current.next = head;
+			if (head != null)
+				head.prev = current;
+			wheel[index] = current;
+			current.bucket = index;
+			++count;
+		}
+	}
+
+	/**
+	 * Removes cancelled timeouts from the wheel.
+	 */
+	private void                    processCancelled()
+	{
+		for (Timeout current = cancelledUpdater.getAndSet(this, null), next; current != null; current = next) {
+			next = current.nextCancelled;
+			current.nextCancelled = null;
+			if (current.bucket >= 0)
+				unlink(current);
+		}
+	}
+
+	/**
+	 * Expires timeouts due in the bucket for the tick.
+	 */
+	private void                    expireBucket(long tick)
+	{
+		int index = (int)(tick&mask);
+		for (Timeout current = wheel[index], next; current != null; current = next) {
+			next = current.next;
+			if (current.deadlineTick <= tick) {
+				unlink(current);
+				current.expire(executor);
+			}
+		}
+	}
+
+	private void                    unlink(Timeout timeout)
+	{
+		if (timeout.prev != null)
+			timeout.prev.next = timeout.next;
+		else
+			wheel[timeout.bucket] = timeout.next;
+		if (timeout.next != null)
+			timeout.next.prev = timeout.prev;
+		timeout.prev = null;
+		timeout.next = null;
+		timeout.bucket = -1;
+		--count;
+	}
+
+	private void                    addCancelled(Timeout timeout)
+	{
+		for (;;) {
+			Timeout head = cancelled;
+			timeout.nextCancelled = head;
+			if (cancelledUpdater.compareAndSet(this, head, timeout))
+				break;
+		}
+	}
+
+	/**
+	 * Handle of scheduled task.
+	 */
+	public static final class Timeout
+	{
+		private                         Timeout(HashedWheelTimer timer, Runnable task, long deadline)
+		{
+			this.timer = timer;
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		/**
+		 * Cancels the timeout.  The task is removed from the wheel on next tick.
+		 *
+		 * @return true
+		 *      if the timeout was cancelled
+		 * false
+		 *      if the timeout was already expired or cancelled
+		 */
+		public boolean                  cancel()
+		{
+			if (!stateUpdater.compareAndSet(this, ST_INIT, ST_CANCELLED))
+				return false;
+			timer.addCancelled(this);
+			return true;
+		}
+
+		/**
+		 * Checks whether the timeout was cancelled.
+		 *
+		 * @return
+		 *      true if the timeout was cancelled
+		 */
+		public boolean                  isCancelled()
+		{
+			return state == ST_CANCELLED;
+		}
+
+		/**
+		 * Checks whether the timeout expired.
+		 *
+		 * @return
+		 *      true if the timeout expired and its task was run or submitted
+		 */
+		public boolean                  isExpired()
+		{
+			return state == ST_EXPIRED;
+		}
+
+		private void                    expire(Executor executor)
+		{
+			if (!stateUpdater.compareAndSet(this, ST_INIT, ST_EXPIRED))
+				return;
+			try {
+				if (executor != null)
+					executor.execute(task);
+				else
+					task.run();
+			}
+			catch (Throwable ex) {
+				// keep the timer thread alive, other timeouts depend on it
+				logger.log(Level.SEVERE, "Exception raised by timer task "+task, ex);
+			}
+		}
+
+		private final HashedWheelTimer  timer;
+
+		private final Runnable          task;
+
+		/** Deadline relative to timer start */
+		private final long              deadline;
+
+		/** Tick in which the timeout expires, owned by timer thread */
+		private long                    deadlineTick;
+
+		/** Bucket index or -1 if not in the wheel, owned by timer thread */
+		private int                     bucket = -1;
+
+		/** Next node in pending stack or in bucket */
+		private Timeout                 next;
+
+		/** Previous node in bucket, owned by timer thread */
+		private Timeout                 prev;
+
+		/** Next node in cancelled stack */
+		private Timeout                 nextCancelled;
+
+		private volatile int            state = ST_INIT;
+
+		private static final int        ST_INIT                         = 0;
+		private static final int        ST_CANCELLED                    = 1;
+		private static final int        ST_EXPIRED                      = 2;
+
+		private static final AtomicIntegerFieldUpdater<Timeout> stateUpdater = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+	}
+
+	private final long              tickNanos;
+
+	private final Timeout[]         wheel;
+
+	private final int               mask;
+
+	private final Executor          executor;
+
+	private final Thread            worker;
+
+	private final long              startTime;
+
+	/** Number of timeouts in the wheel, owned by timer thread */
+	private int                     count;
+
+	/** Indicator that the timer thread parks indefinitely */
+	private volatile boolean        idle;
+
+	private volatile int            workerState = WS_INIT;
+
+	private volatile Timeout        pending;
+
+	private volatile Timeout        cancelled;
+
+	private static final int        WS_INIT                         = 0;
+	private static final int        WS_STARTED                      = 1;
+	private static final int        WS_CLOSED                       = 2;
+
+	private static final AtomicIntegerFieldUpdater<HashedWheelTimer> workerStateUpdater = AtomicIntegerFieldUpdater.newUpdater(HashedWheelTimer.class, "workerState");
+	private static final AtomicReferenceFieldUpdater<HashedWheelTimer, Timeout> pendingUpdater = AtomicReferenceFieldUpdater.newUpdater(HashedWheelTimer.class, Timeout.class, "pending");
+	private static final AtomicReferenceFieldUpdater<HashedWheelTimer, Timeout> cancelledUpdater = AtomicReferenceFieldUpdater.newUpdater(HashedWheelTimer.class, Timeout.class, "cancelled");
+
+	private static final Logger     logger = Logger.getLogger(HashedWheelTimer.class.getName());
+}
@@ -18,6 +18,7 @@ package net.dryuf.concurrent;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -160,4 +161,24 @@ public interface ListenableFuture<V> extends Future<V>
 	 *      this instance
 	 */
 	ListenableFuture<V>             addAsyncListener(SuccessListener<V> successListener, FailureListener failureListener, CancelListener cancelListener, Executor executor);
+
+	/**
+	 * Returns future that completes with the result of this future or fails with
+	 * {@link java.util.concurrent.TimeoutException TimeoutException} if this future does not complete within the
+	 * timeout, cancelling this future.
+	 *
+	 * See {@link Futures#withTimeout(ListenableFuture, long, TimeUnit)}.
+	 *
+	 * @param timeout
+	 *      timeout
+	 * @param unit
+	 *      unit of timeout
+	 *
+	 * @return
+	 *      future completing with result of this future or with TimeoutException
+	 */
+	default ListenableFuture<V>     orTimeout(long timeout, TimeUnit unit)
+	{
+		return Futures.withTimeout(this, timeout, unit);
+	}
 }
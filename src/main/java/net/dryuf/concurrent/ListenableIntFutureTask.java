@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import java.util.concurrent.RunnableFuture;
+
+
+/**
+ * {@link ListenableIntFuture} implementation running the {@link IntCallable} task.
+ *
+ * @author
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ */
+public class ListenableIntFutureTask extends AbstractIntFuture implements RunnableFuture<Integer>
+{
+	/**
+	 * Constructs new instance with {@link IntCallable} reference.
+	 *
+	 * @param callable
+	 * 	function to compute the result
+	 */
+	public                          ListenableIntFutureTask(final IntCallable callable)
+	{
+		super(false);
+		this.callable = callable;
+	}
+
+	protected void                  interruptTask()
+	{
+		myThread.interrupt();
+	}
+
+	protected boolean		enforcedCancel()
+	{
+		return false;
+	}
+
+	@Override
+	public void                     run()
+	{
+		try {
+			myThread = Thread.currentThread();
+			if (setRunning()) {
+				int result = callable.call();
+				if (enforcedCancel())
+					setCancelled();
+				else
+					setInt(result);
+			}
+		}
+		catch (Throwable ex) {
+			if (enforcedCancel())
+				setCancelled();
+			else
+				setException(ex);
+			if (ex instanceof Error)
+				throw (Error)ex;
+		}
+	}
+
+	/**
+	 * Task computing primitive int result.
+	 */
+	@FunctionalInterface
+	public interface IntCallable
+	{
+		/**
+		 * Computes the result.
+		 *
+		 * @return
+		 *      computed result
+		 *
+		 * @throws Exception
+		 *      in case of failure
+		 */
+		int                             call() throws Exception;
+	}
+
+	/**
+	 * The thread that executes the task.
+	 *
+	 * Volatile is not needed as this is surrounded with other memory barrier reads/writes.
+	 */
+	private Thread                  myThread;
+
+	/**
+	 * Callable performing the task.
+	 */
+	private final IntCallable       callable;
+}
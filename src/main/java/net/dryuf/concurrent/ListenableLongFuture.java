@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * {@link ListenableFuture} specialized for primitive long result.
+ *
+ * The result stays unboxed when accessed via {@link #getLong()} or {@link LongFutureListener} listeners, the generic
+ * methods box it on request.
+ *
+ * @author
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ */
+public interface ListenableLongFuture extends ListenableFuture<Long>
+{
+	/**
+	 * Waits for the result.
+	 *
+	 * @return
+	 *      result of this future
+	 *
+	 * @throws InterruptedException
+	 *      if the thread was interrupted while waiting
+	 * @throws ExecutionException
+	 *      if the future failed
+	 * @throws CancellationException
+	 *      if the future was cancelled
+	 */
+	long                            getLong() throws InterruptedException, ExecutionException;
+
+	/**
+	 * Waits for the result, at most for the specified time.
+	 *
+	 * @param timeout
+	 *      time to wait
+	 * @param unit
+	 *      unit of timeout
+	 *
+	 * @return
+	 *      result of this future
+	 *
+	 * @throws InterruptedException
+	 *      if the thread was interrupted while waiting
+	 * @throws ExecutionException
+	 *      if the future failed
+	 * @throws CancellationException
+	 *      if the future was cancelled
+	 * @throws TimeoutException
+	 *      if the future did not finish within the time
+	 */
+	long                            getLong(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException;
+
+	/**
+	 * Registers new listener as {@link LongFutureListener} instance.
+	 *
+	 * @param listener
+	 * 	listener to be called when future is done
+	 *
+	 * @return
+	 *      this instance
+	 */
+	ListenableLongFuture            addLongListener(LongFutureListener listener);
+
+	/**
+	 * Registers new listener as separated success, failure and cancel callbacks.
+	 *
+	 * In case any of the callbacks is null, it will be skipped while executing the listeners
+	 * for that particular notification.
+	 *
+	 * @param successListener
+	 * 	listener to be called when future successfully finishes, can be null
+	 * @param failureListener
+	 * 	listener to be called when future finishes with failure, can be null
+	 * @param cancelListener
+	 * 	listener to be called when future is cancelled, can be null
+	 *
+	 * @return
+	 *      this instance
+	 */
+	ListenableLongFuture            addLongListener(LongSuccessListener successListener, FailureListener failureListener, CancelListener cancelListener);
+
+	/**
+	 * Registers new listener as {@link LongFutureListener} instance.
+	 *
+	 * @param listener
+	 * 	listener to be called when future is done
+	 * @param executor
+	 *      executor which will execute listener
+	 *
+	 * @return
+	 *      this instance
+	 */
+	ListenableLongFuture            addAsyncLongListener(LongFutureListener listener, Executor executor);
+
+	/**
+	 * Registers new listener as separated success, failure and cancel callbacks.
+	 *
+	 * In case any of the callbacks is null, it will be skipped while executing the listeners
+	 * for that particular notification.
+	 *
+	 * @param successListener
+	 * 	listener to be called when future successfully finishes, can be null
+	 * @param failureListener
+	 * 	listener to be called when future finishes with failure, can be null
+	 * @param cancelListener
+	 * 	listener to be called when future is cancelled, can be null
+	 * @param executor
+	 *      executor which will execute listener
+	 *
+	 * @return
+	 *      this instance
+	 */
+	ListenableLongFuture            addAsyncLongListener(LongSuccessListener successListener, FailureListener failureListener, CancelListener cancelListener, Executor executor);
+}
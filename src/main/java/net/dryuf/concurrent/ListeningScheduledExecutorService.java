@@ -44,4 +44,29 @@ public interface ListeningScheduledExecutorService extends ListeningExecutorServ
 
 	@Override
 	ListenableScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long delay, long period, TimeUnit unit);
+
+	/**
+	 * Schedules periodic task at fixed rate, allowing the implementation to coalesce it with other tasks of the
+	 * same period into single timer entry, run as a batch.  The first execution may be postponed by up to one
+	 * period to align with the phase of already existing tasks.  The tasks should be short as they may be run
+	 * sequentially by the same thread.  Cancellation applies to the single task only.
+	 *
+	 * By default, this calls {@link #scheduleAtFixedRate(Runnable, long, long, TimeUnit)}.
+	 *
+	 * @param command
+	 *      task to run
+	 * @param initialDelay
+	 *      minimal delay of first execution
+	 * @param period
+	 *      period between executions
+	 * @param unit
+	 *      unit of initialDelay and period
+	 *
+	 * @return
+	 *      future representing the periodic task, completed only on cancellation or failure.
+	 */
+	default ListenableScheduledFuture<?> scheduleAtFixedRateCoalesced(Runnable command, long initialDelay, long period, TimeUnit unit)
+	{
+		return scheduleAtFixedRate(command, initialDelay, period, unit);
+	}
 }
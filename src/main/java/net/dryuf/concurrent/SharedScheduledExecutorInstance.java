@@ -19,6 +19,7 @@ package net.dryuf.concurrent;
 import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -40,6 +41,10 @@ public class SharedScheduledExecutorInstance
 	/**
 	 * Gets the instance of shared ListeningScheduledExecutor.
 	 *
+	 * Large numbers of periodic tasks with the same period (such as heartbeats) should be scheduled via
+	 * {@link ListeningScheduledExecutorService#scheduleAtFixedRateCoalesced(Runnable, long, long, TimeUnit)
+	 * scheduleAtFixedRateCoalesced}, sharing single timer entry per period.
+	 *
 	 * @return
 	 * 	instance of shared ListeningScheduledExecutor.
 	 */
@@ -48,6 +53,40 @@ public class SharedScheduledExecutorInstance
 		return scheduledExecutorService;
 	}
 
+	/**
+	 * Gets the instance of shared {@link HashedWheelTimer}, with tick of 1 ms by default, configurable by
+	 * {@code net.dryuf.concurrent.timerTickMs} system property.  The expired timer tasks are run by
+	 * {@link #getScheduledExecutorService()}, so slow tasks (such as listeners of timed out futures) do not delay other
+	 * timeouts.
+	 *
+	 * @return
+	 * 	instance of shared HashedWheelTimer.
+	 */
+	public static HashedWheelTimer	getTimer()
+	{
+		return TimerHolder.timer;
+	}
+
+	private static final class TimerHolder
+	{
+		private static final HashedWheelTimer timer = new HashedWheelTimer(
+				Optional.ofNullable(System.getProperty("net.dryuf.concurrent.timerTickMs"))
+					.map(Long::valueOf)
+					.orElse(1L),
+				TimeUnit.MILLISECONDS,
+				4096,
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "dryuf-timer");
+						t.setDaemon(true);
+						return t;
+					}
+				},
+				scheduledExecutorService
+			);
+	}
+
 	private static final ListeningScheduledExecutorService scheduledExecutorService =
 			ListeningExecutors.listeningDecorator(Executors.newScheduledThreadPool(
 				Runtime.getRuntime().availableProcessors(),
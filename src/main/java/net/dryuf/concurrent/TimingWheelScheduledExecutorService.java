@@ -0,0 +1,689 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * {@link ListeningScheduledExecutorService} based on hierarchical timing wheel.
+ *
+ * The wheel has levels of 64 slots each, level {@code n} slot covering {@code 64^n} ticks.  Timers are inserted
+ * into lock-free stack and moved into the wheel by the timer thread on next tick, cancelled timers are removed
+ * the same way, so both scheduling and cancellation are O(1) and do not take any lock.  Timers in higher levels
+ * are cascaded into lower levels once their slot is reached.
+ *
+ * The due tasks are submitted to provided worker {@link Executor}, the timer thread does not run them.  The
+ * precision is limited by the tick duration.  The timer thread is started lazily, once the first timer is scheduled,
+ * and parks indefinitely when there are no timers.
+ *
+ * Shutting down this service does not shut down the worker executor.  After {@link #shutdown()}, already
+ * scheduled one shot tasks are still run, periodic tasks are not rescheduled anymore.  The service is terminated once
+ * the timer thread finished and all tasks submitted to worker executor completed.
+ *
+ * @author
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ */
+public class TimingWheelScheduledExecutorService extends AbstractListeningExecutorService implements ListeningScheduledExecutorService
+{
+	/**
+	 * Creates new instance.
+	 *
+	 * @param workerExecutor
+	 *      executor running the due tasks
+	 * @param tickDuration
+	 *      duration of single tick
+	 * @param unit
+	 *      unit of tickDuration
+	 * @param threadFactory
+	 *      factory creating timer thread, invoked once the first timer is scheduled
+	 */
+	public                          TimingWheelScheduledExecutorService(Executor workerExecutor, long tickDuration, TimeUnit unit, ThreadFactory threadFactory)
+	{
+		if (tickDuration <= 0)
+			throw new IllegalArgumentException("tickDuration must be positive: "+tickDuration);
+		this.workerExecutor = workerExecutor;
+		this.tickNanos = unit.toNanos(tickDuration);
+		this.startTime = System.nanoTime();
+		this.threadFactory = threadFactory;
+	}
+
+	@Override
+	public void                     execute(Runnable command)
+	{
+		if (state != ST_RUNNING)
+			throw new RejectedExecutionException("Executor already shut down");
+		acquireActive();
+		try {
+			workerExecutor.execute(() -> {
+				try {
+					command.run();
+				}
+				finally {
+					releaseActive();
+				}
+			});
+		}
+		catch (Throwable ex) {
+			releaseActive();
+			throw ex;
+		}
+	}
+
+	@Override
+	public ListenableScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit)
+	{
+		return schedule(command, null, delay, unit);
+	}
+
+	@Override
+	public <V> ListenableScheduledFuture<V> schedule(Runnable command, V result, long delay, TimeUnit unit)
+	{
+		return enqueueNew(new TimerTask<V>(this, command, result, triggerTime(delay, unit), 0));
+	}
+
+	@Override
+	public <V> ListenableScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit)
+	{
+		return enqueueNew(new TimerTask<V>(this, callable, triggerTime(delay, unit), 0));
+	}
+
+	@Override
+	public ListenableScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit)
+	{
+		if (period <= 0)
+			throw new IllegalArgumentException("period must be positive: "+period);
+		return enqueueNew(new TimerTask<Object>(this, command, null, triggerTime(initialDelay, unit), clampDelay(unit.toNanos(period))));
+	}
+
+	@Override
+	public ListenableScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit)
+	{
+		if (delay <= 0)
+			throw new IllegalArgumentException("delay must be positive: "+delay);
+		return enqueueNew(new TimerTask<Object>(this, command, null, triggerTime(initialDelay, unit), -clampDelay(unit.toNanos(delay))));
+	}
+
+	@Override
+	public void                     shutdown()
+	{
+		stateUpdater.compareAndSet(this, ST_RUNNING, ST_SHUTDOWN);
+		closeUnstarted();
+		LockSupport.unpark(worker);
+	}
+
+	@Override
+	public List<Runnable>           shutdownNow()
+	{
+		state = ST_STOP;
+		closeUnstarted();
+		LockSupport.unpark(worker);
+		if (Thread.currentThread() != worker) {
+			boolean interrupted = false;
+			for (;;) {
+				try {
+					terminated.await();
+					break;
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+		List<Runnable> remaining = this.remaining;
+		return remaining == null ? new ArrayList<Runnable>() : remaining;
+	}
+
+	@Override
+	public boolean                  isShutdown()
+	{
+		return state != ST_RUNNING;
+	}
+
+	@Override
+	public boolean                  isTerminated()
+	{
+		return allTerminated.getCount() == 0;
+	}
+
+	@Override
+	public boolean                  awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		return allTerminated.await(timeout, unit);
+	}
+
+	/**
+	 * Calculates deadline, the delay is clamped so the difference to {@link System#nanoTime()} does not overflow,
+	 * similarly to {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+	 */
+	private long                    triggerTime(long delay, TimeUnit unit)
+	{
+		return System.nanoTime()+clampDelay(Math.max(0, unit.toNanos(delay)));
+	}
+
+	private static long             clampDelay(long nanos)
+	{
+		return Math.min(nanos, MAX_DELAY_NS);
+	}
+
+	/**
+	 * Counts task submitted to worker executor.
+	 *
+	 * @throws RejectedExecutionException
+	 *      if the service is already terminated
+	 */
+	private void                    acquireActive()
+	{
+		for (;;) {
+			int old = active;
+			if (old == 0)
+				throw new RejectedExecutionException("Executor already terminated");
+			if (activeUpdater.compareAndSet(this, old, old+1))
+				return;
+		}
+	}
+
+	/**
+	 * Uncounts finished task or timer thread, terminating the service if it was the last one.
+	 */
+	private void                    releaseActive()
+	{
+		if (activeUpdater.decrementAndGet(this) == 0)
+			allTerminated.countDown();
+	}
+
+	private <V> TimerTask<V>        enqueueNew(TimerTask<V> task)
+	{
+		if (state != ST_RUNNING)
+			throw new RejectedExecutionException("Executor already shut down");
+		if (task.deadline-System.nanoTime() <= 0) {
+			// already due, no need to wait for next tick
+			acquireActive();
+			task.submitted = true;
+			try {
+				workerExecutor.execute(task);
+			}
+			catch (Throwable ex) {
+				task.submitted = false;
+				releaseActive();
+				throw ex;
+			}
+			return task;
+		}
+		enqueue(task);
+		if (exited && task.cancel(false))
+			throw new RejectedExecutionException("Executor already shut down");
+		return task;
+	}
+
+	/**
+	 * Pushes the task to pending stack, to be moved into the wheel by timer thread.
+	 */
+	private void                    enqueue(TimerTask<?> task)
+	{
+		for (;;) {
+			TimerTask<?> head = pending;
+			task.next = head;
+			if (pendingUpdater.compareAndSet(this, head, task))
+				break;
+		}
+		if (workerState != WS_STARTED) {
+			if (workerStateUpdater.compareAndSet(this, WS_INIT, WS_STARTED)) {
+				Thread thread = threadFactory.newThread(this::runWorker);
+				worker = thread;
+				thread.start();
+			}
+			// else already closed, rejected by caller based on exited flag
+		}
+		else if (idle) {
+			LockSupport.unpark(worker);
+		}
+	}
+
+	/**
+	 * Terminates timer part if the timer thread was never started, collecting tasks racing with the shutdown.
+	 */
+	private void                    closeUnstarted()
+	{
+		if (workerStateUpdater.compareAndSet(this, WS_INIT, WS_CLOSED)) {
+			exited = true;
+			List<Runnable> remaining = new ArrayList<Runnable>();
+			for (TimerTask<?> current = pendingUpdater.getAndSet(this, null); current != null; current = current.next) {
+				if (!current.isDone())
+					remaining.add(current);
+			}
+			this.remaining = remaining;
+			releaseActive();
+			terminated.countDown();
+		}
+	}
+
+	/**
+	 * Pushes the task to cancelled stack, to be removed from the wheel by timer thread.
+	 */
+	private void                    enqueueCancelled(TimerTask<?> task)
+	{
+		for (;;) {
+			TimerTask<?> head = cancelledStack;
+			task.nextCancelled = head;
+			if (cancelledUpdater.compareAndSet(this, head, task))
+				break;
+		}
+	}
+
+	private void                    runWorker()
+	{
+		try {
+			// started lazily, skip the ticks elapsed since construction
+			long tick = (System.nanoTime()-startTime)/tickNanos;
+			for (;;) {
+				if (state == ST_STOP)
+					break;
+				processCancelled();
+				transferPending(tick);
+				if (count == 0) {
+					if (state != ST_RUNNING) {
+						exited = true;
+						if (pending == null)
+							break;
+						exited = false;
+						continue;
+					}
+					idle = true;
+					if (pending == null && cancelledStack == null && state == ST_RUNNING)
+						LockSupport.park(this);
+					idle = false;
+					// nothing in the wheel, skip the ticks elapsed while idle
+					tick = Math.max(tick, (System.nanoTime()-startTime)/tickNanos);
+					continue;
+				}
+				long next = tick+1;
+				for (;;) {
+					long remaining = next*tickNanos-(System.nanoTime()-startTime);
+					if (remaining <= 0 || state == ST_STOP)
+						break;
+					LockSupport.parkNanos(this, remaining);
+				}
+				if (state == ST_STOP)
+					break;
+				tick = next;
+				cascade(tick);
+				expireSlot(tick);
+			}
+		}
+		finally {
+			exited = true;
+			List<Runnable> remaining = new ArrayList<Runnable>();
+			for (TimerTask<?>[] level: wheel) {
+				for (TimerTask<?> head: level) {
+					for (TimerTask<?> current = head; current != null; current = current.next) {
+						if (!current.isDone())
+							remaining.add(current);
+					}
+				}
+			}
+			for (TimerTask<?> current = pendingUpdater.getAndSet(this, null); current != null; current = current.next) {
+				if (!current.isDone())
+					remaining.add(current);
+			}
+			this.remaining = remaining;
+			releaseActive();
+			terminated.countDown();
+		}
+	}
+
+	/**
+	 * Moves newly added tasks into the wheel or submits them if they are already due.
+	 */
+	private void                    transferPending(long tick)
+	{
+		for (TimerTask<?> current = pendingUpdater.getAndSet(this, null), next; current != null; current = next) {
+			next = current.next;
+			if (current.isDone())
+				continue;
+			current.deadlineTick = ceilTick(current.deadline);
+			insert(current, tick);
+		}
+	}
+
+	/**
+	 * Removes cancelled tasks from the wheel.
+	 */
+	private void                    processCancelled()
+	{
+		for (TimerTask<?> current = cancelledUpdater.getAndSet(this, null), next; current != null; current = next) {
+			next = current.nextCancelled;
+			current.nextCancelled = null;
+			if (current.level >= 0)
+				unlink(current);
+		}
+	}
+
+	/**
+	 * Moves tasks from higher level slots reached by this tick to lower levels.
+	 */
+	private void                    cascade(long tick)
+	{
+		int levels = 0;
+		while (levels < LEVELS-1 && (tick&((1L<<(SLOT_BITS*(levels+1)))-1)) == 0)
+			++levels;
+		for (int level = levels; level > 0; --level) {
+			int slot = (int)((tick>>>(SLOT_BITS*level))&SLOT_MASK);
+			TimerTask<?> current = wheel[level][slot];
+			wheel[level][slot] = null;
+			for (TimerTask<?> next; current != null; current = next) {
+				next = current.next;
+				current.level = -1;
+				--count;
+				insert(current, tick);
+			}
+		}
+	}
+
+	/**
+	 * Submits the tasks in level 0 slot for this tick.
+	 */
+	private void                    expireSlot(long tick)
+	{
+		int slot = (int)(tick&SLOT_MASK);
+		TimerTask<?> current = wheel[0][slot];
+		wheel[0][slot] = null;
+		for (TimerTask<?> next; current != null; current = next) {
+			next = current.next;
+			current.level = -1;
+			current.next = null;
+			current.prev = null;
+			--count;
+			submit(current);
+		}
+	}
+
+	private void                    insert(TimerTask<?> task, long tick)
+	{
+		long delta = task.deadlineTick-tick;
+		if (delta <= 0) {
+			submit(task);
+			return;
+		}
+		int level = Math.min((63-Long.numberOfLeadingZeros(delta))/SLOT_BITS, LEVELS-1);
+		int slot = (int)((task.deadlineTick>>>(SLOT_BITS*level))&SLOT_MASK);
+		TimerTask<?> head = wheel[level][slot];
+		task.prev = null;
+		task.next = head;
+		if (head != null)
+			head.prev = task;
+		wheel[level][slot] = task;
+		task.level = level;
+		task.slot = slot;
+		++count;
+	}
+
+	private void                    unlink(TimerTask<?> task)
+	{
+		if (task.prev != null)
+			task.prev.next = task.next;
+		else
+			wheel[task.level][task.slot] = task.next;
+		if (task.next != null)
+			task.next.prev = task.prev;
+		task.prev = null;
+		task.next = null;
+		task.level = -1;
+		--count;
+	}
+
+	private void                    submit(TimerTask<?> task)
+	{
+		task.next = null;
+		// cannot fail, timer thread is counted as active:
+		acquireActive();
+		task.submitted = true;
+		try {
+			workerExecutor.execute(task);
+		}
+		catch (RuntimeException ex) {
+			task.submitted = false;
+			releaseActive();
+			logger.log(Level.SEVERE, "Failed to submit scheduled task to worker executor, cancelling "+task, ex);
+			task.cancel(false);
+		}
+	}
+
+	private long                    ceilTick(long deadline)
+	{
+		long relative = deadline-startTime;
+		return relative <= 0 ? 0 : relative/tickNanos+(relative%tickNanos != 0 ? 1 : 0);
+	}
+
+	/**
+	 * Scheduled task, serving also as node of the wheel.
+	 *
+	 * @param <V>
+	 *      type of result
+	 */
+	private static class TimerTask<V> extends AbstractScheduledFuture<V> implements RunnableFuture<V>
+	{
+		public                          TimerTask(TimingWheelScheduledExecutorService owner, Runnable runnable, V result, long deadline, long period)
+		{
+			this(owner, () -> { runnable.run(); return result; }, deadline, period);
+		}
+
+		public                          TimerTask(TimingWheelScheduledExecutorService owner, Callable<V> callable, long deadline, long period)
+		{
+			this.owner = owner;
+			this.callable = callable;
+			this.deadline = deadline;
+			this.period = period;
+		}
+
+		@Override
+		public long                     getDelay(TimeUnit unit)
+		{
+			return unit.convert(deadline-System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public boolean                  cancel(boolean interrupt)
+		{
+			if (!super.cancel(interrupt))
+				return false;
+			owner.enqueueCancelled(this);
+			return true;
+		}
+
+		@Override
+		protected void                  interruptTask()
+		{
+			Thread thread = myThread;
+			if (thread != null)
+				thread.interrupt();
+		}
+
+		@Override
+		public void                     run()
+		{
+			// reset before possible rescheduling, which submits the task again:
+			boolean counted = submitted;
+			submitted = false;
+			try {
+				runTask();
+			}
+			finally {
+				if (counted)
+					owner.releaseActive();
+			}
+		}
+
+		private void                    runTask()
+		{
+			try {
+				myThread = Thread.currentThread();
+				if (setRunning()) {
+					V result = callable.call();
+					myThread = null;
+					if (owner.cancelled) {
+						setCancelled();
+					}
+					else if (period == 0) {
+						set(result);
+					}
+					else if (setRestart()) {
+						if (owner.state != ST_RUNNING) {
+							cancel(false);
+						}
+						else {
+							deadline = period > 0 ? deadline+period : System.nanoTime()-period;
+							owner.enqueue(this);
+						}
+					}
+				}
+			}
+			catch (Throwable ex) {
+				myThread = null;
+				if (owner.cancelled)
+					setCancelled();
+				else
+					setException(ex);
+				if (ex instanceof Error)
+					throw (Error)ex;
+			}
+		}
+
+		@Override
+		public String                   toString()
+		{
+			return "TimerTask{callable="+callable+", deadline="+deadline+", period="+period+"}";
+		}
+
+		private final TimingWheelScheduledExecutorService owner;
+
+		private final Callable<V>       callable;
+
+		/** Deadline in {@link System#nanoTime()} units */
+		private volatile long           deadline;
+
+		/** Period, positive for fixed rate, negative for fixed delay, zero for one shot */
+		private final long              period;
+
+		/** Thread running the task */
+		private volatile Thread         myThread;
+
+		/** Indicator that the task was submitted to worker executor and counted as active */
+		private boolean                 submitted;
+
+		/** Tick of deadline, owned by timer thread */
+		private long                    deadlineTick;
+
+		/** Level in the wheel or -1 if not in the wheel, owned by timer thread */
+		private int                     level = -1;
+
+		/** Slot in the level, owned by timer thread */
+		private int                     slot;
+
+		/** Next node in pending stack or in slot */
+		private TimerTask<?>            next;
+
+		/** Previous node in slot, owned by timer thread */
+		private TimerTask<?>            prev;
+
+		/** Next node in cancelled stack */
+		private TimerTask<?>            nextCancelled;
+	}
+
+	private final Executor          workerExecutor;
+
+	private final long              tickNanos;
+
+	private final long              startTime;
+
+	private final ThreadFactory     threadFactory;
+
+	/** Timer thread, created once the first timer is scheduled */
+	private volatile Thread         worker;
+
+	/** Timer thread state, {@link #WS_INIT} until the first timer is scheduled */
+	private volatile int            workerState = WS_INIT;
+
+	private final TimerTask<?>[][]  wheel = new TimerTask<?>[LEVELS][1<<SLOT_BITS];
+
+	/** Number of tasks in the wheel, owned by timer thread */
+	private int                     count;
+
+	/** Indicator that the timer thread parks indefinitely */
+	private volatile boolean        idle;
+
+	/** Indicator that the timer thread finished or is about to finish, not accepting new tasks */
+	private volatile boolean        exited;
+
+	private volatile int            state = ST_RUNNING;
+
+	private volatile TimerTask<?>   pending;
+
+	private volatile TimerTask<?>   cancelledStack;
+
+	/** Tasks not run, collected by timer thread when it finishes */
+	private volatile List<Runnable> remaining;
+
+	/** Timer thread finished */
+	private final CountDownLatch    terminated = new CountDownLatch(1);
+
+	/** Number of tasks submitted to worker executor and not finished yet, plus one for running timer thread */
+	private volatile int            active = 1;
+
+	/** Timer thread and all submitted tasks finished */
+	private final CountDownLatch    allTerminated = new CountDownLatch(1);
+
+	/** Max delay, keeping the deadline differences in range of long */
+	private static final long       MAX_DELAY_NS                    = Long.MAX_VALUE>>1;
+
+	private static final int        SLOT_BITS                       = 6;
+	private static final int        SLOT_MASK                       = (1<<SLOT_BITS)-1;
+	private static final int        LEVELS                          = 11;
+
+	private static final int        ST_RUNNING                      = 0;
+	private static final int        ST_SHUTDOWN                     = 1;
+	private static final int        ST_STOP                         = 2;
+
+	private static final int        WS_INIT                         = 0;
+	private static final int        WS_STARTED                      = 1;
+	private static final int        WS_CLOSED                       = 2;
+
+	private static final AtomicIntegerFieldUpdater<TimingWheelScheduledExecutorService> activeUpdater = AtomicIntegerFieldUpdater.newUpdater(TimingWheelScheduledExecutorService.class, "active");
+	private static final AtomicIntegerFieldUpdater<TimingWheelScheduledExecutorService> stateUpdater = AtomicIntegerFieldUpdater.newUpdater(TimingWheelScheduledExecutorService.class, "state");
+	private static final AtomicIntegerFieldUpdater<TimingWheelScheduledExecutorService> workerStateUpdater = AtomicIntegerFieldUpdater.newUpdater(TimingWheelScheduledExecutorService.class, "workerState");
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<TimingWheelScheduledExecutorService, TimerTask> pendingUpdater = AtomicReferenceFieldUpdater.newUpdater(TimingWheelScheduledExecutorService.class, TimerTask.class, "pending");
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<TimingWheelScheduledExecutorService, TimerTask> cancelledUpdater = AtomicReferenceFieldUpdater.newUpdater(TimingWheelScheduledExecutorService.class, TimerTask.class, "cancelledStack");
+
+	private static final Logger     logger = Logger.getLogger(TimingWheelScheduledExecutorService.class.getName());
+}
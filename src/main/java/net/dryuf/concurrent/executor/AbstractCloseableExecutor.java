@@ -16,26 +16,42 @@
 
 package net.dryuf.concurrent.executor;
 
-import lombok.RequiredArgsConstructor;
-
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 
 /**
  * Closeable Executor which does not close, waiting for futures upon finish and closing associated resource.
+ *
+ * The number of pending executions can be limited, the behavior when the limit is reached is driven by
+ * {@link OverflowPolicy}.  Blocked callers are parked and served in FIFO order.
  */
-@RequiredArgsConstructor
 public abstract class AbstractCloseableExecutor implements CloseableExecutor
 {
 	static int PENDING_MAX = Integer.MAX_VALUE;
 
 	private final AutoCloseable resource;
 
+	private final int pendingMax;
+
+	private final OverflowPolicy overflowPolicy;
+
 	private volatile int pending = 0;
 
+	/** Threads blocked in execute, waiting for free slot, in FIFO order. */
+	private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+	/** Not started tasks, maintained only for {@link OverflowPolicy.Kind#DROP_OLDEST} policy. */
+	private final ConcurrentLinkedQueue<DroppableTask> queued;
+
+	/** Thread waiting in close for pending executions. */
+	private volatile Thread closer;
+
 	private static final AtomicIntegerFieldUpdater<AbstractCloseableExecutor> PENDING_UPDATER =
 		AtomicIntegerFieldUpdater.newUpdater(AbstractCloseableExecutor.class, "pending");
 
@@ -44,70 +60,252 @@ public abstract class AbstractCloseableExecutor implements CloseableExecutor
 		this(null);
 	}
 
+	protected AbstractCloseableExecutor(AutoCloseable resource)
+	{
+		this(resource, PENDING_MAX, OverflowPolicy.block());
+	}
+
+	/**
+	 * Constructs the executor with associated resource, limit of pending executions and overflow policy.
+	 *
+	 * @param resource
+	 * 	associated resource, to be closed after executor is closed.
+	 * @param pendingMax
+	 * 	maximum number of pending executions
+	 * @param overflowPolicy
+	 * 	policy applied when pendingMax is reached
+	 */
+	protected AbstractCloseableExecutor(AutoCloseable resource, int pendingMax, OverflowPolicy overflowPolicy)
+	{
+		if (pendingMax <= 0)
+			throw new IllegalArgumentException("pendingMax must be positive: "+pendingMax);
+		this.resource = resource;
+		this.pendingMax = pendingMax;
+		this.overflowPolicy = overflowPolicy;
+		this.queued = overflowPolicy.getKind() == OverflowPolicy.Kind.DROP_OLDEST ? new ConcurrentLinkedQueue<>() : null;
+	}
+
 	@Override
 	public void execute(Runnable runnable)
+	{
+		if (acquire()) {
+			submitAcquired(runnable);
+		}
+		else {
+			try {
+				runnable.run();
+			}
+			finally {
+				release();
+			}
+		}
+	}
+
+	/**
+	 * Acquires slot for execution, applying overflow policy.
+	 *
+	 * @return
+	 * 	true if the slot was acquired for submission, false if the slot was acquired for running in caller thread.
+	 */
+	private boolean acquire()
 	{
 		for (;;) {
 			int old = pending;
-			if ((old&Integer.MAX_VALUE) == PENDING_MAX) {
-				synchronized (this) {
-					if ((pending&Integer.MAX_VALUE) == PENDING_MAX) {
-						try {
-							do {
-								wait();
-								old = pending;
-							} while ((old&Integer.MAX_VALUE) == PENDING_MAX);
-							if ((old&Integer.MIN_VALUE) != 0) {
-								notifyAll();
-								throw new RejectedExecutionException("Executor closed");
-							}
-							// Notify other threads if there is room for more executions:
-							if (PENDING_UPDATER.compareAndSet(this, old, old+1)) {
-								if (old+1 < PENDING_MAX) {
-									notify();
-								}
-								break;
-							}
-							else {
-								notify();
-							}
-						}
-						catch (InterruptedException e) {
-							throw new RejectedExecutionException(e);
-						}
+			if ((old&Integer.MIN_VALUE) != 0) {
+				throw new RejectedExecutionException("Executor closed");
+			}
+			else if ((old&Integer.MAX_VALUE) < pendingMax) {
+				if (!waiters.isEmpty()) {
+					// do not barge ahead of blocked callers, keep FIFO order
+					awaitSlot(overflowPolicy.getKind() == OverflowPolicy.Kind.BLOCK ? overflowPolicy.getTimeoutNanos() : -1);
+					return true;
+				}
+				if (PENDING_UPDATER.compareAndSet(this, old, old+1)) {
+					break;
+				}
+			}
+			else {
+				switch (overflowPolicy.getKind()) {
+				case FAIL:
+					throw new RejectedExecutionException("Executor full, pending: "+pendingMax);
+
+				case CALLER_RUNS:
+					if (PENDING_UPDATER.compareAndSet(this, old, old+1)) {
+						return false;
 					}
+					break;
+
+				case DROP_OLDEST:
+					if (dropOldest()) {
+						break;
+					}
+					// all pending tasks already running, wait for them
+					awaitSlot(-1);
+					return true;
+
+				case BLOCK:
+					awaitSlot(overflowPolicy.getTimeoutNanos());
+					return true;
+
+				default:
+					throw new IllegalStateException("Unexpected overflow policy: "+overflowPolicy);
 				}
 			}
-			else if ((old&Integer.MIN_VALUE) != 0) {
+		}
+		return true;
+	}
+
+	/**
+	 * Submits the runnable only if the slot is available immediately, without applying overflow policy.  Used for
+	 * handing off from tasks already running on this executor, which must not block nor run inline.
+	 *
+	 * @param runnable
+	 * 	task to execute
+	 *
+	 * @return
+	 * 	true if submitted, false if there is no free slot or other callers are waiting for it.
+	 *
+	 * @throws RejectedExecutionException
+	 * 	if the executor is closed or underlying executor rejects the task
+	 */
+	boolean tryExecute(Runnable runnable)
+	{
+		for (;;) {
+			int old = pending;
+			if ((old&Integer.MIN_VALUE) != 0) {
 				throw new RejectedExecutionException("Executor closed");
 			}
-			else if (PENDING_UPDATER.compareAndSet(this, old, old+1)) {
+			if ((old&Integer.MAX_VALUE) >= pendingMax || !waiters.isEmpty()) {
+				return false;
+			}
+			if (PENDING_UPDATER.compareAndSet(this, old, old+1)) {
 				break;
 			}
 		}
+		submitAcquired(runnable);
+		return true;
+	}
+
+	/**
+	 * Submits the task to underlying executor, the slot is already acquired.
+	 */
+	private void submitAcquired(Runnable runnable)
+	{
 		try {
-			execute0(() -> {
-				try {
-					runnable.run();
+			if (queued != null) {
+				DroppableTask task = new DroppableTask(runnable);
+				queued.add(task);
+				execute0(task);
+			}
+			else {
+				execute0(() -> {
+					try {
+						runnable.run();
+					}
+					finally {
+						release();
+					}
+				});
+			}
+		}
+		catch (Throwable ex) {
+			release();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Waits in FIFO order until there is free slot and acquires it.
+	 *
+	 * @param timeoutNanos
+	 * 	maximum time to wait, negative for unlimited
+	 */
+	private void awaitSlot(long timeoutNanos)
+	{
+		Thread current = Thread.currentThread();
+		long deadline = timeoutNanos < 0 ? 0 : System.nanoTime()+timeoutNanos;
+		waiters.add(current);
+		try {
+			for (;;) {
+				int old = pending;
+				if ((old&Integer.MIN_VALUE) != 0) {
+					throw new RejectedExecutionException("Executor closed");
 				}
-				finally {
-					int old = PENDING_UPDATER.getAndDecrement(this);
-					if ((old&Integer.MIN_VALUE) != 0 || (old&Integer.MAX_VALUE) == PENDING_MAX) {
-						synchronized (this) {
-							this.notify();
-						}
+				if ((old&Integer.MAX_VALUE) < pendingMax && waiters.peek() == current) {
+					if (PENDING_UPDATER.compareAndSet(this, old, old+1)) {
+						return;
 					}
+					continue;
+				}
+				if (timeoutNanos < 0) {
+					LockSupport.park(this);
+				}
+				else {
+					long remaining = deadline-System.nanoTime();
+					if (remaining <= 0) {
+						throw new RejectedExecutionException("Executor full, timed out waiting for slot");
+					}
+					LockSupport.parkNanos(this, remaining);
+				}
+				if (Thread.interrupted()) {
+					current.interrupt();
+					throw new RejectedExecutionException(new InterruptedException());
 				}
-			});
+			}
 		}
-		catch (Throwable ex) {
-			int old = PENDING_UPDATER.getAndDecrement(this);
-			if ((old&Integer.MIN_VALUE) != 0 || (old&Integer.MAX_VALUE) == PENDING_MAX) {
-				synchronized (this) {
-					this.notify();
+		finally {
+			waiters.remove(current);
+			signalWaiter();
+		}
+	}
+
+	/**
+	 * Wakes up first waiter, if there is any and there is free slot or the executor is closed.
+	 */
+	private void signalWaiter()
+	{
+		Thread waiter = waiters.peek();
+		if (waiter != null) {
+			int current = pending;
+			if ((current&Integer.MIN_VALUE) != 0 || (current&Integer.MAX_VALUE) < pendingMax) {
+				LockSupport.unpark(waiter);
+			}
+		}
+	}
+
+	/**
+	 * Drops the oldest not started task and releases its slot.
+	 *
+	 * @return
+	 * 	true if a task was dropped, false if there was no task to drop.
+	 */
+	private boolean dropOldest()
+	{
+		for (DroppableTask task; (task = queued.poll()) != null; ) {
+			if (task.drop()) {
+				release();
+				if (task.runnable instanceof Future) {
+					((Future<?>) task.runnable).cancel(false);
 				}
+				return true;
 			}
-			throw ex;
+		}
+		return false;
+	}
+
+	/**
+	 * Releases the slot of finished execution.
+	 */
+	private void release()
+	{
+		int old = PENDING_UPDATER.getAndDecrement(this);
+		if ((old&Integer.MIN_VALUE) != 0) {
+			if ((old&Integer.MAX_VALUE) == 1) {
+				LockSupport.unpark(closer);
+			}
+		}
+		else if (!waiters.isEmpty()) {
+			signalWaiter();
 		}
 	}
 
@@ -116,8 +314,24 @@ public abstract class AbstractCloseableExecutor implements CloseableExecutor
 	@Override
 	public <T> CompletableFuture<T> submit(Callable<T> callable)
 	{
-		CompletableFutureTask<T> task = new CompletableFutureTask<>(callable);
-		execute(task);
+		if (queued != null) {
+			CompletableFutureTask<T> task = new CompletableFutureTask<>(callable);
+			execute(task);
+			return task;
+		}
+		ReleasingTask<T> task = new ReleasingTask<>(callable);
+		if (acquire()) {
+			try {
+				execute0(task);
+			}
+			catch (Throwable ex) {
+				release();
+				throw ex;
+			}
+		}
+		else {
+			task.run();
+		}
 		return task;
 	}
 
@@ -133,22 +347,16 @@ public abstract class AbstractCloseableExecutor implements CloseableExecutor
 		try {
 			int old = PENDING_UPDATER.getAndUpdate(this, v -> v|Integer.MIN_VALUE);
 			if ((old&Integer.MIN_VALUE) == 0) {
-				synchronized (this) {
-					for (;;) {
-						if ((pending&Integer.MAX_VALUE) != 0) {
-							try {
-								wait();
-								// Notify execute waiting for a slot (should not happen
-								// unless there is close and execute in parallel)
-								notify();
-							}
-							catch (InterruptedException ex) {
-								interrupted = true;
-							}
-						}
-						else {
-							break;
-						}
+				// Only the winner is the closer, the pending count is rechecked after publishing it:
+				closer = Thread.currentThread();
+				// Reject callers waiting for a slot:
+				for (Thread waiter: waiters) {
+					LockSupport.unpark(waiter);
+				}
+				while ((pending&Integer.MAX_VALUE) != 0) {
+					LockSupport.park(this);
+					if (Thread.interrupted()) {
+						interrupted = true;
 					}
 				}
 				return true;
@@ -194,4 +402,73 @@ public abstract class AbstractCloseableExecutor implements CloseableExecutor
 		}
 	}
 
+	/**
+	 * Task which can be dropped before it is started.
+	 */
+	private class DroppableTask implements Runnable
+	{
+		private final Runnable runnable;
+
+		volatile int state;
+
+		public DroppableTask(Runnable runnable)
+		{
+			this.runnable = runnable;
+		}
+
+		/**
+		 * Marks the task as dropped.
+		 *
+		 * @return
+		 * 	true if the task was dropped, false if it was already started.
+		 */
+		public boolean drop()
+		{
+			return DROPPABLE_STATE_UPDATER.compareAndSet(this, 0, 2);
+		}
+
+		@Override
+		public void run()
+		{
+			if (!DROPPABLE_STATE_UPDATER.compareAndSet(this, 0, 1)) {
+				// dropped, the slot was already released
+				return;
+			}
+			try {
+				// Remove started tasks from head, typically including this one:
+				for (DroppableTask head; (head = queued.peek()) != null && head.state != 0; ) {
+					queued.remove(head);
+				}
+				runnable.run();
+			}
+			finally {
+				release();
+			}
+		}
+	}
+
+	/**
+	 * Task releasing the slot once finished, avoiding separate wrapper.
+	 */
+	private class ReleasingTask<T> extends CompletableFutureTask<T>
+	{
+		public ReleasingTask(Callable<T> callable)
+		{
+			super(callable);
+		}
+
+		@Override
+		public void run()
+		{
+			try {
+				super.run();
+			}
+			finally {
+				release();
+			}
+		}
+	}
+
+	private static final AtomicIntegerFieldUpdater<DroppableTask> DROPPABLE_STATE_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater(DroppableTask.class, "state");
 }
@@ -1,16 +1,23 @@
 package net.dryuf.concurrent.executor;
 
-import lombok.AllArgsConstructor;
 import net.dryuf.concurrent.FutureUtil;
+import net.dryuf.concurrent.HashedWheelTimer;
+import net.dryuf.concurrent.SharedScheduledExecutorInstance;
 import net.dryuf.concurrent.function.ThrowingFunction;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToLongFunction;
 
 
 /**
@@ -26,6 +33,21 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
  *         // at this point, all executions are finished (successfully or not), underlying executor closed if closeable
  * </pre>
  *
+ * Optionally, the items are accumulated until either minimal batch size is reached or linger time elapses since the
+ * first item, similarly to Kafka producer linger.ms.  This trades latency for larger batches under light load.  The
+ * linger is timed by {@link SharedScheduledExecutorInstance#getTimer()}.
+ *
+ * Optionally, the items are weighed (typically by their serialized size) and the batches are cut so their total weight
+ * does not exceed max batch weight, with single item exceeding the limit sent alone.  The total weight of pending items
+ * is limited as well, blocking the producers.
+ *
+ * Optionally, the number of batches in flight is limited, a batch being in flight until all futures returned by
+ * processor complete.  Further batches are held pending until earlier ones finish, pipelining the asynchronous processor
+ * calls with bounded concurrency.
+ *
+ * The pending items are kept in lock-free queue of fixed size chunks.  Producers claim the slot by single
+ * fetch-and-add, the consumer passes the chunk ranges to processor as {@link List} views, without copying.
+ *
  * @param <T>
  *	work item
  * @param <R>
@@ -35,24 +57,106 @@ public class BatchWorkExecutor<T, R> implements WorkExecutor<T, R>
 {
 	static int PENDING_MAX = Integer.MAX_VALUE;
 
+	static final int CHUNK_MIN = 64;
+
+	static final int CHUNK_MAX = 1024;
+
+	private static final int ST_PHASE = 3;
+	private static final int PH_IDLE = 0;
+	private static final int PH_LINGERING = 1;
+	private static final int PH_RUNNING = 2;
+	private static final int ST_CLOSED = 4;
+	private static final int ST_GENERATION_INC = 8;
+
 	private final CloseableExecutor executor;
 
 	private final ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor;
 
 	private final int batchSize;
 
-	private volatile Node<T, R> pending;
+	private final int minBatchSize;
+
+	private final long lingerNs;
+
+	private final ToLongFunction<? super T> weigher;
+
+	private final long maxBatchWeight;
+
+	private final long maxPendingWeight;
+
+	private final int maxInFlight;
+
+	private final int chunkSize;
+
+	private final Runnable batchStarterTask = this::batchStarter;
+
+	/** Chunk being filled by producers. */
+	private volatile Chunk<T, R> tail;
+
+	/** Chunk being read by consumer, accessed by consumer only. */
+	private Chunk<T, R> head;
+
+	/** Next index to read in head chunk, accessed by consumer only. */
+	private int headIndex = 0;
+
+	/** Position of next item to be consumed. */
+	private volatile long consumed = 0;
+
+	/** Total weight of submitted items. */
+	private volatile long submittedWeight = 0;
+
+	/** Total weight of consumed items. */
+	private volatile long consumedWeight = 0;
 
-	/** Number of batchStarter operations in progress.  Or-ed by Integer.MIN_VALUE if close is waiting. */
-	private volatile int batchPending = 0;
+	/** Position of claimed but not yet published item the suspended consumer waits for, -1 if none. */
+	private volatile long stalled = -1;
+
+	/** Number of batches in flight shifted left by one, or-ed by 1 if consumer is suspended waiting for a finish. */
+	private volatile int inFlight = 0;
+
+	/** Timer entry of current or last linger generation, cancelled once the batch is flushed. */
+	volatile Linger linger;
+
+	/** Number of producers between closed check and starting the consumer, close waits for them. */
+	private volatile int producers = 0;
+
+	/** Consumer phase, or-ed by ST_CLOSED if closed, upper bits counting linger generations. */
+	private volatile int state = PH_IDLE;
+
+	/** Producers waiting for pending limits and closing thread. */
+	private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
 
 	@SuppressWarnings("rawtypes")
-	private static final AtomicReferenceFieldUpdater<BatchWorkExecutor, Node> PENDING_UPDATER =
-		AtomicReferenceFieldUpdater.newUpdater(BatchWorkExecutor.class, Node.class, "pending");
+	private static final AtomicReferenceFieldUpdater<BatchWorkExecutor, Chunk> TAIL_UPDATER =
+		AtomicReferenceFieldUpdater.newUpdater(BatchWorkExecutor.class, Chunk.class, "tail");
 
 	@SuppressWarnings("rawtypes")
-	private static final AtomicIntegerFieldUpdater<BatchWorkExecutor> BATCH_PENDING_UPDATER =
-		AtomicIntegerFieldUpdater.newUpdater(BatchWorkExecutor.class, "batchPending");
+	private static final AtomicLongFieldUpdater<BatchWorkExecutor> SUBMITTED_WEIGHT_UPDATER =
+		AtomicLongFieldUpdater.newUpdater(BatchWorkExecutor.class, "submittedWeight");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicLongFieldUpdater<BatchWorkExecutor> STALLED_UPDATER =
+		AtomicLongFieldUpdater.newUpdater(BatchWorkExecutor.class, "stalled");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<BatchWorkExecutor> IN_FLIGHT_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater(BatchWorkExecutor.class, "inFlight");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<BatchWorkExecutor, Linger> LINGER_UPDATER =
+		AtomicReferenceFieldUpdater.newUpdater(BatchWorkExecutor.class, Linger.class, "linger");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<BatchWorkExecutor> PRODUCERS_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater(BatchWorkExecutor.class, "producers");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<BatchWorkExecutor.InFlightBatch> IN_FLIGHT_REMAINING_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater(BatchWorkExecutor.InFlightBatch.class, "remaining");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<BatchWorkExecutor> STATE_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater(BatchWorkExecutor.class, "state");
 
 	/**
 	 * Creates instance from {@link ExecutorService}, not shutting it down upon close.
@@ -81,174 +185,728 @@ public class BatchWorkExecutor<T, R> implements WorkExecutor<T, R>
 	 */
 	public BatchWorkExecutor(CloseableExecutor executor, int batchSize, ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor)
 	{
+		this(executor, batchSize, 1, 0, TimeUnit.NANOSECONDS, processor);
+	}
+
+	/**
+	 * Creates instance from {@link ExecutorService}, not shutting it down upon close, limiting batches in flight.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param batchSize
+	 * 	max number of work items sent at once to processor
+	 * @param maxInFlight
+	 * 	max number of batches with processor futures not completed yet
+	 * @param processor
+	 * 	processing function
+	 */
+	public BatchWorkExecutor(ExecutorService executor, int batchSize, int maxInFlight, ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor)
+	{
+		this(new NotClosingExecutor(executor), batchSize, maxInFlight, processor);
+	}
+
+	/**
+	 * Creates instance from {@link CloseableExecutor}, closing it upon close, limiting batches in flight.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param batchSize
+	 * 	max number of work items sent at once to processor
+	 * @param maxInFlight
+	 * 	max number of batches with processor futures not completed yet
+	 * @param processor
+	 * 	processing function
+	 */
+	public BatchWorkExecutor(CloseableExecutor executor, int batchSize, int maxInFlight, ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor)
+	{
+		this(executor, batchSize, null, Long.MAX_VALUE, Long.MAX_VALUE, 1, 0, TimeUnit.NANOSECONDS, maxInFlight, processor);
+	}
+
+	/**
+	 * Creates instance from {@link ExecutorService}, not shutting it down upon close, accumulating items.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param batchSize
+	 * 	max number of work items sent at once to processor
+	 * @param minBatchSize
+	 * 	number of pending work items which starts the processing immediately
+	 * @param linger
+	 * 	max time to wait for minBatchSize items since the first pending item
+	 * @param lingerUnit
+	 * 	unit of linger
+	 * @param processor
+	 * 	processing function
+	 */
+	public BatchWorkExecutor(ExecutorService executor, int batchSize, int minBatchSize, long linger, TimeUnit lingerUnit, ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor)
+	{
+		this(new NotClosingExecutor(executor), batchSize, minBatchSize, linger, lingerUnit, processor);
+	}
+
+	/**
+	 * Creates instance from {@link CloseableExecutor}, closing it upon close, accumulating items.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param batchSize
+	 * 	max number of work items sent at once to processor
+	 * @param minBatchSize
+	 * 	number of pending work items which starts the processing immediately
+	 * @param linger
+	 * 	max time to wait for minBatchSize items since the first pending item
+	 * @param lingerUnit
+	 * 	unit of linger
+	 * @param processor
+	 * 	processing function
+	 */
+	public BatchWorkExecutor(CloseableExecutor executor, int batchSize, int minBatchSize, long linger, TimeUnit lingerUnit, ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor)
+	{
+		this(executor, batchSize, null, Long.MAX_VALUE, Long.MAX_VALUE, minBatchSize, linger, lingerUnit, processor);
+	}
+
+	/**
+	 * Creates instance from {@link ExecutorService}, not shutting it down upon close, limiting batches by weight.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param batchSize
+	 * 	max number of work items sent at once to processor
+	 * @param weigher
+	 * 	function calculating weight of work item, must be non-negative, null for no weighing
+	 * @param maxBatchWeight
+	 * 	max total weight of work items sent at once to processor, single heavier item is sent alone
+	 * @param maxPendingWeight
+	 * 	max total weight of pending work items, producers are blocked when exceeded
+	 * @param minBatchSize
+	 * 	number of pending work items which starts the processing immediately
+	 * @param linger
+	 * 	max time to wait for minBatchSize items since the first pending item
+	 * @param lingerUnit
+	 * 	unit of linger
+	 * @param processor
+	 * 	processing function
+	 */
+	public BatchWorkExecutor(ExecutorService executor, int batchSize, ToLongFunction<? super T> weigher, long maxBatchWeight, long maxPendingWeight, int minBatchSize, long linger, TimeUnit lingerUnit, ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor)
+	{
+		this(new NotClosingExecutor(executor), batchSize, weigher, maxBatchWeight, maxPendingWeight, minBatchSize, linger, lingerUnit, processor);
+	}
+
+	/**
+	 * Creates instance from {@link CloseableExecutor}, closing it upon close, limiting batches by weight.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param batchSize
+	 * 	max number of work items sent at once to processor
+	 * @param weigher
+	 * 	function calculating weight of work item, must be non-negative, null for no weighing
+	 * @param maxBatchWeight
+	 * 	max total weight of work items sent at once to processor, single heavier item is sent alone
+	 * @param maxPendingWeight
+	 * 	max total weight of pending work items, producers are blocked when exceeded
+	 * @param minBatchSize
+	 * 	number of pending work items which starts the processing immediately
+	 * @param linger
+	 * 	max time to wait for minBatchSize items since the first pending item
+	 * @param lingerUnit
+	 * 	unit of linger
+	 * @param processor
+	 * 	processing function
+	 */
+	public BatchWorkExecutor(CloseableExecutor executor, int batchSize, ToLongFunction<? super T> weigher, long maxBatchWeight, long maxPendingWeight, int minBatchSize, long linger, TimeUnit lingerUnit, ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor)
+	{
+		this(executor, batchSize, weigher, maxBatchWeight, maxPendingWeight, minBatchSize, linger, lingerUnit, Integer.MAX_VALUE, processor);
+	}
+
+	/**
+	 * Creates instance from {@link ExecutorService}, not shutting it down upon close, with all options.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param batchSize
+	 * 	max number of work items sent at once to processor
+	 * @param weigher
+	 * 	function calculating weight of work item, must be non-negative, null for no weighing
+	 * @param maxBatchWeight
+	 * 	max total weight of work items sent at once to processor, single heavier item is sent alone
+	 * @param maxPendingWeight
+	 * 	max total weight of pending work items, producers are blocked when exceeded
+	 * @param minBatchSize
+	 * 	number of pending work items which starts the processing immediately
+	 * @param linger
+	 * 	max time to wait for minBatchSize items since the first pending item
+	 * @param lingerUnit
+	 * 	unit of linger
+	 * @param maxInFlight
+	 * 	max number of batches with processor futures not completed yet, Integer.MAX_VALUE for unlimited
+	 * @param processor
+	 * 	processing function
+	 */
+	public BatchWorkExecutor(ExecutorService executor, int batchSize, ToLongFunction<? super T> weigher, long maxBatchWeight, long maxPendingWeight, int minBatchSize, long linger, TimeUnit lingerUnit, int maxInFlight, ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor)
+	{
+		this(new NotClosingExecutor(executor), batchSize, weigher, maxBatchWeight, maxPendingWeight, minBatchSize, linger, lingerUnit, maxInFlight, processor);
+	}
+
+	/**
+	 * Creates instance from {@link CloseableExecutor}, closing it upon close, with all options.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param batchSize
+	 * 	max number of work items sent at once to processor
+	 * @param weigher
+	 * 	function calculating weight of work item, must be non-negative, null for no weighing
+	 * @param maxBatchWeight
+	 * 	max total weight of work items sent at once to processor, single heavier item is sent alone
+	 * @param maxPendingWeight
+	 * 	max total weight of pending work items, producers are blocked when exceeded
+	 * @param minBatchSize
+	 * 	number of pending work items which starts the processing immediately
+	 * @param linger
+	 * 	max time to wait for minBatchSize items since the first pending item
+	 * @param lingerUnit
+	 * 	unit of linger
+	 * @param maxInFlight
+	 * 	max number of batches with processor futures not completed yet, Integer.MAX_VALUE for unlimited
+	 * @param processor
+	 * 	processing function
+	 */
+	public BatchWorkExecutor(CloseableExecutor executor, int batchSize, ToLongFunction<? super T> weigher, long maxBatchWeight, long maxPendingWeight, int minBatchSize, long linger, TimeUnit lingerUnit, int maxInFlight, ThrowingFunction<List<T>, List<CompletableFuture<R>>, Exception> processor)
+	{
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("maxInFlight must be positive: "+maxInFlight);
+		}
 		this.executor = executor;
+		this.maxInFlight = maxInFlight;
 		this.batchSize = batchSize;
+		this.weigher = weigher;
+		this.maxBatchWeight = maxBatchWeight;
+		this.maxPendingWeight = maxPendingWeight;
+		this.minBatchSize = minBatchSize;
+		this.lingerNs = lingerUnit.toNanos(linger);
 		this.processor = processor;
+		this.chunkSize = Math.min(Math.max(batchSize, CHUNK_MIN), CHUNK_MAX);
+		this.tail = new Chunk<>(0, chunkSize, weigher != null);
+		this.head = tail;
 	}
 
 	@Override
 	public CompletableFuture<R> submit(T work)
 	{
-		boolean interrupted = false;
+		// registered before the closed check, so close waits until the item is claimed and consumer started:
+		PRODUCERS_UPDATER.getAndIncrement(this);
+		CompletableFuture<R> future = new CompletableFuture<>();
+		long position, weightStart = 0, weight = 0;
 		try {
-			CompletableFuture<R> future = new CompletableFuture<>();
-			for (;;) {
-				Node<T, R> oldPending = pending;
-				if (oldPending != null && oldPending.count == PENDING_MAX) {
-					synchronized (this) {
-						oldPending = pending;
-						if (oldPending != null && oldPending.count == PENDING_MAX) {
-							try {
-								wait();
-							}
-							catch (InterruptedException e) {
-								interrupted = true;
-							}
-						}
-						continue;
-					}
+			if ((state&ST_CLOSED) != 0) {
+				throw new RejectedExecutionException("Executor closed");
+			}
+			if (weigher != null) {
+				weight = weigher.applyAsLong(work);
+				if (weight < 0) {
+					throw new IllegalArgumentException("Weight must be non-negative: "+weight);
 				}
-				Node<T, R> node = new Node<>(oldPending != null ? oldPending.count+1 : 1, oldPending, work, future);
-				if (PENDING_UPDATER.compareAndSet(this, oldPending, node)) {
-					if (oldPending == null) {
-						for (;;) {
-							int old = batchPending;
-							if ((old&Integer.MIN_VALUE) != 0) {
-								throw new RejectedExecutionException("Executor closed");
-							}
-							if (BATCH_PENDING_UPDATER.compareAndSet(this, old, old+1)) {
-								break;
-							}
-						}
-						executor.execute(this::batchStarter);
+				weightStart = SUBMITTED_WEIGHT_UPDATER.getAndAdd(this, weight);
+			}
+			for (Chunk<T, R> chunk = tail; ; chunk = nextChunk(chunk)) {
+				int index = Chunk.CLAIMED_UPDATER.getAndIncrement(chunk);
+				if (index < chunk.works.length) {
+					chunk.works[index] = work;
+					if (chunk.weights != null) {
+						chunk.weights[index] = weight;
 					}
+					chunk.futures.set(index, future);
+					position = chunk.base+index;
 					break;
 				}
 			}
-			return future;
+			if (stalled == position && STALLED_UPDATER.compareAndSet(this, position, -1)) {
+				// consumer gave up waiting for this item, continue it:
+				executor.execute(batchStarterTask);
+			}
+			startConsumer(position, weightStart+weight);
 		}
 		finally {
-			if (interrupted) {
-				Thread.currentThread().interrupt();
+			if (PRODUCERS_UPDATER.decrementAndGet(this) == 0 && (state&ST_CLOSED) != 0 && !waiters.isEmpty()) {
+				signalWaiters();
 			}
 		}
+		if (isOverPending(position, weightStart)) {
+			awaitConsumed(position, weightStart);
+		}
+		return future;
 	}
 
 	@Override
 	public void close()
 	{
-		boolean interrupted = false;
 		for (;;) {
-			int old = batchPending;
-			if ((old&Integer.MAX_VALUE) == 0) {
-				if (BATCH_PENDING_UPDATER.compareAndSet(this, old, Integer.MIN_VALUE)) {
+			int old = state;
+			if ((old&ST_CLOSED) != 0) {
+				break;
+			}
+			if ((old&ST_PHASE) == PH_LINGERING) {
+				if (STATE_UPDATER.compareAndSet(this, old, (old&~ST_PHASE)|PH_RUNNING|ST_CLOSED)) {
+					cancelLinger(old);
+					executor.execute(batchStarterTask);
 					break;
 				}
 			}
-			else {
-				if (BATCH_PENDING_UPDATER.compareAndSet(this, old, old | Integer.MIN_VALUE)) {
-					synchronized (this) {
-						if ((batchPending&Integer.MAX_VALUE) != 0) {
-							try {
-								wait();
-							}
-							catch (InterruptedException e) {
-								interrupted = true;
-							}
-						}
-					}
+			else if (STATE_UPDATER.compareAndSet(this, old, old|ST_CLOSED)) {
+				break;
+			}
+		}
+		Thread current = Thread.currentThread();
+		boolean interrupted = false;
+		waiters.add(current);
+		try {
+			while (producers != 0 || (state&ST_PHASE) != PH_IDLE || pendingEnd() != consumed) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					interrupted = true;
 				}
 			}
 		}
+		finally {
+			waiters.remove(current);
+		}
 		executor.close();
 		if (interrupted) {
 			Thread.currentThread().interrupt();
 		}
 	}
 
-	private void batchStarter()
+	private Chunk<T, R> nextChunk(Chunk<T, R> chunk)
 	{
-		@SuppressWarnings("unchecked")
-		Node<T, R> last = PENDING_UPDATER.getAndSet(this, null);
-		try {
-			int size = 0;
-			for (Node<T, R> n = last; n != null; ++size, n = n.next) ;
-			@SuppressWarnings({ "unchecked", "rawtypes" })
-			List<T> works = (List) Arrays.asList(new Object[size]);
-			@SuppressWarnings("unchecked")
-			List<CompletableFuture<R>> futures = Arrays.asList(new CompletableFuture[size]);
-			{
-				int i = size-1;
-				for (Node<T, R> n = last; n != null; n = n.next, --i) {
-					works.set(i, n.work);
-					futures.set(i, n.future);
+		Chunk<T, R> next = chunk.next;
+		if (next == null) {
+			Chunk<T, R> created = new Chunk<>(chunk.base+chunk.works.length, chunkSize, chunk.weights != null);
+			next = Chunk.NEXT_UPDATER.compareAndSet(chunk, null, created) ? created : chunk.next;
+		}
+		TAIL_UPDATER.compareAndSet(this, chunk, next);
+		return next;
+	}
+
+	/**
+	 * Gets position after the last claimed item.
+	 */
+	private long pendingEnd()
+	{
+		Chunk<T, R> chunk = tail;
+		return chunk.base+Math.min(chunk.claimed, chunk.works.length);
+	}
+
+	/**
+	 * Checks whether the pending items before the item exceed the limits.
+	 *
+	 * @param position
+	 * 	position of the item
+	 * @param weightStart
+	 * 	total weight of items submitted before the item
+	 */
+	private boolean isOverPending(long position, long weightStart)
+	{
+		return position-consumed >= PENDING_MAX || weightStart-consumedWeight >= maxPendingWeight;
+	}
+
+	/**
+	 * Checks whether the lingering items are sufficient to start processing.
+	 *
+	 * @param position
+	 * 	position of the last submitted item
+	 * @param weightEnd
+	 * 	total weight of items submitted up to the last item
+	 */
+	private boolean isLingerComplete(long position, long weightEnd)
+	{
+		return position+1-consumed >= Math.min(minBatchSize, PENDING_MAX) ||
+			weightEnd-consumedWeight >= Math.min(maxBatchWeight, maxPendingWeight);
+	}
+
+	/**
+	 * Starts consumer, if not running yet, or starts lingering if configured.
+	 *
+	 * @param position
+	 * 	position of the last submitted item
+	 * @param weightEnd
+	 * 	total weight of items submitted up to the last item
+	 */
+	private void startConsumer(long position, long weightEnd)
+	{
+		for (;;) {
+			int old = state;
+			switch (old&ST_PHASE) {
+			case PH_IDLE:
+				if (lingerNs > 0 && minBatchSize > 1 && (old&ST_CLOSED) == 0) {
+					int lingering = ((old+ST_GENERATION_INC)&~ST_PHASE)|PH_LINGERING;
+					if (STATE_UPDATER.compareAndSet(this, old, lingering)) {
+						if (isLingerComplete(position, weightEnd)) {
+							flushLingering(lingering);
+						}
+						else {
+							registerLinger(new Linger(lingering, SharedScheduledExecutorInstance.getTimer().newTimeout(
+								() -> flushLingering(lingering),
+								lingerNs,
+								TimeUnit.NANOSECONDS
+							)));
+						}
+						return;
+					}
+				}
+				else if (STATE_UPDATER.compareAndSet(this, old, (old&~ST_PHASE)|PH_RUNNING)) {
+					executor.execute(batchStarterTask);
+					return;
 				}
+				break;
+
+			case PH_LINGERING:
+				if (isLingerComplete(position, weightEnd)) {
+					flushLingering(old);
+				}
+				return;
+
+			default:
+				return;
 			}
-			for (int i = batchSize; i < size; i += batchSize) {
-				int s = i, e = Math.min(i+batchSize, size);
-				executor.execute(() -> runBatch(works.subList(s, e), futures.subList(s, e)));
+		}
+	}
+
+	private void flushLingering(int lingering)
+	{
+		if (STATE_UPDATER.compareAndSet(this, lingering, (lingering&~ST_PHASE)|PH_RUNNING)) {
+			cancelLinger(lingering);
+			executor.execute(batchStarterTask);
+		}
+	}
+
+	/**
+	 * Publishes timer entry of linger generation, unless newer generation is already published.  If the generation
+	 * was flushed meanwhile, the entry is cancelled by this thread.
+	 */
+	private void registerLinger(Linger registered)
+	{
+		for (;;) {
+			Linger old = linger;
+			if (old != null && old.lingering-registered.lingering > 0) {
+				registered.timeout.cancel();
+				return;
 			}
-			{
-				int s = 0, e = Math.min(batchSize, works.size());
-				runBatch(works.subList(s, e), futures.subList(s, e));
+			if (LINGER_UPDATER.compareAndSet(this, old, registered)) {
+				break;
 			}
 		}
-		catch (Throwable ex) {
-			for (Node<T, R> n = last; n != null; n = n.next) {
-				n.future.completeExceptionally(ex);
+		if (state != registered.lingering) {
+			registered.timeout.cancel();
+		}
+	}
+
+	/**
+	 * Cancels timer entry of flushed linger generation, if already published.
+	 */
+	private void cancelLinger(int lingering)
+	{
+		Linger current = linger;
+		if (current != null && current.lingering == lingering) {
+			current.timeout.cancel();
+		}
+	}
+
+	private void awaitConsumed(long position, long weightStart)
+	{
+		Thread current = Thread.currentThread();
+		boolean interrupted = false;
+		waiters.add(current);
+		try {
+			while (isOverPending(position, weightStart)) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					interrupted = true;
+				}
 			}
 		}
 		finally {
-			if (last.count == PENDING_MAX) {
-				synchronized (this) {
-					notifyAll();
-				}
+			waiters.remove(current);
+			if (interrupted) {
+				current.interrupt();
 			}
-			for (;;) {
-				int old = batchPending;
-				if (BATCH_PENDING_UPDATER.compareAndSet(this, old, old-1)) {
-					if ((old&Integer.MIN_VALUE) != 0) {
-						synchronized (this) {
-							notifyAll();
+		}
+	}
+
+	private void signalWaiters()
+	{
+		for (Thread waiter: waiters) {
+			LockSupport.unpark(waiter);
+		}
+	}
+
+	private void batchStarter()
+	{
+		if (!drain()) {
+			return;
+		}
+		for (;;) {
+			int old = state;
+			if (STATE_UPDATER.compareAndSet(this, old, (old&~ST_PHASE)|PH_IDLE)) {
+				break;
+			}
+		}
+		if (!waiters.isEmpty()) {
+			signalWaiters();
+		}
+		long end = pendingEnd();
+		if (end != consumed) {
+			// items submitted while finishing, their producers might have seen the consumer running:
+			startConsumer(end-1, submittedWeight);
+		}
+	}
+
+	/**
+	 * Passes all published items to processor, cutting them into batches by size and weight.  The last batch is
+	 * processed by current thread, others are sent to executor.
+	 *
+	 * If the next item is claimed but not published yet, the consumer is suspended and the producer of the item
+	 * continues it once published.  Similarly, if max batches are in flight, the consumer is suspended and continued by
+	 * finishing batch.
+	 *
+	 * @return
+	 * 	true if all items were consumed, false if suspended.
+	 */
+	private boolean drain()
+	{
+		Chunk<T, R> chunk = head;
+		int index = headIndex;
+		Chunk<T, R> lastChunk = null;
+		int lastStart = 0, lastEnd = 0;
+		boolean finished = true;
+		for (;;) {
+			int end = Math.min(chunk.claimed, chunk.works.length);
+			if (index < end) {
+				if (chunk.futures.get(index) == null) {
+					long position = chunk.base+index;
+					head = chunk;
+					headIndex = index;
+					stalled = position;
+					if (chunk.futures.get(index) == null || !STALLED_UPDATER.compareAndSet(this, position, -1)) {
+						finished = false;
+						break;
+					}
+					continue;
+				}
+				long[] weights = chunk.weights;
+				long batchWeight = weights == null ? 0 : weights[index];
+				int batchEnd = index+1;
+				for (; batchEnd < end && batchEnd-index < batchSize && chunk.futures.get(batchEnd) != null; ++batchEnd) {
+					if (weights != null) {
+						if (batchWeight+weights[batchEnd] > maxBatchWeight) {
+							break;
 						}
+						batchWeight += weights[batchEnd];
 					}
+				}
+				if (!acquireInFlight()) {
+					head = chunk;
+					headIndex = index;
+					finished = false;
 					break;
 				}
+				if (lastChunk != null) {
+					dispatchBatch(lastChunk, lastStart, lastEnd);
+				}
+				lastChunk = chunk;
+				lastStart = index;
+				lastEnd = batchEnd;
+				index = batchEnd;
+				if (batchWeight != 0) {
+					consumedWeight = consumedWeight+batchWeight;
+				}
+				consumed = chunk.base+index;
+				if (!waiters.isEmpty()) {
+					signalWaiters();
+				}
+			}
+			else if (index == chunk.works.length && chunk.next != null) {
+				chunk = chunk.next;
+				index = 0;
 			}
+			else {
+				head = chunk;
+				headIndex = index;
+				break;
+			}
+		}
+		if (lastChunk != null) {
+			runBatch(lastChunk, lastStart, lastEnd);
 		}
+		return finished;
 	}
 
-	void runBatch(List<T> works, List<CompletableFuture<R>> futures)
+	/**
+	 * Acquires slot for batch in flight.  If not available, marks the consumer as suspended, to be continued by
+	 * {@link #releaseInFlight()}.
+	 *
+	 * @return
+	 * 	true if acquired, false if consumer is suspended.
+	 */
+	private boolean acquireInFlight()
+	{
+		if (maxInFlight == Integer.MAX_VALUE) {
+			return true;
+		}
+		for (;;) {
+			int old = inFlight;
+			if ((old>>>1) < maxInFlight) {
+				if (IN_FLIGHT_UPDATER.compareAndSet(this, old, old+2)) {
+					return true;
+				}
+			}
+			else if (IN_FLIGHT_UPDATER.compareAndSet(this, old, old|1)) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Releases slot for batch in flight, continuing the consumer if suspended.
+	 */
+	private void releaseInFlight()
+	{
+		for (;;) {
+			int old = inFlight;
+			if (IN_FLIGHT_UPDATER.compareAndSet(this, old, (old-2)&~1)) {
+				if ((old&1) != 0) {
+					executor.execute(batchStarterTask);
+				}
+				return;
+			}
+		}
+	}
+
+	private void dispatchBatch(Chunk<T, R> chunk, int start, int end)
 	{
 		try {
-			List<CompletableFuture<R>> results = processor.apply(works);
-			for (int j = 0, e = works.size(); j < e; ++j) {
-				CompletableFuture<R> future = futures.get(j);
+			executor.execute(() -> runBatch(chunk, start, end));
+		}
+		catch (Throwable ex) {
+			for (int j = start; j < end; ++j) {
+				chunk.futures.get(j).completeExceptionally(ex);
+			}
+			if (maxInFlight != Integer.MAX_VALUE) {
+				releaseInFlight();
+			}
+		}
+	}
+
+	void runBatch(Chunk<T, R> chunk, int start, int end)
+	{
+		InFlightBatch batch = maxInFlight == Integer.MAX_VALUE ? null : new InFlightBatch(end-start+1);
+		try {
+			List<CompletableFuture<R>> results = processor.apply(chunk.workList.subList(start, end));
+			for (int j = start; j < end; ++j) {
+				CompletableFuture<R> future = chunk.futures.get(j);
 				try {
-					results.get(j).handle((v, x) -> FutureUtil.completeOrFail(future, v, x));
+					results.get(j-start).handle((v, x) -> {
+						FutureUtil.completeOrFail(future, v, x);
+						if (batch != null) {
+							batch.finishItem();
+						}
+						return null;
+					});
 				}
 				catch (Throwable ex) {
 					future.completeExceptionally(ex);
+					if (batch != null) {
+						batch.finishItem();
+					}
 				}
 			}
 		}
 		catch (Throwable ex) {
-			for (int j = 0, e = works.size(); j < e; ++j) {
-				CompletableFuture<R> future = futures.get(j);
-				future.completeExceptionally(ex);
+			for (int j = start; j < end; ++j) {
+				chunk.futures.get(j).completeExceptionally(ex);
+			}
+			if (batch != null) {
+				releaseInFlight();
+			}
+			return;
+		}
+		if (batch != null) {
+			batch.finishItem();
+		}
+	}
+
+	/**
+	 * Batch in flight, counting the items with incomplete processor future, plus one for the processor call itself.
+	 */
+	private class InFlightBatch
+	{
+		volatile int remaining;
+
+		InFlightBatch(int count)
+		{
+			this.remaining = count;
+		}
+
+		void finishItem()
+		{
+			if (IN_FLIGHT_REMAINING_UPDATER.decrementAndGet(this) == 0) {
+				releaseInFlight();
 			}
 		}
 	}
 
-	@AllArgsConstructor
-	private static class Node<T, R>
+	/**
+	 * Timer entry registered for particular linger generation.
+	 */
+	static class Linger
 	{
-		int count;
+		final int lingering;
+
+		final HashedWheelTimer.Timeout timeout;
+
+		Linger(int lingering, HashedWheelTimer.Timeout timeout)
+		{
+			this.lingering = lingering;
+			this.timeout = timeout;
+		}
+	}
 
-		Node<T, R> next;
+	/**
+	 * Fixed size part of pending queue.  Producers claim slots by incrementing {@code claimed}, which may overflow the
+	 * size, in such case they continue with next chunk.  The slot is published by setting the future.
+	 */
+	static class Chunk<T, R>
+	{
+		final long base;
+
+		final Object[] works;
+
+		final List<T> workList;
+
+		/** Weights of items, null if not weighed. */
+		final long[] weights;
+
+		final AtomicReferenceArray<CompletableFuture<R>> futures;
+
+		volatile int claimed = 0;
+
+		volatile Chunk<T, R> next;
+
+		@SuppressWarnings("unchecked")
+		Chunk(long base, int size, boolean weighed)
+		{
+			this.base = base;
+			this.works = new Object[size];
+			this.workList = (List<T>) Arrays.asList(works);
+			this.weights = weighed ? new long[size] : null;
+			this.futures = new AtomicReferenceArray<>(size);
+		}
 
-		final T work;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<Chunk> CLAIMED_UPDATER =
+			AtomicIntegerFieldUpdater.newUpdater(Chunk.class, "claimed");
 
-		final CompletableFuture<R> future;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next");
 	}
 }
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.executor;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Weighted permits limited by capacity and count.
+ *
+ * Acquisition takes one count and weight of capacity, release returns them.  When nothing is acquired, the
+ * acquisition succeeds regardless of capacity, so single item heavier than whole capacity does not block forever.
+ *
+ * Acquisition is lock-free while permits are available.  Otherwise the acquirers park in FIFO queue and only the head
+ * waiter may acquire.  New acquirers may pass the head waiter until it fails to acquire after being woken up, from then
+ * they queue behind it, so heavy waiter is not starved by light ones.
+ *
+ * Asynchronous acquirers are queued in the same FIFO, without blocking the thread.  Once they reach the head and the
+ * permit is available, their callback is run by releasing thread.  The asynchronous acquirer stays queued until its
+ * callback finishes, so new acquirers never pass queued asynchronous acquirers, neither in acquisition nor in the
+ * actions done by the callback.
+ */
+class CapacityLimiter
+{
+	/**
+	 * Creates limiter.
+	 *
+	 * @param capacity
+	 * 	max total weight of acquired permits
+	 * @param count
+	 * 	max number of acquired permits
+	 */
+	CapacityLimiter(long capacity, long count)
+	{
+		this.capacity = capacity;
+		this.count = count;
+		this.countLimit = count;
+	}
+
+	/**
+	 * Acquires permit, blocking until available.
+	 *
+	 * @param weight
+	 * 	weight of the permit
+	 *
+	 * @throws RuntimeException
+	 * 	wrapping InterruptedException when the thread is interrupted while waiting
+	 */
+	void acquire(long weight)
+	{
+		if (canPass() && tryAcquire(weight))
+			return;
+		Waiter waiter = new Waiter(Thread.currentThread(), weight, null);
+		waiters.add(waiter);
+		try {
+			boolean woken = false;
+			for (;;) {
+				if (waiters.peek() == waiter) {
+					if (tryAcquire(weight))
+						break;
+					if (woken)
+						waiter.starving = true;
+				}
+				LockSupport.park(this);
+				woken = true;
+				if (Thread.interrupted())
+					throw new RuntimeException(new InterruptedException());
+			}
+		}
+		finally {
+			waiters.remove(waiter);
+			signalWaiter();
+		}
+	}
+
+	/**
+	 * Acquires permit asynchronously, calling the callback once acquired.  The callback is called either immediately
+	 * by current thread or later by thread releasing the permits.  The callback must not block.
+	 *
+	 * @param weight
+	 * 	weight of the permit
+	 * @param onAcquired
+	 * 	callback to run once the permit is acquired
+	 */
+	void acquireAsync(long weight, Runnable onAcquired)
+	{
+		if (canPass() && tryAcquire(weight)) {
+			onAcquired.run();
+			return;
+		}
+		ASYNC_WAITING_UPDATER.incrementAndGet(this);
+		waiters.add(new Waiter(null, weight, onAcquired));
+		signalWaiter();
+	}
+
+	/**
+	 * Checks whether there are asynchronous acquirers waiting.
+	 *
+	 * @return
+	 * 	true if there are asynchronous acquirers waiting
+	 */
+	boolean hasAsyncWaiters()
+	{
+		return asyncWaiting != 0;
+	}
+
+	/**
+	 * Waits until all asynchronous acquirers are admitted and their callbacks finished.
+	 */
+	void awaitAsyncWaiters()
+	{
+		Thread current = Thread.currentThread();
+		boolean interrupted = false;
+		idleWaiters.add(current);
+		try {
+			while (asyncWaiting != 0) {
+				LockSupport.park(this);
+				if (Thread.interrupted())
+					interrupted = true;
+			}
+		}
+		finally {
+			idleWaiters.remove(current);
+			if (interrupted)
+				current.interrupt();
+		}
+	}
+
+	/**
+	 * Releases permit.
+	 *
+	 * @param weight
+	 * 	weight of the permit
+	 */
+	void release(long weight)
+	{
+		CAPACITY_UPDATER.getAndAdd(this, weight);
+		COUNT_UPDATER.getAndIncrement(this);
+		signalWaiter();
+	}
+
+	/**
+	 * Attempts to acquire permit without blocking.  The count is taken first, then the capacity, release returns them
+	 * in opposite order, so the count being at its limit means nothing is acquired.
+	 *
+	 * @param weight
+	 * 	weight of the permit
+	 *
+	 * @return
+	 * 	true if acquired
+	 */
+	boolean tryAcquire(long weight)
+	{
+		long c;
+		do {
+			c = count;
+			if (c <= 0 && c != countLimit)
+				return false;
+		} while (!COUNT_UPDATER.compareAndSet(this, c, c-1));
+		for (;;) {
+			long a = capacity;
+			if (a < weight && c != countLimit) {
+				// the count taken meanwhile might have blocked the head waiter, unless it is us:
+				COUNT_UPDATER.getAndIncrement(this);
+				Waiter head = waiters.peek();
+				if (head != null && head.thread != Thread.currentThread())
+					signalWaiter();
+				return false;
+			}
+			if (CAPACITY_UPDATER.compareAndSet(this, a, a-weight))
+				return true;
+		}
+	}
+
+	private boolean canPass()
+	{
+		Waiter head = waiters.peek();
+		return head == null || (!head.starving && asyncWaiting == 0);
+	}
+
+	private boolean fits(Waiter waiter)
+	{
+		long c = count;
+		return c == countLimit || (c > 0 && capacity >= waiter.weight);
+	}
+
+	private void signalWaiter()
+	{
+		Waiter head = waiters.peek();
+		if (head != null && fits(head)) {
+			if (head.thread != null)
+				LockSupport.unpark(head.thread);
+			else
+				admitAsync();
+		}
+	}
+
+	private void admitAsync()
+	{
+		for (;;) {
+			if (!ADMITTING_UPDATER.compareAndSet(this, 0, 1))
+				return;
+			try {
+				for (;;) {
+					Waiter head = waiters.peek();
+					if (head == null || head.thread != null || !tryAcquire(head.weight))
+						break;
+					try {
+						// still queued, so no other acquirer can pass until the callback finishes:
+						head.onAcquired.run();
+					}
+					finally {
+						waiters.remove(head);
+						if (ASYNC_WAITING_UPDATER.decrementAndGet(this) == 0 && !idleWaiters.isEmpty()) {
+							for (Thread waiter: idleWaiters)
+								LockSupport.unpark(waiter);
+						}
+					}
+				}
+			}
+			finally {
+				admitting = 0;
+			}
+			Waiter head = waiters.peek();
+			if (head == null || !fits(head))
+				return;
+			if (head.thread != null) {
+				LockSupport.unpark(head.thread);
+				return;
+			}
+		}
+	}
+
+	private static class Waiter
+	{
+		final Thread thread;
+
+		final long weight;
+
+		final Runnable onAcquired;
+
+		volatile boolean starving;
+
+		Waiter(Thread thread, long weight, Runnable onAcquired)
+		{
+			this.thread = thread;
+			this.weight = weight;
+			this.onAcquired = onAcquired;
+		}
+	}
+
+	private final long countLimit;
+
+	private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+	/** Threads waiting for asynchronous acquirers to be admitted. */
+	private final ConcurrentLinkedQueue<Thread> idleWaiters = new ConcurrentLinkedQueue<>();
+
+	private volatile long capacity;
+
+	private volatile long count;
+
+	private volatile int asyncWaiting = 0;
+
+	private volatile int admitting = 0;
+
+	private static final AtomicLongFieldUpdater<CapacityLimiter> CAPACITY_UPDATER =
+		AtomicLongFieldUpdater.newUpdater(CapacityLimiter.class, "capacity");
+
+	private static final AtomicLongFieldUpdater<CapacityLimiter> COUNT_UPDATER =
+		AtomicLongFieldUpdater.newUpdater(CapacityLimiter.class, "count");
+
+	private static final AtomicIntegerFieldUpdater<CapacityLimiter> ASYNC_WAITING_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater(CapacityLimiter.class, "asyncWaiting");
+
+	private static final AtomicIntegerFieldUpdater<CapacityLimiter> ADMITTING_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater(CapacityLimiter.class, "admitting");
+}
@@ -18,10 +18,7 @@ package net.dryuf.concurrent.executor;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Executor sequencing the results and controlling pending items by capacity and count.
@@ -30,6 +27,8 @@ import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
  *
  * The results are completed in submission order and completion handlers executed sequentially in this order.
  *
+ * The {@code submitAsync} methods do not block, they queue the task until the resources are available.
+ *
  * Usage:
  *
  * <pre>
@@ -51,13 +50,21 @@ public class CapacityResultSequencingExecutor implements AutoCloseable
 	 * 	max number of pending items
 	 * @param executor
 	 * 	executor, closed at close
+	 *
+	 * @throws IllegalArgumentException
+	 * 	if count is not positive
 	 */
 	public CapacityResultSequencingExecutor(long capacity, long count, CloseableExecutor executor)
 	{
-		this.capacity = capacity;
-		this.count = count;
+		if (count <= 0)
+			throw new IllegalArgumentException("count must be positive: "+count);
+		this.limiter = new CapacityLimiter(capacity, count);
 		this.executor = executor;
-		this.orderedTasks = new LinkedBlockingDeque<>();
+		// the ring grows by segments, so the count only drives the segment size:
+		this.ring = new ResultSequencingRing(
+			(int) Math.min(count, ResultSequencingRing.DEFAULT_SIZE),
+			limiter::release
+		);
 	}
 
 	/**
@@ -90,163 +97,81 @@ public class CapacityResultSequencingExecutor implements AutoCloseable
 
 	public <T> CompletableFuture<T> submit(long capacity, Callable<T> callable)
 	{
-		ExecutionFuture<T> future = new ExecutionFuture<>(capacity);
-		addFuture(capacity, future);
-		future.execute(callable, executor);
-		return future.wrapping;
+		limiter.acquire(capacity);
+		return ring.submit(capacity, callable, executor);
 	}
 
 	public <T> CompletableFuture<T> submit(long capacity, Callable<T> callable, Executor executor)
 	{
-		ExecutionFuture<T> future = new ExecutionFuture<>(capacity);
-		addFuture(capacity, future);
-		future.execute(callable, executor);
-		return future.wrapping;
+		limiter.acquire(capacity);
+		return ring.submit(capacity, callable, executor);
 	}
 
-	@Override
-	public void close()
+	/**
+	 * Submits task without blocking.  The task is queued until the capacity is available and then executed.  The
+	 * order of results is kept, queued tasks are not passed by subsequently submitted ones.
+	 *
+	 * @param capacity
+	 * 	capacity taken by the task
+	 * @param callable
+	 * 	task to execute
+	 *
+	 * @return
+	 * 	future completed in submission order
+	 */
+	public <T> CompletableFuture<T> submitAsync(long capacity, Callable<T> callable)
 	{
-		boolean interrupted = false;
-		try {
-			synchronized (isEmptySync) {
-				for (; ; ) {
-					try {
-						if (!orderedTasks.isEmpty())
-							isEmptySync.wait();
-						break;
-					}
-					catch (InterruptedException ex) {
-						interrupted = true;
-					}
-				}
-			}
-		}
-		finally {
-			executor.close();
-			if (interrupted)
-				Thread.currentThread().interrupt();
-		}
+		return submitAsync(capacity, callable, executor);
 	}
 
-	private synchronized void addFuture(long capacity, ExecutionFuture<?> future)
+	/**
+	 * Submits task without blocking.  The task is queued until the capacity is available and then executed.  The
+	 * order of results is kept, queued tasks are not passed by subsequently submitted ones.
+	 *
+	 * @param capacity
+	 * 	capacity taken by the task
+	 * @param callable
+	 * 	task to execute
+	 * @param executor
+	 * 	executor to run the task
+	 *
+	 * @return
+	 * 	future completed in submission order
+	 */
+	public <T> CompletableFuture<T> submitAsync(long capacity, Callable<T> callable, Executor executor)
 	{
-		for (;;) {
-			if ((this.count <= 0 || capacity > this.capacity) && !orderedTasks.isEmpty()) {
-				try {
-					this.wait();
-				}
-				catch (InterruptedException e) {
-					throw new RuntimeException(e);
-				}
+		ResultSequencingRing.SequencedTask<T> task = ring.newTask(capacity, callable);
+		limiter.acquireAsync(capacity, () -> {
+			try {
+				ring.submit(task, executor);
 			}
-			else {
-				this.capacity -= capacity;
-				this.count -= 1;
-				try {
-					orderedTasks.put(future);
-				}
-				catch (InterruptedException e) {
-					throw new RuntimeException(e);
-				}
-				break;
+			catch (RuntimeException ex) {
+				// the failure is delivered through the task
 			}
-		}
+		});
+		return task;
 	}
 
-	@SuppressWarnings("unchecked")
-	private void processPending(ExecutionFuture<?> future)
+	@Override
+	public void close()
 	{
-		if (orderedTasks.peek() != future)
-			return;
-		for (;;) {
-			if (!PROCESSING_PENDING_UPDATER.compareAndSet(this, 0, 1))
-				return;
-
+		try {
 			for (;;) {
-				ExecutionFuture<Object> item = (ExecutionFuture<Object>) orderedTasks.peek();
-				if (item == null || !item.isDone()) {
-					PROCESSING_PENDING_UPDATER.set(this, 0);
-					item = (ExecutionFuture<Object>) orderedTasks.peek();
-					if (item != null && item.isDone()) {
-						break;
-					}
-					if (item == null) {
-						synchronized (isEmptySync) {
-							isEmptySync.notify();
-						}
-					}
-					return;
-				}
-				try {
-					item.wrapping.complete(item.get());
-				}
-				catch (ExecutionException e) {
-					item.wrapping.completeExceptionally(e.getCause());
-				}
-				catch (InterruptedException e) {
-					item.wrapping.completeExceptionally(e);
-				}
-				finally {
-					synchronized (this) {
-						this.capacity += item.capacity;
-						this.count += 1;
-						this.notify();
-					}
-					orderedTasks.remove();
-				}
+				ring.awaitEmpty();
+				if (!limiter.hasAsyncWaiters())
+					break;
+				// queued tasks are admitted as the ring delivers the previous ones:
+				limiter.awaitAsyncWaiters();
 			}
 		}
-	}
-
-	private class ExecutionFuture<T> extends CompletableFuture<T>
-	{
-		private final long capacity;
-
-		private CompletableFuture<Void> underlying;
-
-		private final CompletableFuture<T> wrapping = new CompletableFuture<T>() {
-			@Override
-			public boolean cancel(boolean interrupt)
-			{
-				return underlying.cancel(interrupt);
-			}
-		};
-
-		public ExecutionFuture(long capacity)
-		{
-			this.capacity = capacity;
-		}
-
-		public void execute(Callable<T> callable, Executor executor)
-		{
-			underlying = CompletableFuture.runAsync(() -> {
-				try {
-					complete(callable.call());
-				}
-				catch (Throwable e) {
-					completeExceptionally(e);
-				}
-				finally {
-					processPending(ExecutionFuture.this);
-				}
-			}, executor);
+		finally {
+			executor.close();
 		}
 	}
 
-	private long capacity;
-
-	private long count;
+	private final CapacityLimiter limiter;
 
 	private final CloseableExecutor executor;
 
-	private final LinkedBlockingDeque<ExecutionFuture<?>> orderedTasks;
-
-	private volatile int processingPending = 0;
-
-	private final Object isEmptySync = new Object();
-
-	private static final AtomicIntegerFieldUpdater<CapacityResultSequencingExecutor>  PROCESSING_PENDING_UPDATER =
-			AtomicIntegerFieldUpdater.newUpdater(CapacityResultSequencingExecutor.class, "processingPending");
+	private final ResultSequencingRing ring;
 }
-
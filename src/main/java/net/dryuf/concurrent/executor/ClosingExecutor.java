@@ -50,6 +50,24 @@ public class ClosingExecutor extends AbstractCloseableExecutor
 		this.executor = executor;
 	}
 
+	/**
+	 * Constructs the executor with delegating executor, associated resource and limit of pending executions.
+	 *
+	 * @param executor
+	 * 	delegating executor
+	 * @param resource
+	 * 	associated resource, to be closed after executor is closed.
+	 * @param pendingMax
+	 * 	maximum number of pending executions
+	 * @param overflowPolicy
+	 * 	policy applied when pendingMax is reached
+	 */
+	public ClosingExecutor(ExecutorService executor, AutoCloseable resource, int pendingMax, OverflowPolicy overflowPolicy)
+	{
+		super(resource, pendingMax, overflowPolicy);
+		this.executor = executor;
+	}
+
 	/**
 	 * Constructs the executor with delegating executor.
 	 *
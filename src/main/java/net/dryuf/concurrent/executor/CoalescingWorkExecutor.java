@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.executor;
+
+import net.dryuf.concurrent.FutureUtil;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+
+/**
+ * Work executor decorator coalescing concurrent submissions of equal work items.  While work item is in flight, further
+ * submissions with equal key do not reach the delegate and receive the same future instead.  Once the result is
+ * complete, the key is removed and the next submission is processed again.
+ *
+ * Typically used to prevent thundering herd on cache misses, where many callers request the same key at once.
+ *
+ * <pre>
+ *         try (WorkExecutor&lt;String, Value&gt; executor = new CoalescingWorkExecutor&lt;&gt;(new SingleWorkExecutor&lt;&gt;(delegateExecutor, this::load))) {
+ *         	CompletableFuture&lt;Value&gt; v1 = executor.submit("key");
+ *         	CompletableFuture&lt;Value&gt; v2 = executor.submit("key");
+ *         	// loaded only once if the first is still in flight
+ *         }
+ * </pre>
+ *
+ * Each caller receives its own future depending on the shared result, so completing or cancelling it affects neither
+ * the other coalesced callers nor the processing.
+ *
+ * @param <T>
+ *	work item
+ * @param <R>
+ *      result
+ */
+public class CoalescingWorkExecutor<T, R> implements WorkExecutor<T, R>
+{
+	private final WorkExecutor<T, R> delegate;
+
+	private final Function<? super T, ?> keyExtractor;
+
+	private final ConcurrentHashMap<Object, CompletableFuture<R>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates instance coalescing equal work items.
+	 *
+	 * @param delegate
+	 * 	underlying work executor, closed upon close
+	 */
+	public CoalescingWorkExecutor(WorkExecutor<T, R> delegate)
+	{
+		this(delegate, Function.identity());
+	}
+
+	/**
+	 * Creates instance coalescing work items with equal key.
+	 *
+	 * @param delegate
+	 * 	underlying work executor, closed upon close
+	 * @param keyExtractor
+	 * 	function extracting key from work item
+	 */
+	public CoalescingWorkExecutor(WorkExecutor<T, R> delegate, Function<? super T, ?> keyExtractor)
+	{
+		this.delegate = delegate;
+		this.keyExtractor = keyExtractor;
+	}
+
+	@Override
+	public CompletableFuture<R> submit(T work)
+	{
+		Object key = keyExtractor.apply(work);
+		CompletableFuture<R> existing = inFlight.get(key);
+		if (existing != null) {
+			return existing.thenApply(Function.identity());
+		}
+		CompletableFuture<R> future = new CompletableFuture<>();
+		existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			return existing.thenApply(Function.identity());
+		}
+		CompletableFuture<R> result;
+		try {
+			result = delegate.submit(work);
+		}
+		catch (Throwable ex) {
+			inFlight.remove(key, future);
+			future.completeExceptionally(ex);
+			throw ex;
+		}
+		result.whenComplete((v, x) -> {
+			// remove first, so the callers reacting on completion submit again, including cancellation:
+			inFlight.remove(key, future);
+			FutureUtil.completeOrFail(future, v, x);
+		});
+		return future.thenApply(Function.identity());
+	}
+
+	@Override
+	public void close()
+	{
+		delegate.close();
+	}
+}
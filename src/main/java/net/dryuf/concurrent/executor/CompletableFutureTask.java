@@ -2,30 +2,44 @@ package net.dryuf.concurrent.executor;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 
 /**
  * CompletableFuture runnable task, interruptable.
  *
+ * The execution progress is kept in single field, holding either the executing thread or one of the marker states.
+ * Interrupting cancel and finishing execution synchronize by CAS, the finishing thread parks until the interrupt is
+ * delivered, so it does not leak to the next task executed by the thread.
+ *
  * @param <T>
  *   	type of result
  */
 public class CompletableFutureTask<T> extends CompletableFuture<T> implements Runnable
 {
+	/** Execution progress: not started. */
+	private static final Object ST_NEW = null;
+
+	/** Execution progress: cancel is interrupting the executing thread. */
+	private static final Object ST_INTERRUPTING = new Object();
+
+	/** Execution progress: cancelled, possibly with interrupt delivered. */
+	private static final Object ST_CANCELLED = new Object();
+
+	/** Execution progress: completed. */
+	private static final Object ST_COMPLETED = new Object();
+
 	private final Callable<T> callable;
 
 	private final boolean delayedCancel;
 
-	/** Execution progress: 0 - not started, 1 - executing, 2 - interrupting, 3 - completed, 4 - cancelled. */
-	private volatile int progress = 0;
-
-	/** Thread executing the task. */
-	private Thread myThread;
+	/** Execution progress: ST_NEW, executing Thread, ST_INTERRUPTING, ST_CANCELLED or ST_COMPLETED. */
+	private volatile Object progress = ST_NEW;
 
 	@SuppressWarnings({ "rawtypes" })
-	private static final AtomicIntegerFieldUpdater<CompletableFutureTask> PROGRESS_UPDATER = AtomicIntegerFieldUpdater.newUpdater(
-		CompletableFutureTask.class, "progress"
+	private static final AtomicReferenceFieldUpdater<CompletableFutureTask, Object> PROGRESS_UPDATER = AtomicReferenceFieldUpdater.newUpdater(
+		CompletableFutureTask.class, Object.class, "progress"
 	);
 
 	/**
@@ -56,44 +70,40 @@ public class CompletableFutureTask<T> extends CompletableFuture<T> implements Ru
 	@Override
 	public void run()
 	{
-		myThread = Thread.currentThread();
-		if (!PROGRESS_UPDATER.compareAndSet(this, 0, 1)) {
+		Thread current = Thread.currentThread();
+		if (!PROGRESS_UPDATER.compareAndSet(this, ST_NEW, current)) {
 			return;
 		}
 		try {
 			T result = callable.call();
-			if (canUpdate())
+			if (canUpdate(current))
 				complete(result);
 		}
 		catch (Throwable ex) {
-			if (canUpdate()) {
+			if (canUpdate(current)) {
 				completeExceptionally(ex);
 			}
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public boolean cancel(boolean interrupt)
 	{
 		if (interrupt) {
 			for (;;) {
-				int old = progress;
-				if (old == 0 || old == 1) {
-					if (PROGRESS_UPDATER.compareAndSet(this, old, 2)) {
-						if (old == 1) {
-							synchronized (this) {
-								if (progress == 2) {
-									myThread.interrupt();
-									progress = 4;
-									notify();
-								}
-							}
-							if (!delayedCancel) {
-								return super.cancel(false);
-							}
-						}
-						else {
+				Object old = progress;
+				if (old == ST_NEW) {
+					if (PROGRESS_UPDATER.compareAndSet(this, ST_NEW, ST_CANCELLED)) {
+						return super.cancel(false);
+					}
+				}
+				else if (old instanceof Thread) {
+					if (PROGRESS_UPDATER.compareAndSet(this, old, ST_INTERRUPTING)) {
+						Thread thread = (Thread) old;
+						thread.interrupt();
+						progress = ST_CANCELLED;
+						LockSupport.unpark(thread);
+						if (!delayedCancel) {
 							return super.cancel(false);
 						}
 					}
@@ -111,37 +121,27 @@ public class CompletableFutureTask<T> extends CompletableFuture<T> implements Ru
 		}
 	}
 
-	private boolean canUpdate()
+	private boolean canUpdate(Thread current)
 	{
-		int old = PROGRESS_UPDATER.getAndSet(this, 3);
-		if (old == 2) {
-			try {
-				synchronized (this) {
-					for (;;) {
-						if (progress == 2) {
-							try {
-								wait();
-								break;
-							}
-							catch (InterruptedException e) {
-								continue;
-							}
-						}
-						else {
-							break;
-						}
-					}
+		if (PROGRESS_UPDATER.compareAndSet(this, current, ST_COMPLETED)) {
+			return true;
+		}
+		try {
+			// cancelled while running, wait for interrupt delivery:
+			boolean interrupted = false;
+			while (progress == ST_INTERRUPTING) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					interrupted = true;
 				}
-				return false;
 			}
-			finally {
-				super.cancel(false);
+			if (interrupted) {
+				current.interrupt();
 			}
+			return false;
 		}
-		else if (old == 4) {
+		finally {
 			super.cancel(false);
-			return false;
 		}
-		return true;
 	}
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.executor;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+
+/**
+ * Executor sequentially executing the tasks of the same key.
+ *
+ * The keys are hashed onto number of stripes, each of them being {@link SequencingExecutor}.  The tasks of the same
+ * key run in order of submissions and never in parallel, the tasks of different stripes run in parallel on the
+ * underlying executor.  Tasks of different keys mapped to the same stripe are sequenced too.  It waits for
+ * submitted tasks to finish upon close.
+ *
+ * Usage:
+ *
+ * <pre>
+ *         try (KeyedSequencingExecutor&lt;String&gt; executor = new KeyedSequencingExecutor&lt;&gt;()) {
+ *            	executor.execute("account-1", () -&gt; debit("account-1", 25));
+ *            	executor.execute("account-2", () -&gt; debit("account-2", 36));
+ *            	executor.execute("account-1", () -&gt; credit("account-1", 10));
+ *         }
+ *         // the above tasks will be completed at this point.
+ *         // the tasks for account-1 will run in order, the task for account-2 can run in parallel
+ * </pre>
+ *
+ * @param <K>
+ * 	type of key
+ */
+public class KeyedSequencingExecutor<K> implements AutoCloseable
+{
+	/**
+	 * Creates instance from executor, closing it upon close.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param stripes
+	 * 	minimal number of stripes, rounded up to power of two
+	 */
+	public KeyedSequencingExecutor(CloseableExecutor executor, int stripes)
+	{
+		if (stripes <= 0)
+			throw new IllegalArgumentException("stripes must be positive: "+stripes);
+		int count = Integer.highestOneBit(stripes);
+		if (count < stripes)
+			count <<= 1;
+		this.executor = executor;
+		this.mask = count-1;
+		this.stripes = new SequencingExecutor[count];
+		UncontrolledCloseableExecutor shared = new UncontrolledCloseableExecutor(executor);
+		for (int i = 0; i < count; ++i) {
+			this.stripes[i] = new SequencingExecutor(shared);
+		}
+	}
+
+	/**
+	 * Creates instance from executor, not closing it upon close.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param stripes
+	 * 	minimal number of stripes, rounded up to power of two
+	 */
+	public KeyedSequencingExecutor(Executor executor, int stripes)
+	{
+		this(new UncontrolledCloseableExecutor(executor), stripes);
+	}
+
+	/**
+	 * Creates instance from executor, not closing it upon close, with default number of stripes.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 */
+	public KeyedSequencingExecutor(Executor executor)
+	{
+		this(executor, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Creates instance from common pool executor.
+	 */
+	public KeyedSequencingExecutor()
+	{
+		this(CommonPoolExecutor.getInstance(), DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Executes the task, sequenced with other tasks of the same key.
+	 *
+	 * @param key
+	 * 	ordering key
+	 * @param runnable
+	 * 	task to run
+	 */
+	public void execute(K key, Runnable runnable)
+	{
+		stripe(key).execute(runnable);
+	}
+
+	/**
+	 * Submits the task, sequenced with other tasks of the same key.
+	 *
+	 * @param key
+	 * 	ordering key
+	 * @param callable
+	 * 	task callable
+	 *
+	 * @return
+	 * 	CompletableFuture completing when task finishes
+	 *
+	 * @param <T>
+	 *      type of result
+	 */
+	public <T> CompletableFuture<T> submit(K key, Callable<T> callable)
+	{
+		return stripe(key).submit(callable);
+	}
+
+	/**
+	 * Waits for the current executions of all stripes and closes the underlying executor, if requested.
+	 */
+	@Override
+	public void close()
+	{
+		try {
+			for (SequencingExecutor stripe: stripes) {
+				stripe.close();
+			}
+		}
+		finally {
+			executor.close();
+		}
+	}
+
+	private SequencingExecutor stripe(K key)
+	{
+		int h = Objects.hashCode(key);
+		return stripes[(h^(h>>>16))&mask];
+	}
+
+	private static final int DEFAULT_STRIPES = 4*Runtime.getRuntime().availableProcessors();
+
+	private final CloseableExecutor executor;
+
+	private final SequencingExecutor[] stripes;
+
+	private final int mask;
+}
@@ -61,6 +61,24 @@ public class NotClosingExecutor extends AbstractCloseableExecutor
 		this.executor = executor;
 	}
 
+	/**
+	 * Constructs new instance with limit of pending executions.
+	 *
+	 * @param executor
+	 * 	delegated {@link Executor}
+	 * @param resource
+	 * 	associated resource, closed upon close
+	 * @param pendingMax
+	 * 	maximum number of pending executions
+	 * @param overflowPolicy
+	 * 	policy applied when pendingMax is reached
+	 */
+	public NotClosingExecutor(Executor executor, AutoCloseable resource, int pendingMax, OverflowPolicy overflowPolicy)
+	{
+		super(resource, pendingMax, overflowPolicy);
+		this.executor = executor;
+	}
+
 	@Override
 	protected void execute0(Runnable runnable)
 	{
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.executor;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Policy applied by {@link AbstractCloseableExecutor} when the limit of pending executions is reached.
+ *
+ * <pre>
+ *         try (CloseableExecutor executor = new NotClosingExecutor(sharedExecutor, null, 64, OverflowPolicy.block(1, TimeUnit.SECONDS))) {
+ *                 executor.submit(() -> doCalculation(1));
+ *         }
+ * </pre>
+ */
+public final class OverflowPolicy
+{
+	/**
+	 * Type of overflow handling.
+	 */
+	public enum Kind
+	{
+		/** Blocks the caller until there is free slot, optionally failing after timeout. */
+		BLOCK,
+		/** Runs the task in the calling thread. */
+		CALLER_RUNS,
+		/** Drops the oldest task not started yet, cancelling it if it is a Future. */
+		DROP_OLDEST,
+		/** Fails immediately with RejectedExecutionException. */
+		FAIL,
+	}
+
+	private static final OverflowPolicy BLOCK = new OverflowPolicy(Kind.BLOCK, -1);
+
+	private static final OverflowPolicy CALLER_RUNS = new OverflowPolicy(Kind.CALLER_RUNS, -1);
+
+	private static final OverflowPolicy DROP_OLDEST = new OverflowPolicy(Kind.DROP_OLDEST, -1);
+
+	private static final OverflowPolicy FAIL = new OverflowPolicy(Kind.FAIL, -1);
+
+	private final Kind kind;
+
+	private final long timeoutNanos;
+
+	private OverflowPolicy(Kind kind, long timeoutNanos)
+	{
+		this.kind = kind;
+		this.timeoutNanos = timeoutNanos;
+	}
+
+	/**
+	 * Blocks the caller until there is free slot.  The blocked callers are served in FIFO order.
+	 *
+	 * @return
+	 * 	blocking policy
+	 */
+	public static OverflowPolicy block()
+	{
+		return BLOCK;
+	}
+
+	/**
+	 * Blocks the caller until there is free slot, failing with RejectedExecutionException after timeout.  The
+	 * blocked callers are served in FIFO order.
+	 *
+	 * @param timeout
+	 * 	maximum time to wait
+	 * @param unit
+	 * 	unit of timeout
+	 *
+	 * @return
+	 * 	blocking policy with timeout
+	 */
+	public static OverflowPolicy block(long timeout, TimeUnit unit)
+	{
+		return new OverflowPolicy(Kind.BLOCK, Math.max(0, unit.toNanos(timeout)));
+	}
+
+	/**
+	 * Runs the task in the calling thread.  The execution is still accounted in the pending executions, so close
+	 * waits for it.
+	 *
+	 * @return
+	 * 	caller runs policy
+	 */
+	public static OverflowPolicy callerRuns()
+	{
+		return CALLER_RUNS;
+	}
+
+	/**
+	 * Drops the oldest task not started yet, cancelling it if it is a {@link java.util.concurrent.Future}.  If
+	 * all pending tasks are already running, blocks until there is free slot.
+	 *
+	 * @return
+	 * 	drop oldest policy
+	 */
+	public static OverflowPolicy dropOldest()
+	{
+		return DROP_OLDEST;
+	}
+
+	/**
+	 * Fails immediately with {@link java.util.concurrent.RejectedExecutionException}.
+	 *
+	 * @return
+	 * 	failing policy
+	 */
+	public static OverflowPolicy fail()
+	{
+		return FAIL;
+	}
+
+	/**
+	 * Gets the kind of policy.
+	 *
+	 * @return
+	 * 	kind of policy
+	 */
+	public Kind getKind()
+	{
+		return kind;
+	}
+
+	/**
+	 * Gets the timeout for {@link Kind#BLOCK} policy.
+	 *
+	 * @return
+	 * 	timeout in nanoseconds, negative if unlimited
+	 */
+	public long getTimeoutNanos()
+	{
+		return timeoutNanos;
+	}
+
+	@Override
+	public String toString()
+	{
+		return timeoutNanos < 0 ? kind.name() : kind.name()+"("+timeoutNanos+"ns)";
+	}
+}
@@ -18,10 +18,7 @@ package net.dryuf.concurrent.executor;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 
 /**
@@ -29,6 +26,10 @@ import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
  *
  * The results are completed in submission order and completion handlers executed sequentially in this order.
  *
+ * The pending results are kept in ring of fixed size segments, growing as needed, so the submission never blocks.
+ * Cancelling the returned future prevents the execution if it has not started yet and completes the future
+ * immediately.
+ *
  * Usage:
  *
  * <pre>
@@ -48,10 +49,24 @@ public class ResultSequencingExecutor implements CloseableExecutor
 	 *
 	 * @param executor
 	 * 	underlying executor
+	 * @param ringSize
+	 * 	number of pending results in single ring segment
 	 */
-	public ResultSequencingExecutor(CloseableExecutor executor)
+	public ResultSequencingExecutor(CloseableExecutor executor, int ringSize)
 	{
 		this.executor = executor;
+		this.ring = new ResultSequencingRing(ringSize, null);
+	}
+
+	/**
+	 * Creates instance from executor, closing it upon close.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 */
+	public ResultSequencingExecutor(CloseableExecutor executor)
+	{
+		this(executor, ResultSequencingRing.DEFAULT_SIZE);
 	}
 
 	/**
@@ -82,146 +97,26 @@ public class ResultSequencingExecutor implements CloseableExecutor
 	@Override
 	public <T> CompletableFuture<T> submit(Callable<T> callable)
 	{
-		ExecutionFuture<T> future = new ExecutionFuture<>();
-
-		try {
-			orderedTasks.put(future);
-			future.execute(callable, executor);
-		}
-		catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		}
-		return future.wrapping;
+		return ring.submit(1, callable, executor);
 	}
 
 	public <T> CompletableFuture<T> submit(Callable<T> callable, Executor executor)
 	{
-		ExecutionFuture<T> future = new ExecutionFuture<>();
-
-		try {
-			orderedTasks.put(future);
-			future.execute(callable, executor);
-		}
-		catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		}
-		return future.wrapping;
+		return ring.submit(1, callable, executor);
 	}
 
 	@Override
 	public void close()
 	{
-		boolean interrupted = false;
 		try {
-			synchronized (isEmpty) {
-				for (; ; ) {
-					try {
-						if (!orderedTasks.isEmpty())
-							isEmpty.wait();
-						break;
-					}
-					catch (InterruptedException ex) {
-						interrupted = true;
-					}
-				}
-			}
+			ring.awaitEmpty();
 		}
 		finally {
 			executor.close();
-			if (interrupted)
-				Thread.currentThread().interrupt();
-		}
-	}
-
-	@SuppressWarnings("unchecked")
-	private void processPending(ExecutionFuture<?> future)
-	{
-		if (orderedTasks.peek() != future)
-			return;
-		for (;;) {
-			if (!PROCESSING_PENDING_UPDATER.compareAndSet(this, 0, 1))
-				return;
-
-			for (;;) {
-				ExecutionFuture<Object> item = (ExecutionFuture<Object>)orderedTasks.peek();
-				if (item == null || !item.isDone()) {
-					PROCESSING_PENDING_UPDATER.set(this, 0);
-					item = (ExecutionFuture<Object>)orderedTasks.peek();
-					if (item != null && item.isDone()) {
-						break;
-					}
-					if (item == null) {
-						synchronized (isEmpty) {
-							isEmpty.notify();
-						}
-					}
-					return;
-				}
-				item = (ExecutionFuture<Object>)orderedTasks.remove();
-				try {
-					item.wrapping.complete(item.get());
-				}
-				catch (ExecutionException e) {
-					item.wrapping.completeExceptionally(e.getCause());
-				}
-				catch (InterruptedException e) {
-					item.wrapping.completeExceptionally(e);
-				}
-			}
-		}
-	}
-
-	private class ExecutionFuture<T> extends CompletableFuture<T>
-	{
-		private CompletableFuture<Void> underlying;
-
-		private final CompletableFuture<T> wrapping = new CompletableFuture<T>() {
-			@Override
-			public boolean cancel(boolean interrupt)
-			{
-				return underlying.cancel(interrupt);
-			}
-		};
-
-		public void execute(Callable<T> callable)
-		{
-			underlying = CompletableFuture.runAsync(() -> {
-				try {
-					complete(callable.call());
-				}
-				catch (Throwable e) {
-					completeExceptionally(e);
-				}
-				finally {
-					processPending(ExecutionFuture.this);
-				}
-			});
-		}
-
-		public void execute(Callable<T> callable, Executor executor)
-		{
-			underlying = CompletableFuture.runAsync(() -> {
-				try {
-					complete(callable.call());
-				}
-				catch (Throwable e) {
-					completeExceptionally(e);
-				}
-				finally {
-					processPending(ExecutionFuture.this);
-				}
-			}, executor);
 		}
 	}
 
 	private final CloseableExecutor executor;
 
-	private final LinkedBlockingDeque<ExecutionFuture<?>> orderedTasks = new LinkedBlockingDeque<>();
-
-	private volatile int processingPending = 0;
-
-	private final Object isEmpty = new Object();
-
-	private static final AtomicIntegerFieldUpdater<ResultSequencingExecutor>  PROCESSING_PENDING_UPDATER =
-		AtomicIntegerFieldUpdater.newUpdater(ResultSequencingExecutor.class, "processingPending");
+	private final ResultSequencingRing ring;
 }
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent.executor;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+
+/**
+ * Ring of pending results, completed in submission order.
+ *
+ * Each submitted task takes next sequence number which determines its slot in the ring.  The ring consists of fixed
+ * size segments, new segment is chained when the sequence passes the last one, so the submission never blocks.  The
+ * task is the returned future and the {@link Runnable} passed to executor at the same time, so the submission
+ * allocates single object.  Thread finishing a task attempts to acquire the drain flag and then completes the finished
+ * prefix of the ring, in sequence order.
+ */
+class ResultSequencingRing
+{
+	/**
+	 * Creates ring.
+	 *
+	 * @param size
+	 * 	number of results in single segment, rounded up to power of two
+	 * @param releaser
+	 * 	callback receiving weight of delivered task, before its future is completed, may be null
+	 */
+	ResultSequencingRing(int size, LongConsumer releaser)
+	{
+		if (size <= 0 || size > MAX_SIZE)
+			throw new IllegalArgumentException("size must be between 1 and "+MAX_SIZE+": "+size);
+		int segmentSize = size == 1 ? 1 : Integer.highestOneBit(size-1) << 1;
+		this.mask = segmentSize-1;
+		this.releaser = releaser;
+		this.tailSegment = new Segment(0, segmentSize);
+		this.headSegment = tailSegment;
+	}
+
+	/**
+	 * Submits task to executor.
+	 *
+	 * @param weight
+	 * 	weight of the task, passed to releaser once the task is delivered
+	 * @param callable
+	 * 	task to execute
+	 * @param executor
+	 * 	executor to run the task
+	 *
+	 * @return
+	 * 	future completed in submission order
+	 */
+	<T> CompletableFuture<T> submit(long weight, Callable<T> callable, Executor executor)
+	{
+		return submit(newTask(weight, callable), executor);
+	}
+
+	/**
+	 * Creates task, to be submitted later.  The task is not part of the sequence until submitted.
+	 *
+	 * @param weight
+	 * 	weight of the task, passed to releaser once the task is delivered
+	 * @param callable
+	 * 	task to execute
+	 *
+	 * @return
+	 * 	new task
+	 */
+	<T> SequencedTask<T> newTask(long weight, Callable<T> callable)
+	{
+		return new SequencedTask<>(weight, callable);
+	}
+
+	/**
+	 * Submits previously created task to executor.
+	 *
+	 * @param task
+	 * 	task created by {@link #newTask(long, Callable)}
+	 * @param executor
+	 * 	executor to run the task
+	 *
+	 * @return
+	 * 	the task, completed in submission order
+	 */
+	<T> CompletableFuture<T> submit(SequencedTask<T> task, Executor executor)
+	{
+		// read before taking the sequence, so the segment does not start after it:
+		Segment segment = tailSegment;
+		long seq = TAIL_UPDATER.getAndIncrement(this);
+		while (seq-segment.base > mask) {
+			Segment next = segment.next;
+			if (next == null) {
+				Segment created = new Segment(segment.base+mask+1, mask+1);
+				next = Segment.NEXT_UPDATER.compareAndSet(segment, null, created) ? created : segment.next;
+			}
+			TAIL_SEGMENT_UPDATER.compareAndSet(this, segment, next);
+			segment = next;
+		}
+		segment.slots.set((int) seq&mask, task);
+		try {
+			executor.execute(task);
+		}
+		catch (Throwable ex) {
+			task.finish(ex);
+			throw ex;
+		}
+		return task;
+	}
+
+	/**
+	 * Checks whether there are no pending results.
+	 *
+	 * @return
+	 * 	true if all submitted results were delivered
+	 */
+	boolean isEmpty()
+	{
+		return head == tail;
+	}
+
+	/**
+	 * Waits until all submitted results are delivered, including their completion handlers.
+	 */
+	void awaitEmpty()
+	{
+		if (!isEmpty() || draining != 0) {
+			await(() -> isEmpty() && draining == 0);
+		}
+	}
+
+	private void drain()
+	{
+		for (;;) {
+			if (!DRAINING_UPDATER.compareAndSet(this, 0, 1))
+				return;
+			for (;;) {
+				long h = head;
+				int index = (int) h&mask;
+				Segment segment = headSegment;
+				if (h-segment.base > mask) {
+					if (segment.next == null)
+						break;
+					segment = segment.next;
+					headSegment = segment;
+				}
+				SequencedTask<?> task = segment.slots.get(index);
+				if (task == null || task.state != ST_DONE)
+					break;
+				segment.slots.lazySet(index, null);
+				head = h+1;
+				if (releaser != null)
+					releaser.accept(task.weight);
+				task.deliver();
+			}
+			draining = 0;
+			if (!waiters.isEmpty())
+				signalWaiters();
+			if (!isNextDone())
+				return;
+		}
+	}
+
+	/**
+	 * Checks whether the task at head is finished, so it can be delivered.
+	 */
+	private boolean isNextDone()
+	{
+		long h = head;
+		Segment segment = headSegment;
+		if (h-segment.base > mask) {
+			segment = segment.next;
+			if (segment == null)
+				return false;
+		}
+		SequencedTask<?> task = segment.slots.get((int) h&mask);
+		return task != null && task.state == ST_DONE;
+	}
+
+	private void await(BooleanSupplier condition)
+	{
+		Thread current = Thread.currentThread();
+		boolean interrupted = false;
+		waiters.add(current);
+		try {
+			while (!condition.getAsBoolean()) {
+				LockSupport.park(this);
+				if (Thread.interrupted())
+					interrupted = true;
+			}
+		}
+		finally {
+			waiters.remove(current);
+			if (interrupted)
+				current.interrupt();
+		}
+	}
+
+	private void signalWaiters()
+	{
+		for (Thread waiter: waiters) {
+			LockSupport.unpark(waiter);
+		}
+	}
+
+	/**
+	 * Task and its future.  The result is stored until all previous tasks are delivered.  Cancellation prevents the
+	 * execution if not started yet and completes the future immediately, the slot stays in sequence until its turn.
+	 */
+	class SequencedTask<T> extends CompletableFuture<T> implements Runnable
+	{
+		final long weight;
+
+		private final Callable<T> callable;
+
+		volatile int state = ST_NEW;
+
+		private T result;
+
+		private Throwable failure;
+
+		SequencedTask(long weight, Callable<T> callable)
+		{
+			this.weight = weight;
+			this.callable = callable;
+		}
+
+		@Override
+		public void run()
+		{
+			if (STATE_UPDATER.compareAndSet(this, ST_NEW, ST_RUNNING)) {
+				try {
+					result = callable.call();
+				}
+				catch (Throwable ex) {
+					failure = ex;
+				}
+			}
+			state = ST_DONE;
+			drain();
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning)
+		{
+			if (STATE_UPDATER.compareAndSet(this, ST_NEW, ST_CANCELLED)) {
+				return super.cancel(false);
+			}
+			return isCancelled();
+		}
+
+		void finish(Throwable ex)
+		{
+			failure = ex;
+			state = ST_DONE;
+			drain();
+		}
+
+		void deliver()
+		{
+			if (failure != null)
+				completeExceptionally(failure);
+			else
+				complete(result);
+		}
+	}
+
+	static final int DEFAULT_SIZE =
+		Optional.ofNullable(System.getProperty("net.dryuf.concurrent.resultSequencingRingSize"))
+			.map(Integer::valueOf)
+			.orElse(1024);
+
+	static final int MAX_SIZE = 1<<30;
+
+	private static final int ST_NEW = 0;
+	private static final int ST_RUNNING = 1;
+	private static final int ST_CANCELLED = 2;
+	private static final int ST_DONE = 3;
+
+	private final int mask;
+
+	private final LongConsumer releaser;
+
+	private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+	/** Segment containing the last sequence, or preceding one. */
+	private volatile Segment tailSegment;
+
+	/** Segment containing the head sequence, or preceding one, accessed by draining thread. */
+	private Segment headSegment;
+
+	private volatile long tail = 0;
+
+	private volatile long head = 0;
+
+	private volatile int draining = 0;
+
+	private static final AtomicLongFieldUpdater<ResultSequencingRing> TAIL_UPDATER =
+		AtomicLongFieldUpdater.newUpdater(ResultSequencingRing.class, "tail");
+
+	private static final AtomicReferenceFieldUpdater<ResultSequencingRing, Segment> TAIL_SEGMENT_UPDATER =
+		AtomicReferenceFieldUpdater.newUpdater(ResultSequencingRing.class, Segment.class, "tailSegment");
+
+	private static final AtomicIntegerFieldUpdater<ResultSequencingRing> DRAINING_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater(ResultSequencingRing.class, "draining");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<SequencedTask> STATE_UPDATER =
+		AtomicIntegerFieldUpdater.newUpdater(SequencedTask.class, "state");
+
+	/**
+	 * Fixed size part of the ring, starting at base sequence.
+	 */
+	static class Segment
+	{
+		final long base;
+
+		final AtomicReferenceArray<SequencedTask<?>> slots;
+
+		volatile Segment next;
+
+		Segment(long base, int size)
+		{
+			this.base = base;
+			this.slots = new AtomicReferenceArray<>(size);
+		}
+
+		static final AtomicReferenceFieldUpdater<Segment, Segment> NEXT_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(Segment.class, Segment.class, "next");
+	}
+}
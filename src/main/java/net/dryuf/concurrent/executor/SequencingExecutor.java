@@ -21,8 +21,10 @@ import lombok.extern.java.Log;
 import net.dryuf.concurrent.FutureUtil;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.logging.Level;
 
@@ -33,6 +35,12 @@ import java.util.logging.Level;
  * The tasks are run in order of submissions and they run sequentially, no two running at the same time.  It waits for
  * submitted task to finish upon close.
  *
+ * The consumer runs at most drain quantum tasks (1024 by default, configurable by
+ * {@code net.dryuf.concurrent.sequencingDrainQuantum} system property) before rescheduling itself on the underlying
+ * executor, so busy sequencer does not starve others sharing the same executor.  The rescheduling never blocks nor
+ * applies the overflow policy of limited underlying executor, if it cannot be submitted immediately, the consumer
+ * continues draining.
+ *
  * Usage:
  *
  * <pre>
@@ -55,7 +63,31 @@ public class SequencingExecutor extends AbstractCloseableExecutor
 	 */
 	public SequencingExecutor(CloseableExecutor executor)
 	{
+		this(executor, DEFAULT_DRAIN_QUANTUM, 0, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Creates instance from executor, closing it upon close, with limited drain quantum.
+	 *
+	 * Once the consumer runs drainQuantum tasks or runs for drainTime, it reschedules itself on the underlying
+	 * executor instead of continuing, so the other users of the executor are not starved.
+	 *
+	 * @param executor
+	 * 	underlying executor
+	 * @param drainQuantum
+	 * 	maximum number of tasks run before rescheduling
+	 * @param drainTime
+	 * 	maximum time to run before rescheduling, 0 for unlimited
+	 * @param unit
+	 * 	unit of drainTime
+	 */
+	public SequencingExecutor(CloseableExecutor executor, int drainQuantum, long drainTime, TimeUnit unit)
+	{
+		if (drainQuantum <= 0)
+			throw new IllegalArgumentException("drainQuantum must be positive: "+drainQuantum);
 		this.executor = executor;
+		this.drainQuantum = drainQuantum;
+		this.drainTimeNanos = unit.toNanos(drainTime);
 	}
 
 	/**
@@ -137,31 +169,48 @@ public class SequencingExecutor extends AbstractCloseableExecutor
 		synchronized (lock) {
 		}
 		try {
-			Node end = null;
+			// Continue where previous quantum stopped, if any:
+			Node end = drainEnd;
+			Node newEnd = drainBatchHead;
+			Node first = drainFirst;
+			drainEnd = null;
+			drainBatchHead = null;
+			drainFirst = null;
+			int quantum = drainQuantum;
+			long deadline = drainTimeNanos != 0 ? System.nanoTime()+drainTimeNanos : 0;
 			for (;;) {
-				Node newEnd = pending;
-				Node first = newEnd;
-				Node next = first.next;
-				if (first == lock) {
-					first = next;
-					if (first == end) {
-						synchronized (lock) {
-							lock.closed |= 2;
-							lock.notify();
-							break;
+				if (newEnd == null) {
+					newEnd = pending;
+					first = newEnd;
+					Node next = first.next;
+					if (first == lock) {
+						first = next;
+						if (first == end) {
+							synchronized (lock) {
+								lock.closed |= 2;
+								lock.notify();
+								break;
+							}
 						}
+						next = first.next;
+					}
+					first.next = null;
+					for (; next != end; ) {
+						Node nextNext = next.next;
+						next.next = first;
+						first = next;
+						next = nextNext;
 					}
-					next = first.next;
-				}
-				first.next = null;
-				for (; next != end; ) {
-					Node nextNext = next.next;
-					next.next = first;
-					first = next;
-					next = nextNext;
 				}
 
 				while (first != null) {
+					if (--quantum < 0 || deadline != 0 && System.nanoTime()-deadline >= 0) {
+						if (reschedule(end, newEnd, first)) {
+							return;
+						}
+						quantum = drainQuantum-1;
+						deadline = drainTimeNanos != 0 ? System.nanoTime()+drainTimeNanos : 0;
+					}
 					try {
 						first.task.run();
 					}
@@ -182,6 +231,7 @@ public class SequencingExecutor extends AbstractCloseableExecutor
 					break;
 				}
 				end = newEnd;
+				newEnd = null;
 			}
 		}
 		catch (Throwable ex) {
@@ -189,6 +239,44 @@ public class SequencingExecutor extends AbstractCloseableExecutor
 		}
 	}
 
+	/**
+	 * Reschedules the consumer on underlying executor, keeping the current drain position.
+	 *
+	 * @return
+	 * 	true if rescheduled, false if the executor rejected or is full and the consumer should continue.
+	 */
+	private boolean reschedule(Node end, Node newEnd, Node first)
+	{
+		drainEnd = end;
+		drainBatchHead = newEnd;
+		drainFirst = first;
+		try {
+			// running on the executor already, waiting for its slot could deadlock:
+			if (executor instanceof AbstractCloseableExecutor) {
+				if (((AbstractCloseableExecutor) executor).tryExecute(this::executePending)) {
+					return true;
+				}
+			}
+			else if (executor instanceof UncontrolledCloseableExecutor) {
+				// shared pass-through wrapper, such as stripes of KeyedSequencingExecutor
+				if (((UncontrolledCloseableExecutor) executor).tryExecute(this::executePending)) {
+					return true;
+				}
+			}
+			else {
+				executor.execute(this::executePending);
+				return true;
+			}
+		}
+		catch (Throwable ex) {
+			// fall through, continue draining
+		}
+		drainEnd = null;
+		drainBatchHead = null;
+		drainFirst = null;
+		return false;
+	}
+
 	@Override
 	public void close()
 	{
@@ -239,8 +327,26 @@ public class SequencingExecutor extends AbstractCloseableExecutor
 		}
 	}
 
+	private static final int DEFAULT_DRAIN_QUANTUM =
+		Optional.ofNullable(System.getProperty("net.dryuf.concurrent.sequencingDrainQuantum"))
+			.map(Integer::valueOf)
+			.orElse(1024);
+
 	private final CloseableExecutor executor;
 
+	private final int drainQuantum;
+
+	private final long drainTimeNanos;
+
+	/** End of previously finished batch, kept by consumer when rescheduled. */
+	private Node drainEnd;
+
+	/** Head of current batch, kept by consumer when rescheduled. */
+	private Node drainBatchHead;
+
+	/** Remaining tasks of current batch, kept by consumer when rescheduled. */
+	private Node drainFirst;
+
 	/** List of pending tasks in opposite order.  null means the executor is not running now. */
 	private volatile Node pending = null;
 
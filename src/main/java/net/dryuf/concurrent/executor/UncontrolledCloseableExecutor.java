@@ -62,6 +62,28 @@ public class UncontrolledCloseableExecutor implements CloseableExecutor
 		executor.execute(runnable);
 	}
 
+	/**
+	 * Submits the runnable only if underlying executor accepts it immediately, forwarding to
+	 * {@link AbstractCloseableExecutor#tryExecute(Runnable)} when the underlying executor is limited.
+	 *
+	 * @param runnable
+	 * 	task to execute
+	 *
+	 * @return
+	 * 	true if submitted, false if the underlying executor has no free slot.
+	 */
+	boolean tryExecute(Runnable runnable)
+	{
+		if (executor instanceof AbstractCloseableExecutor) {
+			return ((AbstractCloseableExecutor) executor).tryExecute(runnable);
+		}
+		else if (executor instanceof UncontrolledCloseableExecutor) {
+			return ((UncontrolledCloseableExecutor) executor).tryExecute(runnable);
+		}
+		executor.execute(runnable);
+		return true;
+	}
+
 	@Override
 	public <T> CompletableFuture<T> submit(Callable<T> callable)
 	{
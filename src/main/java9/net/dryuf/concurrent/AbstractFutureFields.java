@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+
+/**
+ * Atomic access to {@link AbstractFuture} fields, Java 9+ implementation based on {@link VarHandle}.
+ *
+ * The lazy accessors map to acquire/release access modes, avoiding full fence where not needed.
+ *
+ * @author
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ */
+final class AbstractFutureFields
+{
+	/**
+	 * Private constructor to avoid instantiation.
+	 */
+	private                         AbstractFutureFields()
+	{
+	}
+
+	static int                      getStatus(AbstractFuture<?> future)
+	{
+		return (int) STATUS.getVolatile(future);
+	}
+
+	static int                      getStatusAcquire(AbstractFuture<?> future)
+	{
+		return (int) STATUS.getAcquire(future);
+	}
+
+	static void                     setStatus(AbstractFuture<?> future, int status)
+	{
+		STATUS.setVolatile(future, status);
+	}
+
+	static void                     setStatusRelease(AbstractFuture<?> future, int status)
+	{
+		STATUS.setRelease(future, status);
+	}
+
+	static boolean                  casStatus(AbstractFuture<?> future, int expected, int set)
+	{
+		return STATUS.compareAndSet(future, expected, set);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <V> AbstractFuture.ListenerNode<V> getListeners(AbstractFuture<V> future)
+	{
+		return (AbstractFuture.ListenerNode<V>) LISTENERS.getVolatile(future);
+	}
+
+	@SuppressWarnings("unchecked")
+	static <V> AbstractFuture.ListenerNode<V> getListenersAcquire(AbstractFuture<V> future)
+	{
+		return (AbstractFuture.ListenerNode<V>) LISTENERS.getAcquire(future);
+	}
+
+	static <V> void                 setListeners(AbstractFuture<V> future, AbstractFuture.ListenerNode<V> listeners)
+	{
+		LISTENERS.setVolatile(future, listeners);
+	}
+
+	static <V> void                 setListenersRelease(AbstractFuture<V> future, AbstractFuture.ListenerNode<V> listeners)
+	{
+		LISTENERS.setRelease(future, listeners);
+	}
+
+	static <V> boolean              casListeners(AbstractFuture<V> future, AbstractFuture.ListenerNode<V> expected, AbstractFuture.ListenerNode<V> set)
+	{
+		return LISTENERS.compareAndSet(future, expected, set);
+	}
+
+	/**
+	 * Hints processor the thread is busy waiting.
+	 */
+	static void                     onSpinWait()
+	{
+		Thread.onSpinWait();
+	}
+
+	private static final VarHandle  STATUS;
+	private static final VarHandle  LISTENERS;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			STATUS = lookup.findVarHandle(AbstractFuture.class, "status", int.class);
+			LISTENERS = lookup.findVarHandle(AbstractFuture.class, "listeners", AbstractFuture.ListenerNode.class);
+		}
+		catch (ReflectiveOperationException ex) {
+			throw new ExceptionInInitializerError(ex);
+		}
+	}
+}
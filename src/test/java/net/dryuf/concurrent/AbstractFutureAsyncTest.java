@@ -19,11 +19,17 @@ package net.dryuf.concurrent;
 import org.testng.AssertJUnit;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 
 public class AbstractFutureAsyncTest
@@ -97,4 +103,82 @@ public class AbstractFutureAsyncTest
 			AssertJUnit.assertTrue(listener.waitValue() instanceof CancellationException);
 		}
 	}
+
+	@Test(timeOut = 10000L)
+	public void                     testMultipleWaiters() throws Exception
+	{
+		final SettableFuture<Integer> future = new SettableFuture<Integer>();
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<Integer>> waiters = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < 16; ++i) {
+				waiters.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						return future.get();
+					}
+				}));
+			}
+			Thread.sleep(10);
+			future.set(1);
+			for (Future<Integer> waiter: waiters) {
+				AssertJUnit.assertEquals(1, (int)waiter.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(timeOut = 10000L)
+	public void                     testWaitTimeout() throws Exception
+	{
+		SettableFuture<Integer> future = new SettableFuture<Integer>();
+		for (int i = 0; i < 4; ++i) {
+			try {
+				future.get(1, TimeUnit.MILLISECONDS);
+				AssertJUnit.fail("get() succeeded");
+			}
+			catch (TimeoutException ex) {
+			}
+		}
+		TestListener<Integer> listener = new TestListener<Integer>();
+		future.addListener(listener);
+		future.set(1);
+		AssertJUnit.assertEquals(1, (int)future.get(1, TimeUnit.MILLISECONDS));
+		AssertJUnit.assertEquals(1, (int)(Integer)listener.getValue());
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testWaitSpins() throws Exception
+	{
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			for (int spins: new int[]{ 0, 1_000_000 }) {
+				SettableFuture<Integer> future = new SettableFuture<Integer>() {
+					@Override
+					protected int getWaitSpins() {
+						return spins;
+					}
+				};
+				executor.execute(() -> future.set(spins));
+				AssertJUnit.assertEquals(spins, (int)future.get());
+			}
+			SettableFuture<Integer> future = new SettableFuture<Integer>() {
+				@Override
+				protected int getWaitSpins() {
+					return 1_000_000;
+				}
+			};
+			try {
+				future.get(1, TimeUnit.MILLISECONDS);
+				AssertJUnit.fail("get() succeeded");
+			}
+			catch (TimeoutException ex) {
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
 }
@@ -20,8 +20,10 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.Test;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class AbstractFutureListenerTest
@@ -257,6 +259,144 @@ public class AbstractFutureListenerTest
 		AssertJUnit.assertNull(queue.poll());
 	}
 
+	@Test(timeOut = 1000L)
+	public void                     testListenerNodes()
+	{
+		SettableFuture<Integer> future = new SettableFuture<Integer>();
+		TestListenerNode<Integer> direct = new TestListenerNode<Integer>();
+		TestListenerNode<Integer> async = new TestListenerNode<Integer>();
+		future.addListener(direct);
+		future.addAsyncListener(async, ListeningExecutors.directExecutor());
+		future.set(5);
+		AssertJUnit.assertEquals(5, direct.value);
+		AssertJUnit.assertEquals(5, async.value);
+
+		TestListenerNode<Integer> late = new TestListenerNode<Integer>();
+		future.addAsyncListener(late, ListeningExecutors.directExecutor());
+		AssertJUnit.assertEquals(5, late.value);
+
+		SettableFuture<Integer> excepted = new SettableFuture<Integer>();
+		TestListenerNode<Integer> failure = new TestListenerNode<Integer>();
+		excepted.addAsyncListener(failure, ListeningExecutors.directExecutor());
+		excepted.setException(new NumberFormatException());
+		AssertJUnit.assertTrue(failure.value instanceof NumberFormatException);
+
+		SettableFuture<Integer> cancelled = new SettableFuture<Integer>();
+		TestListenerNode<Integer> cancel = new TestListenerNode<Integer>();
+		cancelled.addListener(cancel);
+		cancelled.cancel(true);
+		AssertJUnit.assertSame(TestListener.CANCELLED, cancel.value);
+	}
+
+	@Test(timeOut = 10000L)
+	public void                     testDeepListenerChain() throws Exception
+	{
+		final int length = 100_000;
+		@SuppressWarnings("unchecked")
+		SettableFuture<Integer>[] futures = new SettableFuture[length];
+		for (int i = 0; i < length; ++i) {
+			futures[i] = new SettableFuture<Integer>();
+		}
+		final AtomicInteger order = new AtomicInteger();
+		for (int i = 0; i < length-1; ++i) {
+			final SettableFuture<Integer> next = futures[i+1];
+			futures[i].addListener((Integer v) -> {
+				AssertJUnit.assertEquals(order.getAndIncrement(), (int)v);
+				next.set(v+1);
+			}, null, null);
+		}
+		futures[0].set(0);
+		AssertJUnit.assertEquals(length-1, order.get());
+		AssertJUnit.assertEquals(length-1, (int)futures[length-1].get());
+	}
+
+	@Test(timeOut = 10000L)
+	public void                     testDeepListenerChainError() throws Exception
+	{
+		final int length = AbstractFuture.LISTENER_RECURSION_DEPTH*2;
+		@SuppressWarnings("unchecked")
+		SettableFuture<Integer>[] futures = new SettableFuture[length];
+		for (int i = 0; i < length; ++i) {
+			futures[i] = new SettableFuture<Integer>();
+		}
+		final AtomicInteger order = new AtomicInteger();
+		for (int i = 0; i < length-1; ++i) {
+			final SettableFuture<Integer> next = futures[i+1];
+			final int i0 = i;
+			futures[i].addListener((Integer v) -> {
+				order.incrementAndGet();
+				next.set(v+1);
+				if (i0 == 0)
+					throw new AssertionError("expected");
+			}, null, null);
+		}
+		try {
+			futures[0].set(0);
+			AssertJUnit.fail("Expected AssertionError");
+		}
+		catch (AssertionError ex) {
+			AssertJUnit.assertEquals("expected", ex.getMessage());
+		}
+		int count = order.get();
+		AssertJUnit.assertTrue(count < length-1);
+		// the deferred processing must not be run by unrelated future on the same thread:
+		SettableFuture<Integer> other = new SettableFuture<Integer>();
+		other.addListener((Integer v) -> {}, null, null);
+		other.set(0);
+		AssertJUnit.assertEquals(count, order.get());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testAsyncListenersBatched()
+	{
+		final BlockingQueue<Integer> queue = new LinkedBlockingQueue<Integer>();
+		final AtomicInteger firstCount = new AtomicInteger();
+		final AtomicInteger secondCount = new AtomicInteger();
+		Executor first = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				firstCount.incrementAndGet();
+				command.run();
+			}
+		};
+		Executor second = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				secondCount.incrementAndGet();
+				command.run();
+			}
+		};
+		SettableFuture<Integer> future = new SettableFuture<Integer>();
+		for (int i = 0; i < 8; ++i) {
+			final int id = i;
+			future.addAsyncListener(new DefaultFutureListener<Integer>() {
+				@Override
+				public void onSuccess(Integer result) {
+					queue.add(id);
+				}
+			}, (i&1) == 0 ? first : second);
+		}
+		future.addAsyncListener(null, null, null, first);
+		future.set(0);
+		AssertJUnit.assertEquals(1, firstCount.get());
+		AssertJUnit.assertEquals(1, secondCount.get());
+		for (int i = 0; i < 8; i += 2) {
+			AssertJUnit.assertEquals(i, (int)queue.remove());
+		}
+		for (int i = 1; i < 8; i += 2) {
+			AssertJUnit.assertEquals(i, (int)queue.remove());
+		}
+		AssertJUnit.assertNull(queue.poll());
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void                     testListenerNodeReused()
+	{
+		TestListenerNode<Integer> node = new TestListenerNode<Integer>();
+		new SettableFuture<Integer>().addListener(node);
+		new SettableFuture<Integer>().addListener(node);
+	}
+
 	@Test
 	public void                     testExceptingListenerSet()
 	{
@@ -399,4 +539,27 @@ public class AbstractFutureListenerTest
 		);
 		return future;
 	}
+
+	private static class TestListenerNode<V> extends AbstractFuture.FutureListenerNode<V>
+	{
+		@Override
+		public void onSuccess(V result)
+		{
+			value = result;
+		}
+
+		@Override
+		public void onFailure(Throwable ex)
+		{
+			value = ex;
+		}
+
+		@Override
+		public void onCancelled()
+		{
+			value = TestListener.CANCELLED;
+		}
+
+		Object value;
+	}
 }
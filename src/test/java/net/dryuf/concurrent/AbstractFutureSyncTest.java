@@ -21,6 +21,11 @@ import org.testng.annotations.Test;
 
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class AbstractFutureSyncTest
@@ -295,4 +300,28 @@ public class AbstractFutureSyncTest
 		AssertJUnit.assertTrue(future.isDone());
 		AssertJUnit.assertFalse(future.isCancelled());
 	}
+
+	@Test(timeOut = 30000L)
+	public void                     testConcurrentWaitersListenersAndSet() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int round = 0; round < 2000; ++round) {
+				SettableFuture<Integer> future = new SettableFuture<Integer>();
+				AtomicInteger executed = new AtomicInteger();
+				Future<Integer> waiter = executor.submit(() -> future.get());
+				Future<?> adder = executor.submit(() -> {
+					for (int i = 0; i < 10; ++i)
+						future.addListener((Integer v) -> executed.incrementAndGet(), null, null);
+				});
+				future.set(round);
+				AssertJUnit.assertEquals(round, (int)waiter.get(10, TimeUnit.SECONDS));
+				adder.get();
+				AssertJUnit.assertEquals(10, executed.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
 }
@@ -21,8 +21,11 @@ import org.testng.annotations.Test;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -412,6 +415,121 @@ public class ForwardingListeningScheduledExecutorServiceTest
 		}
 	}
 
+	@Test(timeOut = 2000L)
+	public void                     testScheduleAtFixedRateCoalesced() throws InterruptedException
+	{
+		ScheduledThreadPoolExecutor underlying = new ScheduledThreadPoolExecutor(1);
+		underlying.setRemoveOnCancelPolicy(true);
+		ListeningScheduledExecutorService executor = ListeningExecutors.listeningDecorator(underlying);
+		try {
+			int count = 100;
+			CountDownLatch latch = new CountDownLatch(count*3);
+			ListenableScheduledFuture<?>[] futures = new ListenableScheduledFuture<?>[count];
+			for (int i = 0; i < count; ++i) {
+				futures[i] = executor.scheduleAtFixedRateCoalesced(latch::countDown, 0, 2, TimeUnit.MILLISECONDS);
+			}
+			ListenableScheduledFuture<?> other = executor.scheduleAtFixedRateCoalesced(() -> {}, 0, 1, TimeUnit.HOURS);
+			// the group of shorter period is temporarily removed from the queue while running:
+			AssertJUnit.assertTrue(underlying.getQueue().size() <= 2);
+			AssertJUnit.assertTrue(futures[0].getDelay(TimeUnit.MILLISECONDS) <= 2);
+			latch.await();
+			for (ListenableScheduledFuture<?> future: futures) {
+				AssertJUnit.assertFalse(future.isDone());
+				AssertJUnit.assertTrue(future.cancel(true));
+			}
+			Thread.sleep(20);
+			AssertJUnit.assertEquals(1, underlying.getQueue().size());
+			AssertJUnit.assertFalse(other.isDone());
+			other.cancel(true);
+		}
+		finally {
+			executor.shutdownCancelling();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testScheduleAtFixedRateCoalescedCancel() throws InterruptedException
+	{
+		ListeningScheduledExecutorService executor = getExecutor();
+		try {
+			AtomicInteger cancelledCounter = new AtomicInteger();
+			CountDownLatch latch = new CountDownLatch(5);
+			ListenableScheduledFuture<?> cancelled = executor.scheduleAtFixedRateCoalesced(cancelledCounter::incrementAndGet, 0, 1, TimeUnit.MILLISECONDS);
+			ListenableScheduledFuture<?> running = executor.scheduleAtFixedRateCoalesced(latch::countDown, 0, 1, TimeUnit.MILLISECONDS);
+			AssertJUnit.assertTrue(cancelled.cancel(false));
+			int count = cancelledCounter.get();
+			latch.await();
+			AssertJUnit.assertEquals(count, cancelledCounter.get());
+			AssertJUnit.assertTrue(cancelled.isCancelled());
+			AssertJUnit.assertFalse(running.isDone());
+			running.cancel(false);
+		}
+		finally {
+			executor.shutdownCancelling();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testScheduleAtFixedRateCoalescedFailure() throws InterruptedException
+	{
+		ListeningScheduledExecutorService executor = getExecutor();
+		try {
+			CountDownLatch latch = new CountDownLatch(5);
+			ListenableScheduledFuture<?> failing = executor.scheduleAtFixedRateCoalesced(() -> { throw new TestingRuntimeException(); }, 0, 1, TimeUnit.MILLISECONDS);
+			ListenableScheduledFuture<?> running = executor.scheduleAtFixedRateCoalesced(latch::countDown, 0, 1, TimeUnit.MILLISECONDS);
+			try {
+				failing.get();
+				AssertJUnit.fail("Expected ExecutionException");
+			}
+			catch (ExecutionException ex) {
+				AssertJUnit.assertTrue(ex.getCause() instanceof TestingRuntimeException);
+			}
+			latch.await();
+			AssertJUnit.assertFalse(running.isDone());
+			running.cancel(false);
+		}
+		finally {
+			executor.shutdownCancelling();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testScheduleAtFixedRateCoalescedInitialDelay() throws InterruptedException
+	{
+		ListeningScheduledExecutorService executor = getExecutor();
+		try {
+			CountDownLatch latch = new CountDownLatch(1);
+			ListenableScheduledFuture<?> first = executor.scheduleAtFixedRateCoalesced(() -> {}, 0, 1, TimeUnit.MILLISECONDS);
+			long started = System.nanoTime();
+			ListenableScheduledFuture<?> delayed = executor.scheduleAtFixedRateCoalesced(latch::countDown, 50, 1, TimeUnit.MILLISECONDS);
+			AssertJUnit.assertTrue(delayed.getDelay(TimeUnit.MILLISECONDS) > 40);
+			latch.await();
+			AssertJUnit.assertTrue(System.nanoTime()-started >= TimeUnit.MILLISECONDS.toNanos(50));
+			first.cancel(false);
+			delayed.cancel(false);
+		}
+		finally {
+			executor.shutdownCancelling();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testScheduleAtFixedRateCoalescedRejected()
+	{
+		ScheduledThreadPoolExecutor underlying = new ScheduledThreadPoolExecutor(1);
+		ListeningScheduledExecutorService executor = ListeningExecutors.listeningDecorator(underlying);
+		underlying.shutdown();
+		for (int i = 0; i < 2; ++i) {
+			try {
+				executor.scheduleAtFixedRateCoalesced(() -> {}, 0, 1, TimeUnit.MILLISECONDS);
+				AssertJUnit.fail("Expected RejectedExecutionException");
+			}
+			catch (RejectedExecutionException ex) {
+				// expected, the failed group is not kept
+			}
+		}
+	}
+
 	private static ListeningScheduledExecutorService getExecutor()
 	{
 		return ListeningExecutors.listeningDecorator(Executors.newScheduledThreadPool(2));
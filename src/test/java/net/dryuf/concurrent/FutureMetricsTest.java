@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import org.testng.AssertJUnit;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+
+public class FutureMetricsTest
+{
+	@Test
+	public void                     testHistogram()
+	{
+		FutureMetrics.Histogram histogram = new FutureMetrics.Histogram();
+		histogram.record(0);
+		histogram.record(1);
+		histogram.record(3);
+		histogram.record(1000);
+		FutureMetrics.HistogramSnapshot snapshot = histogram.snapshot();
+		AssertJUnit.assertEquals(4, snapshot.getCount());
+		AssertJUnit.assertEquals(1004, snapshot.getSum());
+		AssertJUnit.assertEquals(251.0, snapshot.getMean(), 0.001);
+		AssertJUnit.assertEquals(11, snapshot.getBuckets().length);
+		AssertJUnit.assertEquals(1, snapshot.getMedian());
+		AssertJUnit.assertEquals(1023, snapshot.getP99());
+		AssertJUnit.assertEquals(0, snapshot.getPercentile(0));
+
+		histogram.reset();
+		AssertJUnit.assertEquals(0, histogram.snapshot().getCount());
+		AssertJUnit.assertEquals(0, histogram.snapshot().getP99());
+	}
+
+	@Test
+	public void                     testRecording()
+	{
+		long completions = FutureMetrics.snapshot().getCompletionTime().getCount();
+		long listeners = FutureMetrics.snapshot().getListenerCount().getCount();
+		FutureMetrics.recordCompletion(100);
+		FutureMetrics.recordListeners(2, 50);
+		FutureMetrics.Snapshot snapshot = FutureMetrics.snapshot();
+		AssertJUnit.assertTrue(snapshot.getCompletionTime().getCount() >= completions+1);
+		AssertJUnit.assertTrue(snapshot.getListenerCount().getCount() >= listeners+1);
+		AssertJUnit.assertTrue(snapshot.getListenerTime().getSum() >= 50);
+	}
+
+	@Test
+	public void                     testMBean() throws Exception
+	{
+		FutureMetrics.registerMBean();
+		FutureMetrics.registerMBean();
+		FutureMetrics.recordCompletion(100);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(FutureMetrics.MBEAN_NAME);
+		AssertJUnit.assertEquals(FutureMetrics.ENABLED, server.getAttribute(name, "Enabled"));
+		CompositeData completionTime = (CompositeData) server.getAttribute(name, "CompletionTime");
+		AssertJUnit.assertTrue((Long) completionTime.get("count") >= 1);
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testFutureInstrumented()
+	{
+		if (!FutureMetrics.ENABLED)
+			throw new SkipException("FutureMetrics not enabled");
+		long completions = FutureMetrics.snapshot().getCompletionTime().getCount();
+		long listeners = FutureMetrics.snapshot().getListenerCount().getSum();
+		SettableFuture<Integer> future = new SettableFuture<Integer>();
+		future.addListener(new DefaultFutureListener<Integer>());
+		future.addListener(new DefaultFutureListener<Integer>());
+		future.set(0);
+		FutureMetrics.Snapshot snapshot = FutureMetrics.snapshot();
+		AssertJUnit.assertTrue(snapshot.getCompletionTime().getCount() >= completions+1);
+		AssertJUnit.assertTrue(snapshot.getListenerCount().getSum() >= listeners+2);
+	}
+}
@@ -20,8 +20,12 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 
 /**
@@ -145,6 +149,205 @@ public class FuturesTest
 		}
 	}
 
+	@Test(timeOut = 1000L)
+	public void                     testAllAsList() throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f1 = new SettableFuture<Integer>();
+		ListenableFuture<List<Integer>> all = Futures.allAsList(f0, f1);
+		f1.set(1);
+		AssertJUnit.assertFalse(all.isDone());
+		f0.set(0);
+		AssertJUnit.assertEquals(Arrays.asList(0, 1), all.get());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testAllAsListIterable() throws ExecutionException, InterruptedException
+	{
+		List<ListenableFuture<Integer>> futures = Arrays.asList(Futures.successFuture(0), Futures.successFuture(1));
+		Iterable<ListenableFuture<Integer>> iterable = futures::iterator;
+		ListenableFuture<List<Integer>> all = Futures.allAsList(iterable);
+		AssertJUnit.assertEquals(Arrays.asList(0, 1), all.get());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testAllAsListEmpty() throws ExecutionException, InterruptedException
+	{
+		AssertJUnit.assertEquals(Collections.emptyList(), Futures.allAsList(Collections.<ListenableFuture<Integer>>emptyList()).get());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testAllAsListFailed() throws InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f1 = new SettableFuture<Integer>();
+		ListenableFuture<List<Integer>> all = Futures.allAsList(f0, f1);
+		f0.setException(new TestingRuntimeException());
+		AssertJUnit.assertTrue(all.isDone());
+		AssertJUnit.assertFalse(f1.isDone());
+		try {
+			all.get();
+			AssertJUnit.fail("all.get() did not throw ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			AssertJUnit.assertTrue(ex.getCause() instanceof TestingRuntimeException);
+		}
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testAllAsListFailedCancelling()
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f1 = new SettableFuture<Integer>();
+		ListenableFuture<List<Integer>> all = Futures.allAsList(Arrays.asList(f0, f1), true);
+		f0.setException(new TestingRuntimeException());
+		AssertJUnit.assertTrue(all.isDone());
+		AssertJUnit.assertTrue(f1.isCancelled());
+	}
+
+	@Test(timeOut = 1000L, expectedExceptions = CancellationException.class)
+	public void                     testAllAsListCancelled() throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f1 = new SettableFuture<Integer>();
+		ListenableFuture<List<Integer>> all = Futures.allAsList(f0, f1);
+		f1.cancel(true);
+		AssertJUnit.assertFalse(f0.isDone());
+		all.get();
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testSuccessfulAsList() throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f1 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f2 = new SettableFuture<Integer>();
+		ListenableFuture<List<Integer>> all = Futures.successfulAsList(f0, f1, f2);
+		f0.setException(new TestingRuntimeException());
+		f1.cancel(true);
+		AssertJUnit.assertFalse(all.isDone());
+		f2.set(2);
+		AssertJUnit.assertEquals(Arrays.asList(null, null, 2), all.get());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testFirstN() throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f1 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f2 = new SettableFuture<Integer>();
+		ListenableFuture<List<Integer>> first = Futures.firstN(2, f0, f1, f2);
+		f2.set(2);
+		f1.setException(new TestingRuntimeException());
+		AssertJUnit.assertFalse(first.isDone());
+		f0.set(0);
+		AssertJUnit.assertEquals(Arrays.asList(2, 0), first.get());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testFirstNCancelsStragglers() throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f1 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f2 = new SettableFuture<Integer>();
+		ListenableFuture<List<Integer>> quorum = Futures.quorum(f0, f1, f2);
+		f0.set(0);
+		f1.set(1);
+		AssertJUnit.assertEquals(Arrays.asList(0, 1), quorum.get());
+		AssertJUnit.assertTrue(f2.isCancelled());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testFirstNImpossible() throws InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f1 = new SettableFuture<Integer>();
+		SettableFuture<Integer> f2 = new SettableFuture<Integer>();
+		ListenableFuture<List<Integer>> first = Futures.firstN(2, Arrays.asList(f0, f1, f2));
+		f0.cancel(true);
+		AssertJUnit.assertFalse(first.isDone());
+		f1.setException(new TestingRuntimeException());
+		AssertJUnit.assertTrue(f2.isCancelled());
+		try {
+			first.get();
+			AssertJUnit.fail("first.get() did not throw ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			AssertJUnit.assertTrue(ex.getCause() instanceof TestingRuntimeException);
+		}
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testFirstNZero() throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		AssertJUnit.assertEquals(Collections.emptyList(), Futures.firstN(0, f0).get());
+		AssertJUnit.assertFalse(f0.isDone());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void                     testFirstNTooMany()
+	{
+		Futures.firstN(2, new SettableFuture<Integer>());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testWithTimeoutCompleted() throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		ListenableFuture<Integer> timed = f0.orTimeout(1, TimeUnit.SECONDS);
+		f0.set(0);
+		AssertJUnit.assertEquals(0, (int)timed.get());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testWithTimeoutExpired() throws InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		ListenableFuture<Integer> timed = Futures.withTimeout(f0, 10, TimeUnit.MILLISECONDS);
+		try {
+			timed.get();
+			AssertJUnit.fail("timed.get() did not throw ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			AssertJUnit.assertTrue(ex.getCause() instanceof TimeoutException);
+		}
+		AssertJUnit.assertTrue(f0.isCancelled());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testWithTimeoutMaxDelay() throws InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		ListenableFuture<Integer> timed = Futures.withTimeout(f0, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		ListenableFuture<Integer> cancelling = Futures.cancelAfter(f0, Long.MAX_VALUE, TimeUnit.DAYS);
+		Thread.sleep(20);
+		AssertJUnit.assertFalse(timed.isDone());
+		AssertJUnit.assertFalse(cancelling.isDone());
+		AssertJUnit.assertFalse(f0.isDone());
+	}
+
+	@Test(timeOut = 1000L)
+	public void                     testWithTimeoutFailed() throws InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		f0.setException(new TestingRuntimeException());
+		try {
+			Futures.withTimeout(f0, 10, TimeUnit.MILLISECONDS).get();
+			AssertJUnit.fail("get() did not throw ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			AssertJUnit.assertTrue(ex.getCause() instanceof TestingRuntimeException);
+		}
+	}
+
+	@Test(timeOut = 1000L, expectedExceptions = CancellationException.class)
+	public void                     testCancelAfter() throws ExecutionException, InterruptedException
+	{
+		SettableFuture<Integer> f0 = new SettableFuture<Integer>();
+		Futures.cancelAfter(f0, 10, TimeUnit.MILLISECONDS).get();
+	}
+
 	@Test(timeOut = 1000L)
 	public void			testSuccessFuture() throws ExecutionException, InterruptedException
 	{
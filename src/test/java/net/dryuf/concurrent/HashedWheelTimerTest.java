@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class HashedWheelTimerTest
+{
+	@Test(timeOut = 2000L)
+	public void                     testExpire() throws InterruptedException
+	{
+		try (HashedWheelTimer timer = createTimer()) {
+			CountDownLatch latch = new CountDownLatch(1);
+			long started = System.nanoTime();
+			HashedWheelTimer.Timeout timeout = timer.newTimeout(latch::countDown, 50, TimeUnit.MILLISECONDS);
+			latch.await();
+			AssertJUnit.assertTrue(System.nanoTime()-started >= TimeUnit.MILLISECONDS.toNanos(50));
+			AssertJUnit.assertTrue(timeout.isExpired());
+			AssertJUnit.assertFalse(timeout.cancel());
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testCancel() throws InterruptedException
+	{
+		try (HashedWheelTimer timer = createTimer()) {
+			AtomicInteger counter = new AtomicInteger();
+			HashedWheelTimer.Timeout timeout = timer.newTimeout(counter::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+			AssertJUnit.assertTrue(timeout.cancel());
+			AssertJUnit.assertTrue(timeout.isCancelled());
+			AssertJUnit.assertFalse(timeout.cancel());
+			Thread.sleep(60);
+			AssertJUnit.assertEquals(0, counter.get());
+		}
+	}
+
+	@Test(timeOut = 5000L)
+	public void                     testMany() throws InterruptedException
+	{
+		try (HashedWheelTimer timer = createTimer()) {
+			int count = 100_000;
+			CountDownLatch latch = new CountDownLatch(count/2);
+			AtomicInteger cancelledRun = new AtomicInteger();
+			int expired = 0;
+			for (int i = 0; i < count; ++i) {
+				if (i%2 == 0) {
+					timer.newTimeout(latch::countDown, i%100, TimeUnit.MILLISECONDS);
+				}
+				else if (!timer.newTimeout(cancelledRun::incrementAndGet, i%100, TimeUnit.MILLISECONDS).cancel()) {
+					// expired before cancelled, possible on short timeouts
+					++expired;
+				}
+			}
+			latch.await();
+			// the timer thread runs the tasks in order, so all previously expired tasks finished before this one:
+			CountDownLatch finished = new CountDownLatch(1);
+			timer.newTimeout(finished::countDown, 0, TimeUnit.MILLISECONDS);
+			finished.await();
+			AssertJUnit.assertEquals(expired, cancelledRun.get());
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testIdleWakeup() throws InterruptedException
+	{
+		try (HashedWheelTimer timer = createTimer()) {
+			CountDownLatch first = new CountDownLatch(1);
+			timer.newTimeout(first::countDown, 1, TimeUnit.MILLISECONDS);
+			first.await();
+			Thread.sleep(20);
+			CountDownLatch second = new CountDownLatch(1);
+			timer.newTimeout(second::countDown, 1, TimeUnit.MILLISECONDS);
+			second.await();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testMaxDelay() throws InterruptedException
+	{
+		try (HashedWheelTimer timer = createTimer()) {
+			AtomicInteger counter = new AtomicInteger();
+			HashedWheelTimer.Timeout timeout = timer.newTimeout(counter::incrementAndGet, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			HashedWheelTimer.Timeout timeoutDays = timer.newTimeout(counter::incrementAndGet, Long.MAX_VALUE, TimeUnit.DAYS);
+			CountDownLatch latch = new CountDownLatch(1);
+			timer.newTimeout(latch::countDown, 20, TimeUnit.MILLISECONDS);
+			latch.await();
+			AssertJUnit.assertEquals(0, counter.get());
+			AssertJUnit.assertFalse(timeout.isExpired());
+			AssertJUnit.assertTrue(timeoutDays.cancel());
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testThrowingTask() throws InterruptedException
+	{
+		try (HashedWheelTimer timer = createTimer()) {
+			timer.newTimeout(() -> { throw new AssertionError("expected"); }, 1, TimeUnit.MILLISECONDS);
+			CountDownLatch latch = new CountDownLatch(1);
+			timer.newTimeout(latch::countDown, 5, TimeUnit.MILLISECONDS);
+			latch.await();
+		}
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void                     testClosed()
+	{
+		HashedWheelTimer timer = createTimer();
+		timer.close();
+		timer.newTimeout(() -> {}, 1, TimeUnit.MILLISECONDS);
+	}
+
+	private static HashedWheelTimer createTimer()
+	{
+		return new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 64, Executors.defaultThreadFactory(), null);
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+public class ListenableLongFutureTaskTest
+{
+	@Test(timeOut = 1000L)
+	public void                     testSuccess() throws ExecutionException, InterruptedException
+	{
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ListenableLongFutureTask future = new ListenableLongFutureTask(() -> {
+				Thread.sleep(1);
+				return Long.MAX_VALUE;
+			});
+			executor.execute(future);
+			AssertJUnit.assertEquals(Long.MAX_VALUE, future.getLong());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(timeOut = 1000L, expectedExceptions = ExecutionException.class)
+	public void                     testFailure() throws ExecutionException, InterruptedException
+	{
+		ListenableLongFutureTask future = new ListenableLongFutureTask(() -> {
+			throw new TestingRuntimeException();
+		});
+		future.run();
+		future.getLong();
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+public class SettableIntFutureTest
+{
+	@Test
+	public void                     testSuccess() throws ExecutionException, InterruptedException
+	{
+		final AtomicReference<Object> direct = new AtomicReference<Object>();
+		final AtomicReference<Object> async = new AtomicReference<Object>();
+		SettableIntFuture future = new SettableIntFuture();
+		future.addIntListener(direct::set, null, null);
+		future.addAsyncIntListener(async::set, null, null, ListeningExecutors.directExecutor());
+		AssertJUnit.assertTrue(future.setInt((int)1000));
+		AssertJUnit.assertEquals((Integer)(int)1000, direct.get());
+		AssertJUnit.assertEquals((Integer)(int)1000, async.get());
+		AssertJUnit.assertEquals((int)1000, future.getInt());
+		AssertJUnit.assertEquals((Integer)(int)1000, future.get());
+	}
+
+	@Test(expectedExceptions = ExecutionException.class)
+	public void                     testException() throws ExecutionException, InterruptedException
+	{
+		SettableIntFuture future = new SettableIntFuture();
+		future.setException(new NumberFormatException());
+		future.getInt();
+	}
+}
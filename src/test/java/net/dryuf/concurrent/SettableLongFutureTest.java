@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+public class SettableLongFutureTest
+{
+	@Test
+	public void                     testSuccess() throws ExecutionException, InterruptedException
+	{
+		final AtomicLong direct = new AtomicLong();
+		final AtomicLong async = new AtomicLong();
+		TestListener<Long> boxed = new TestListener<Long>();
+		SettableLongFuture future = new SettableLongFuture();
+		future.addLongListener(direct::set, null, null);
+		future.addAsyncLongListener(async::set, null, null, ListeningExecutors.directExecutor());
+		future.addListener(boxed);
+		AssertJUnit.assertTrue(future.setLong(1000L));
+		AssertJUnit.assertEquals(1000L, direct.get());
+		AssertJUnit.assertEquals(1000L, async.get());
+		AssertJUnit.assertEquals(1000L, (long)(Long)boxed.getValue());
+		AssertJUnit.assertEquals(1000L, future.getLong());
+		AssertJUnit.assertEquals(1000L, (long)future.get());
+		AssertJUnit.assertFalse(future.setLong(1L));
+	}
+
+	@Test
+	public void                     testBoxedSet() throws ExecutionException, InterruptedException
+	{
+		SettableLongFuture future = new SettableLongFuture();
+		AssertJUnit.assertTrue(future.set(5L));
+		AssertJUnit.assertEquals(5L, future.getLong());
+	}
+
+	@Test
+	public void                     testException() throws InterruptedException
+	{
+		final AtomicReference<Object> listener = new AtomicReference<Object>();
+		SettableLongFuture future = new SettableLongFuture();
+		future.addLongListener(new LongFutureListener() {
+			@Override
+			public void onSuccess(long result) {
+				listener.set(result);
+			}
+
+			@Override
+			public void onFailure(Throwable ex) {
+				listener.set(ex);
+			}
+
+			@Override
+			public void onCancelled() {
+				listener.set(TestListener.CANCELLED);
+			}
+		});
+		future.setException(new NumberFormatException());
+		AssertJUnit.assertTrue(listener.get() instanceof NumberFormatException);
+		try {
+			future.getLong();
+			AssertJUnit.fail("Previous statement should have thrown an exception.");
+		}
+		catch (ExecutionException ex) {
+			AssertJUnit.assertTrue(ex.getCause() instanceof NumberFormatException);
+		}
+	}
+
+	@Test(expectedExceptions = CancellationException.class)
+	public void                     testCancel() throws ExecutionException, InterruptedException
+	{
+		final AtomicReference<Object> listener = new AtomicReference<Object>();
+		SettableLongFuture future = new SettableLongFuture();
+		future.addAsyncLongListener(null, null, () -> listener.set(TestListener.CANCELLED), ListeningExecutors.directExecutor());
+		future.cancel(true);
+		AssertJUnit.assertSame(TestListener.CANCELLED, listener.get());
+		future.getLong();
+	}
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2015-2022 Zbynek Vyskovsky mailto:kvr000@gmail.com http://github.com/kvr000/ https://github.com/dryuf/ https://www.linkedin.com/in/zbynek-vyskovsky/
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dryuf.concurrent;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class TimingWheelScheduledExecutorServiceTest
+{
+	@AfterClass
+	public void                     teardown()
+	{
+		workers.shutdown();
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testSchedule() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		try {
+			long started = System.nanoTime();
+			ListenableScheduledFuture<Integer> future = executor.schedule(() -> 1, 50, TimeUnit.MILLISECONDS);
+			AssertJUnit.assertTrue(future.getDelay(TimeUnit.MILLISECONDS) > 0);
+			AssertJUnit.assertEquals(1, (int) future.get());
+			AssertJUnit.assertTrue(System.nanoTime()-started >= TimeUnit.MILLISECONDS.toNanos(50));
+			AssertJUnit.assertTrue(future.getDelay(TimeUnit.MILLISECONDS) <= 0);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testScheduleException() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		try {
+			ListenableScheduledFuture<Integer> future = executor.schedule(() -> { throw new TestingRuntimeException(); }, 1, TimeUnit.MILLISECONDS);
+			try {
+				future.get();
+				AssertJUnit.fail("Expected ExecutionException");
+			}
+			catch (ExecutionException ex) {
+				AssertJUnit.assertTrue(ex.getCause() instanceof TestingRuntimeException);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testCancel() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		try {
+			AtomicInteger counter = new AtomicInteger();
+			ListenableScheduledFuture<?> future = executor.schedule(counter::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+			AssertJUnit.assertTrue(future.cancel(true));
+			AssertJUnit.assertTrue(future.isCancelled());
+			Thread.sleep(60);
+			AssertJUnit.assertEquals(0, counter.get());
+			try {
+				future.get();
+				AssertJUnit.fail("Expected CancellationException");
+			}
+			catch (CancellationException ex) {
+				// expected
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 5000L)
+	public void                     testCascade() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(100, TimeUnit.MICROSECONDS);
+		try {
+			long started = System.nanoTime();
+			// 5000 ticks, placed into level 2 and cascaded twice:
+			ListenableScheduledFuture<Integer> future2 = executor.schedule(() -> 2, 500, TimeUnit.MILLISECONDS);
+			// 1000 ticks, placed into level 1:
+			ListenableScheduledFuture<Integer> future1 = executor.schedule(() -> 1, 100, TimeUnit.MILLISECONDS);
+			AssertJUnit.assertEquals(1, (int) future1.get());
+			AssertJUnit.assertFalse(future2.isDone());
+			AssertJUnit.assertTrue(System.nanoTime()-started >= TimeUnit.MILLISECONDS.toNanos(100));
+			AssertJUnit.assertEquals(2, (int) future2.get());
+			AssertJUnit.assertTrue(System.nanoTime()-started >= TimeUnit.MILLISECONDS.toNanos(500));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 5000L)
+	public void                     testMany() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		try {
+			int count = 100_000;
+			CountDownLatch latch = new CountDownLatch(count/2);
+			AtomicInteger cancelledRun = new AtomicInteger();
+			int expired = 0;
+			for (int i = 0; i < count; ++i) {
+				if (i%2 == 0) {
+					executor.schedule(latch::countDown, i%200, TimeUnit.MILLISECONDS);
+				}
+				else if (!executor.schedule(cancelledRun::incrementAndGet, i%200, TimeUnit.MILLISECONDS).cancel(false)) {
+					// already run before cancelled, possible on short delays
+					++expired;
+				}
+			}
+			latch.await();
+			Thread.sleep(5);
+			AssertJUnit.assertEquals(expired, cancelledRun.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testFixedRate() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		try {
+			CountDownLatch latch = new CountDownLatch(5);
+			ListenableScheduledFuture<?> future = executor.scheduleAtFixedRate(latch::countDown, 0, 5, TimeUnit.MILLISECONDS);
+			latch.await();
+			AssertJUnit.assertFalse(future.isDone());
+			AssertJUnit.assertTrue(future.cancel(false));
+			AssertJUnit.assertTrue(future.isCancelled());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testFixedDelay() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		try {
+			CountDownLatch latch = new CountDownLatch(5);
+			ListenableScheduledFuture<?> future = executor.scheduleWithFixedDelay(latch::countDown, 0, 5, TimeUnit.MILLISECONDS);
+			latch.await();
+			AssertJUnit.assertTrue(future.cancel(false));
+			int count = (int) latch.getCount();
+			Thread.sleep(20);
+			AssertJUnit.assertEquals(count, latch.getCount());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testFixedRateFailure() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		try {
+			AtomicInteger counter = new AtomicInteger();
+			ListenableScheduledFuture<?> future = executor.scheduleAtFixedRate(() -> {
+				if (counter.incrementAndGet() == 3)
+					throw new TestingRuntimeException();
+			}, 0, 1, TimeUnit.MILLISECONDS);
+			try {
+				future.get();
+				AssertJUnit.fail("Expected ExecutionException");
+			}
+			catch (ExecutionException ex) {
+				AssertJUnit.assertTrue(ex.getCause() instanceof TestingRuntimeException);
+			}
+			AssertJUnit.assertEquals(3, counter.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testShutdown() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		ListenableScheduledFuture<Integer> oneShot = executor.schedule(() -> 1, 20, TimeUnit.MILLISECONDS);
+		ListenableScheduledFuture<?> periodic = executor.scheduleAtFixedRate(() -> {}, 0, 1, TimeUnit.MILLISECONDS);
+		executor.shutdown();
+		AssertJUnit.assertTrue(executor.isShutdown());
+		try {
+			executor.schedule(() -> 2, 1, TimeUnit.MILLISECONDS);
+			AssertJUnit.fail("Expected RejectedExecutionException");
+		}
+		catch (RejectedExecutionException ex) {
+			// expected
+		}
+		AssertJUnit.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+		AssertJUnit.assertTrue(executor.isTerminated());
+		AssertJUnit.assertEquals(1, (int) oneShot.get());
+		AssertJUnit.assertTrue(periodic.isCancelled());
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testShutdownNow() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		ListenableScheduledFuture<Integer> future = executor.schedule(() -> 1, 1, TimeUnit.SECONDS);
+		List<Runnable> remaining = executor.shutdownNow();
+		AssertJUnit.assertTrue(executor.isTerminated());
+		AssertJUnit.assertEquals(1, remaining.size());
+		AssertJUnit.assertSame(future, remaining.get(0));
+		AssertJUnit.assertFalse(future.isDone());
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testMaxDelay() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		try {
+			AtomicInteger counter = new AtomicInteger();
+			ListenableScheduledFuture<?> future = executor.schedule(counter::incrementAndGet, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			ListenableScheduledFuture<?> futureDays = executor.schedule(counter::incrementAndGet, Long.MAX_VALUE, TimeUnit.DAYS);
+			ListenableScheduledFuture<?> periodic = executor.scheduleAtFixedRate(counter::incrementAndGet, Long.MAX_VALUE, Long.MAX_VALUE, TimeUnit.DAYS);
+			executor.schedule(() -> null, 20, TimeUnit.MILLISECONDS).get();
+			AssertJUnit.assertEquals(0, counter.get());
+			AssertJUnit.assertFalse(future.isDone());
+			AssertJUnit.assertTrue(futureDays.cancel(false));
+			AssertJUnit.assertTrue(periodic.cancel(false));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testAwaitTerminationWaitsForRunningTask() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = createExecutor(1, TimeUnit.MILLISECONDS);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ListenableScheduledFuture<?> future = executor.schedule(() -> {
+			started.countDown();
+			release.await();
+			return null;
+		}, 0, TimeUnit.MILLISECONDS);
+		try {
+			started.await();
+			executor.shutdown();
+			AssertJUnit.assertFalse(executor.awaitTermination(20, TimeUnit.MILLISECONDS));
+			AssertJUnit.assertFalse(executor.isTerminated());
+		}
+		finally {
+			release.countDown();
+		}
+		AssertJUnit.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+		AssertJUnit.assertTrue(executor.isTerminated());
+		AssertJUnit.assertTrue(future.isDone());
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testLazyStart() throws Exception
+	{
+		AtomicInteger created = new AtomicInteger();
+		TimingWheelScheduledExecutorService executor = new TimingWheelScheduledExecutorService(workers, 1, TimeUnit.MILLISECONDS, runnable -> {
+			created.incrementAndGet();
+			Thread thread = new Thread(runnable, "timing-wheel-test");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			AssertJUnit.assertEquals(0, created.get());
+			executor.submit(() -> 0).get();
+			AssertJUnit.assertEquals(0, executor.schedule(() -> 0, 0, TimeUnit.MILLISECONDS).get().intValue());
+			AssertJUnit.assertEquals(0, created.get());
+			AssertJUnit.assertEquals(1, executor.schedule(() -> 1, 10, TimeUnit.MILLISECONDS).get().intValue());
+			AssertJUnit.assertEquals(2, executor.schedule(() -> 2, 10, TimeUnit.MILLISECONDS).get().intValue());
+			AssertJUnit.assertEquals(1, created.get());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(timeOut = 2000L)
+	public void                     testShutdownNotStarted() throws Exception
+	{
+		TimingWheelScheduledExecutorService executor = new TimingWheelScheduledExecutorService(workers, 1, TimeUnit.MILLISECONDS, runnable -> {
+			throw new AssertionError("Timer thread not expected");
+		});
+		executor.shutdown();
+		AssertJUnit.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+		AssertJUnit.assertTrue(executor.isTerminated());
+		AssertJUnit.assertTrue(executor.shutdownNow().isEmpty());
+		try {
+			executor.schedule(() -> 1, 10, TimeUnit.MILLISECONDS);
+			AssertJUnit.fail("Expected RejectedExecutionException");
+		}
+		catch (RejectedExecutionException ex) {
+			// expected
+		}
+	}
+
+	private TimingWheelScheduledExecutorService createExecutor(long tick, TimeUnit unit)
+	{
+		return new TimingWheelScheduledExecutorService(workers, tick, unit, runnable -> {
+			Thread thread = new Thread(runnable, "timing-wheel-test");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private final ExecutorService   workers = Executors.newFixedThreadPool(4);
+}
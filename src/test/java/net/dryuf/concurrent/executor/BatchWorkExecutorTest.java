@@ -6,10 +6,14 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -156,4 +160,292 @@ public class BatchWorkExecutorTest
 			BatchWorkExecutor.PENDING_MAX = old;
 		}
 	}
+
+	@Test(timeOut = 10_000L)
+	public void linger_underMinSize_waits() throws Exception
+	{
+		List<Integer> sizes = new ArrayList<>();
+		try (BatchWorkExecutor<Integer, Integer> executor = new BatchWorkExecutor<>(
+			new ClosingExecutor(Executors.newCachedThreadPool()),
+			100,
+			10,
+			100,
+			TimeUnit.MILLISECONDS,
+			l -> {
+				synchronized (sizes) {
+					sizes.add(l.size());
+				}
+				return l.stream().map(v -> CompletableFuture.completedFuture(v*v)).collect(Collectors.toList());
+			}
+		)) {
+			long start = System.nanoTime();
+			CompletableFuture<Integer> f1 = executor.submit(1);
+			CompletableFuture<Integer> f2 = executor.submit(2);
+			CompletableFuture<Integer> f3 = executor.submit(3);
+			Assert.assertEquals((int) f3.get(), 9);
+			Assert.assertTrue(System.nanoTime()-start >= TimeUnit.MILLISECONDS.toNanos(90), "linger not applied");
+			Assert.assertEquals((int) f1.get(), 1);
+			Assert.assertEquals((int) f2.get(), 4);
+		}
+		Assert.assertEquals(sizes, Arrays.asList(3));
+	}
+
+	@Test(timeOut = 10_000L)
+	public void linger_minSize_flushesImmediately() throws Exception
+	{
+		List<Integer> sizes = new ArrayList<>();
+		try (BatchWorkExecutor<Integer, Integer> executor = new BatchWorkExecutor<>(
+			new ClosingExecutor(Executors.newCachedThreadPool()),
+			100,
+			10,
+			1,
+			TimeUnit.HOURS,
+			l -> {
+				synchronized (sizes) {
+					sizes.add(l.size());
+				}
+				return l.stream().map(v -> CompletableFuture.completedFuture(v*v)).collect(Collectors.toList());
+			}
+		)) {
+			List<CompletableFuture<Integer>> futures = IntStream.range(0, 10)
+				.mapToObj(executor::submit)
+				.collect(Collectors.toList());
+			Assert.assertEquals((int) futures.get(9).get(), 81);
+			CompletableFuture<Integer> last = executor.submit(10);
+			Assert.assertFalse(last.isDone());
+		}
+		Assert.assertEquals(sizes.stream().mapToInt(Integer::intValue).sum(), 11);
+	}
+
+	@Test(timeOut = 10_000L)
+	public void linger_flushedEarly_cancelsTimeout() throws Exception
+	{
+		try (BatchWorkExecutor<Integer, Integer> executor = new BatchWorkExecutor<>(
+			new ClosingExecutor(Executors.newCachedThreadPool()),
+			100,
+			2,
+			1,
+			TimeUnit.HOURS,
+			l -> l.stream().map(v -> CompletableFuture.completedFuture(v*v)).collect(Collectors.toList())
+		)) {
+			CompletableFuture<Integer> first = executor.submit(1);
+			Assert.assertFalse(first.isDone());
+			BatchWorkExecutor.Linger linger = executor.linger;
+			Assert.assertNotNull(linger);
+			Assert.assertFalse(linger.timeout.isCancelled());
+			Assert.assertEquals((int) executor.submit(2).get(), 4);
+			Assert.assertEquals((int) first.get(), 1);
+			Assert.assertTrue(linger.timeout.isCancelled());
+
+			CompletableFuture<Integer> last = executor.submit(3);
+			Assert.assertFalse(last.isDone());
+			linger = executor.linger;
+			executor.close();
+			Assert.assertEquals((int) last.get(), 9);
+			Assert.assertTrue(linger.timeout.isCancelled());
+		}
+	}
+
+	@Test(timeOut = 10_000L)
+	public void weigher_batches_limitedByWeight() throws Exception
+	{
+		List<Integer> weights = new ArrayList<>();
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		try (BatchWorkExecutor<Integer, Integer> executor = new BatchWorkExecutor<>(
+			new ClosingExecutor(Executors.newFixedThreadPool(4)),
+			100,
+			Integer::longValue,
+			1000,
+			Long.MAX_VALUE,
+			1,
+			0,
+			TimeUnit.NANOSECONDS,
+			l -> {
+				synchronized (weights) {
+					weights.add(l.stream().mapToInt(Integer::intValue).sum());
+				}
+				return l.stream().map(v -> CompletableFuture.completedFuture(-v)).collect(Collectors.toList());
+			}
+		)) {
+			for (int i = 0; i < 10_000; ++i) {
+				futures.add(executor.submit(i%10 == 0 ? 5000 : i%300));
+			}
+		}
+		for (int i = 0; i < 10_000; ++i) {
+			Assert.assertEquals((int) futures.get(i).get(), -(i%10 == 0 ? 5000 : i%300));
+		}
+		for (int weight: weights) {
+			Assert.assertTrue(weight <= 1000 || weight == 5000, "Batch exceeding weight: "+weight);
+		}
+	}
+
+	@Test(timeOut = 10_000L)
+	public void weigher_pendingWeight_blocks() throws Exception
+	{
+		CompletableFuture<Void> entered = new CompletableFuture<>();
+		CompletableFuture<Void> release = new CompletableFuture<>();
+		AtomicInteger itemsCount = new AtomicInteger();
+		ExecutorService submitter = Executors.newSingleThreadExecutor();
+		try (BatchWorkExecutor<Integer, Integer> executor = new BatchWorkExecutor<>(
+			new ClosingExecutor(Executors.newCachedThreadPool()),
+			1,
+			Integer::longValue,
+			Long.MAX_VALUE,
+			100,
+			1,
+			0,
+			TimeUnit.NANOSECONDS,
+			l -> {
+				entered.complete(null);
+				release.join();
+				itemsCount.addAndGet(l.size());
+				return l.stream().map(v -> CompletableFuture.completedFuture(-v)).collect(Collectors.toList());
+			}
+		)) {
+			try {
+				executor.submit(10);
+				entered.get();
+				executor.submit(60);
+				executor.submit(60);
+				CompletableFuture<CompletableFuture<Integer>> blocked = CompletableFuture.supplyAsync(() -> executor.submit(60), submitter);
+				Thread.sleep(100);
+				Assert.assertFalse(blocked.isDone(), "Submit not blocked by pending weight");
+				release.complete(null);
+				Assert.assertEquals((int) blocked.get().get(), -60);
+			}
+			finally {
+				release.complete(null);
+			}
+		}
+		finally {
+			submitter.shutdown();
+		}
+		Assert.assertEquals(itemsCount.get(), 4);
+	}
+
+	@Test(timeOut = 20_000L)
+	public void maxInFlight_asyncProcessor_limited() throws Exception
+	{
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		AtomicInteger itemsCount = new AtomicInteger();
+		ScheduledExecutorService downstream = Executors.newSingleThreadScheduledExecutor();
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		try (BatchWorkExecutor<Integer, Integer> executor = new BatchWorkExecutor<>(
+			new ClosingExecutor(Executors.newFixedThreadPool(4)),
+			10,
+			3,
+			l -> {
+				int current = inFlight.incrementAndGet();
+				maxInFlight.accumulateAndGet(current, Math::max);
+				itemsCount.addAndGet(l.size());
+				List<Integer> values = new ArrayList<>(l);
+				List<CompletableFuture<Integer>> results = values.stream().map(v -> new CompletableFuture<Integer>()).collect(Collectors.toList());
+				downstream.schedule(() -> {
+					inFlight.decrementAndGet();
+					for (int j = 0; j < values.size(); ++j) {
+						results.get(j).complete(-values.get(j));
+					}
+				}, 1, TimeUnit.MILLISECONDS);
+				return results;
+			}
+		)) {
+			for (int i = 0; i < 2000; ++i) {
+				futures.add(executor.submit(i));
+			}
+			for (int i = 0; i < 2000; ++i) {
+				Assert.assertEquals((int) futures.get(i).get(), -i);
+			}
+		}
+		finally {
+			downstream.shutdown();
+		}
+		Assert.assertEquals(itemsCount.get(), 2000);
+		Assert.assertTrue(maxInFlight.get() <= 3, "Exceeded in flight: "+maxInFlight.get());
+	}
+
+	@Test(timeOut = 20_000L)
+	public void submit_manyProducers_allProcessed() throws Exception
+	{
+		int old = BatchWorkExecutor.PENDING_MAX;
+		BatchWorkExecutor.PENDING_MAX = 1000;
+		ExecutorService producerPool = Executors.newFixedThreadPool(16);
+		try {
+			AtomicInteger itemsCount = new AtomicInteger();
+			List<CompletableFuture<Void>> producers = new ArrayList<>();
+			try (BatchWorkExecutor<Integer, Integer> executor = new BatchWorkExecutor<>(
+				new ClosingExecutor(Executors.newFixedThreadPool(4)),
+				100,
+				l -> {
+					itemsCount.addAndGet(l.size());
+					return l.stream().map(v -> CompletableFuture.completedFuture(-v)).collect(Collectors.toList());
+				}
+			)) {
+				for (int p = 0; p < 16; ++p) {
+					producers.add(CompletableFuture.runAsync(() -> {
+						List<CompletableFuture<Integer>> futures = new ArrayList<>();
+						for (int i = 0; i < 10_000; ++i) {
+							futures.add(executor.submit(i));
+						}
+						for (int i = 0; i < 10_000; ++i) {
+							Assert.assertEquals((int) futures.get(i).join(), -i);
+						}
+					}, producerPool));
+				}
+				CompletableFuture.allOf(producers.toArray(new CompletableFuture[0])).get();
+			}
+			Assert.assertEquals(itemsCount.get(), 160_000);
+		}
+		finally {
+			producerPool.shutdown();
+			BatchWorkExecutor.PENDING_MAX = old;
+		}
+	}
+
+	@Test(timeOut = 30_000L)
+	public void close_concurrentSubmit_allFinishedBeforeClose() throws Exception
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		ExecutorService producerPool = Executors.newSingleThreadExecutor();
+		try {
+			for (int round = 0; round < 200; ++round) {
+				AtomicInteger itemsCount = new AtomicInteger();
+				BatchWorkExecutor<Integer, Integer> executor = new BatchWorkExecutor<>(
+					new NotClosingExecutor(pool),
+					10,
+					l -> {
+						itemsCount.addAndGet(l.size());
+						return l.stream().map(v -> CompletableFuture.completedFuture(v)).collect(Collectors.toList());
+					}
+				);
+				List<CompletableFuture<Integer>> futures = new ArrayList<>();
+				CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+					try {
+						for (int i = 0; ; ++i) {
+							futures.add(executor.submit(i));
+							if ((i&15) == 0) {
+								Thread.yield();
+							}
+						}
+					}
+					catch (RejectedExecutionException ex) {
+						// closed
+					}
+				}, producerPool);
+				Thread.yield();
+				executor.close();
+				int processed = itemsCount.get();
+				producer.get();
+				for (CompletableFuture<Integer> future: futures) {
+					Assert.assertTrue(future.isDone());
+				}
+				Assert.assertEquals(itemsCount.get(), processed);
+				Assert.assertEquals(processed, futures.size());
+			}
+		}
+		finally {
+			producerPool.shutdown();
+			pool.shutdown();
+		}
+	}
 }
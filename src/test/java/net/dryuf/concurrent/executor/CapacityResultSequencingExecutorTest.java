@@ -3,8 +3,17 @@ package net.dryuf.concurrent.executor;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 
 /**
@@ -53,4 +62,105 @@ public class CapacityResultSequencingExecutorTest
 		}
 		Assert.assertTrue(System.currentTimeMillis()-start >= 400, "time not parallel");
 	}
+
+	@Test(timeOut = 10000L)
+	public void testCountOverDefaultRingSize() throws Exception
+	{
+		int count = ResultSequencingRing.DEFAULT_SIZE*2;
+		CountDownLatch blocker = new CountDownLatch(1);
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		try (CloseableExecutor pool = new ClosingExecutor(Executors.newSingleThreadExecutor());
+		     CapacityResultSequencingExecutor executor = new CapacityResultSequencingExecutor(count, count, new NotClosingExecutor(Runnable::run))) {
+			futures.add(executor.submit(1, () -> { blocker.await(); return 0; }, pool));
+			for (int i = 1; i < count; ++i) {
+				final int i0 = i;
+				// would block the caller if the count was limited:
+				futures.add(executor.submit(1, () -> i0));
+			}
+			Assert.assertFalse(futures.get(count-1).isDone());
+			blocker.countDown();
+		}
+		finally {
+			blocker.countDown();
+		}
+		Assert.assertEquals((int) futures.get(count-1).get(), count-1);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testNonPositiveCount()
+	{
+		new CapacityResultSequencingExecutor(1, 0, new NotClosingExecutor(Runnable::run));
+	}
+
+	@Test(timeOut = 1800L)
+	public void testOverCapacity() throws Exception
+	{
+		try (CapacityResultSequencingExecutor executor = new CapacityResultSequencingExecutor(4, 4)) {
+			Assert.assertEquals((int) executor.submit(10, () -> 1).get(), 1);
+			Assert.assertEquals((int) executor.submit(10, () -> 2).get(), 2);
+		}
+	}
+
+	@Test(timeOut = 10000L)
+	public void testHeavyNotStarved() throws Exception
+	{
+		AtomicBoolean stop = new AtomicBoolean();
+		try (CloseableExecutor pool = new ClosingExecutor(Executors.newFixedThreadPool(4));
+		     CapacityResultSequencingExecutor executor = new CapacityResultSequencingExecutor(8, 1000, pool)) {
+			Callable<Integer> light = () -> { Thread.sleep(1); return 1; };
+			CompletableFuture<Void> producers = CompletableFuture.allOf(
+				CompletableFuture.runAsync(() -> { while (!stop.get()) executor.submit(1, light); }),
+				CompletableFuture.runAsync(() -> { while (!stop.get()) executor.submit(1, light); })
+			);
+			Thread.sleep(50);
+			CompletableFuture<Integer> heavy = CompletableFuture.supplyAsync(() -> executor.submit(8, () -> 8))
+				.thenCompose(f -> f);
+			try {
+				Assert.assertEquals((int) heavy.get(5, TimeUnit.SECONDS), 8);
+			}
+			finally {
+				stop.set(true);
+				producers.get();
+			}
+		}
+	}
+
+	@Test(timeOut = 10000L)
+	public void testSubmitAsync() throws Exception
+	{
+		List<Integer> result = new ArrayList<>();
+		CountDownLatch blocker = new CountDownLatch(1);
+		AtomicInteger started = new AtomicInteger();
+		try (CloseableExecutor pool = new ClosingExecutor(Executors.newFixedThreadPool(4));
+		     CapacityResultSequencingExecutor executor = new CapacityResultSequencingExecutor(2, 2, pool)) {
+			executor.submitAsync(2, () -> { blocker.await(); return 0; })
+				.thenAccept(result::add);
+			for (int i = 1; i < 100; ++i) {
+				final int i0 = i;
+				executor.submitAsync(1+(i&1), () -> { started.incrementAndGet(); return i0; })
+					.thenAccept(result::add);
+			}
+			Thread.sleep(50);
+			Assert.assertEquals(started.get(), 0);
+			blocker.countDown();
+		}
+		Assert.assertEquals(started.get(), 99);
+		Assert.assertEquals(result, IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+	}
+
+	@Test(timeOut = 10000L)
+	public void testSubmitAsyncMixed() throws Exception
+	{
+		List<Integer> result = new ArrayList<>();
+		try (CloseableExecutor pool = new ClosingExecutor(Executors.newFixedThreadPool(4));
+		     CapacityResultSequencingExecutor executor = new CapacityResultSequencingExecutor(4, 3, pool)) {
+			for (int i = 0; i < 1000; ++i) {
+				final int i0 = i;
+				Callable<Integer> task = () -> { if ((i0&15) == 0) Thread.sleep(1); return i0; };
+				((i&3) == 0 ? executor.submit(1+(i&3), task) : executor.submitAsync(1+(i&3), task))
+					.thenAccept(result::add);
+			}
+		}
+		Assert.assertEquals(result, IntStream.range(0, 1000).boxed().collect(Collectors.toList()));
+	}
 }
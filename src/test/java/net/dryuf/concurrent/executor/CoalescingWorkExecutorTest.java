@@ -0,0 +1,174 @@
+package net.dryuf.concurrent.executor;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+
+
+public class CoalescingWorkExecutorTest
+{
+	@Test(timeOut = 10_000L)
+	public void submit_concurrentSameKey_processedOnce() throws Exception
+	{
+		AtomicInteger executions = new AtomicInteger();
+		CompletableFuture<Void> release = new CompletableFuture<>();
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		try (CoalescingWorkExecutor<Integer, Integer> executor = new CoalescingWorkExecutor<>(
+			new SingleWorkExecutor<>(
+				new ClosingExecutor(Executors.newCachedThreadPool()),
+				v -> {
+					executions.incrementAndGet();
+					release.join();
+					return v*v;
+				}
+			)
+		)) {
+			for (int i = 0; i < 100; ++i) {
+				futures.add(executor.submit(i%2));
+			}
+			release.complete(null);
+			for (int i = 0; i < 100; ++i) {
+				Assert.assertEquals((int) futures.get(i).get(), i%2);
+			}
+			Assert.assertEquals(executions.get(), 2);
+
+			Assert.assertEquals((int) executor.submit(3).get(), 9);
+			Assert.assertEquals((int) executor.submit(3).get(), 9);
+			Assert.assertEquals(executions.get(), 4);
+		}
+	}
+
+	@Test(timeOut = 10_000L)
+	public void submit_keyExtractor_coalescedByKey() throws Exception
+	{
+		AtomicInteger executions = new AtomicInteger();
+		CompletableFuture<Void> release = new CompletableFuture<>();
+		try (CoalescingWorkExecutor<String, String> executor = new CoalescingWorkExecutor<>(
+			new SingleWorkExecutor<>(
+				new ClosingExecutor(Executors.newCachedThreadPool()),
+				v -> {
+					executions.incrementAndGet();
+					release.join();
+					return v.toUpperCase();
+				}
+			),
+			String::toLowerCase
+		)) {
+			CompletableFuture<String> f1 = executor.submit("a");
+			CompletableFuture<String> f2 = executor.submit("A");
+			Assert.assertNotSame(f2, f1);
+			release.complete(null);
+			Assert.assertEquals(f1.get(), "A");
+			Assert.assertEquals(f2.get(), "A");
+		}
+		Assert.assertEquals(executions.get(), 1);
+	}
+
+	@Test(timeOut = 10_000L)
+	public void submit_failure_removedAndPropagated() throws Exception
+	{
+		AtomicInteger executions = new AtomicInteger();
+		try (CoalescingWorkExecutor<Integer, Integer> executor = new CoalescingWorkExecutor<>(
+			new SingleWorkExecutor<>(
+				new ClosingExecutor(Executors.newCachedThreadPool()),
+				v -> {
+					executions.incrementAndGet();
+					throw new NumberFormatException();
+				}
+			)
+		)) {
+			ExecutionException ex = Assert.expectThrows(ExecutionException.class, () -> executor.submit(1).get());
+			assertThat(ex.getCause(), instanceOf(NumberFormatException.class));
+			ex = Assert.expectThrows(ExecutionException.class, () -> executor.submit(1).get());
+			assertThat(ex.getCause(), instanceOf(NumberFormatException.class));
+		}
+		Assert.assertEquals(executions.get(), 2);
+	}
+
+	@Test(timeOut = 10_000L)
+	public void submit_callerCancelled_othersCompleted() throws Exception
+	{
+		AtomicInteger executions = new AtomicInteger();
+		CompletableFuture<Void> release = new CompletableFuture<>();
+		try (CoalescingWorkExecutor<Integer, Integer> executor = new CoalescingWorkExecutor<>(
+			new SingleWorkExecutor<>(
+				new ClosingExecutor(Executors.newCachedThreadPool()),
+				v -> {
+					executions.incrementAndGet();
+					release.join();
+					return v*v;
+				}
+			)
+		)) {
+			CompletableFuture<Integer> f1 = executor.submit(2);
+			CompletableFuture<Integer> f2 = executor.submit(2);
+			Assert.assertTrue(f1.cancel(true));
+			release.complete(null);
+			Assert.assertEquals((int) f2.get(), 4);
+			Assert.assertTrue(f1.isCancelled());
+		}
+		Assert.assertEquals(executions.get(), 1);
+	}
+
+	@Test(timeOut = 10_000L)
+	public void submit_resultCancelled_removed() throws Exception
+	{
+		List<CompletableFuture<Integer>> results = new ArrayList<>();
+		CoalescingWorkExecutor<Integer, Integer> executor = new CoalescingWorkExecutor<>(
+			new WorkExecutor<Integer, Integer>()
+			{
+				@Override
+				public CompletableFuture<Integer> submit(Integer work)
+				{
+					CompletableFuture<Integer> result = new CompletableFuture<>();
+					results.add(result);
+					return result;
+				}
+
+				@Override
+				public void close()
+				{
+				}
+			}
+		);
+		CompletableFuture<Integer> f1 = executor.submit(1);
+		results.get(0).cancel(true);
+		Assert.assertTrue(f1.isCompletedExceptionally());
+		CompletableFuture<Integer> f2 = executor.submit(1);
+		Assert.assertEquals(results.size(), 2);
+		results.get(1).complete(1);
+		Assert.assertEquals((int) f2.get(), 1);
+	}
+
+	@Test(timeOut = 10_000L)
+	public void submit_rejected_thrown()
+	{
+		CoalescingWorkExecutor<Integer, Integer> executor = new CoalescingWorkExecutor<>(
+			new WorkExecutor<Integer, Integer>()
+			{
+				@Override
+				public CompletableFuture<Integer> submit(Integer work)
+				{
+					throw new RejectedExecutionException();
+				}
+
+				@Override
+				public void close()
+				{
+				}
+			}
+		);
+		Assert.expectThrows(RejectedExecutionException.class, () -> executor.submit(1));
+		Assert.expectThrows(RejectedExecutionException.class, () -> executor.submit(1));
+	}
+}
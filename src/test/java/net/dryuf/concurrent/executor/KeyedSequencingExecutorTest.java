@@ -0,0 +1,123 @@
+package net.dryuf.concurrent.executor;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.expectThrows;
+import static org.testng.AssertJUnit.assertEquals;
+
+
+/**
+ * Tests for {@link KeyedSequencingExecutor}.
+ */
+public class KeyedSequencingExecutorTest
+{
+	@Test(timeOut = 100_000L)
+	public void execute_sequencePerKey_ok()
+	{
+		for (int t = 0; t < 100; ++t) {
+			AtomicInteger[] sequences = new AtomicInteger[64];
+			for (int k = 0; k < sequences.length; ++k) {
+				sequences[k] = new AtomicInteger();
+			}
+			try (KeyedSequencingExecutor<Integer> executor = new KeyedSequencingExecutor<>()) {
+				for (int i = 0; i < 10000; ++i) {
+					int key = i%sequences.length;
+					int expected = i/sequences.length;
+					executor.execute(key, () -> {
+						Assert.assertEquals(sequences[key].getAndIncrement(), expected);
+					});
+				}
+			}
+			for (int k = 0; k < sequences.length; ++k) {
+				assertEquals((10000-k+sequences.length-1)/sequences.length, sequences[k].get());
+			}
+		}
+	}
+
+	@Test(timeOut = 10_000L)
+	public void execute_differentKeys_parallel() throws Exception
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		try (KeyedSequencingExecutor<Integer> executor = new KeyedSequencingExecutor<>(new ClosingExecutor(pool), 2)) {
+			CompletableFuture<Integer> f0 = executor.submit(0, () -> barrier.await(5, TimeUnit.SECONDS));
+			CompletableFuture<Integer> f1 = executor.submit(1, () -> barrier.await(5, TimeUnit.SECONDS));
+			f0.get();
+			f1.get();
+		}
+		Assert.assertTrue(pool.isShutdown());
+	}
+
+	@Test(timeOut = 10_000L)
+	public void submit_result_ok() throws Exception
+	{
+		try (KeyedSequencingExecutor<String> executor = new KeyedSequencingExecutor<>()) {
+			Assert.assertEquals((int) executor.submit("a", () -> 1).get(), 1);
+			Assert.assertEquals((int) executor.submit(null, () -> 2).get(), 2);
+		}
+	}
+
+	@Test(timeOut = 10_000L)
+	public void close_pending_waits()
+	{
+		AtomicInteger counter = new AtomicInteger();
+		try (KeyedSequencingExecutor<Integer> executor = new KeyedSequencingExecutor<>(Executors.newCachedThreadPool(), 8)) {
+			for (int i = 0; i < 10000; ++i) {
+				executor.execute(i, counter::incrementAndGet);
+			}
+		}
+		assertEquals(10000, counter.get());
+	}
+
+	@Test(timeOut = 10_000L)
+	public void execute_closed_rejected()
+	{
+		KeyedSequencingExecutor<Integer> executor = new KeyedSequencingExecutor<>();
+		executor.execute(0, () -> {});
+		executor.close();
+		expectThrows(RejectedExecutionException.class, () -> executor.execute(0, () -> {}));
+		expectThrows(RejectedExecutionException.class, () -> executor.execute(1, () -> {}));
+	}
+
+	@Test(timeOut = 10_000L)
+	public void execute_boundedBlockingExecutor_noDeadlock() throws Exception
+	{
+		CountDownLatch blocker = new CountDownLatch(1);
+		AtomicInteger[] sequences = { new AtomicInteger(), new AtomicInteger() };
+		try (KeyedSequencingExecutor<Integer> executor = new KeyedSequencingExecutor<>(
+			new ClosingExecutor(Executors.newFixedThreadPool(2), null, 2, OverflowPolicy.block()), 4
+		)) {
+			for (int key = 0; key < 2; ++key) {
+				executor.execute(key, () -> {
+					try {
+						blocker.await();
+					}
+					catch (InterruptedException e) {
+						throw new RuntimeException(e);
+					}
+				});
+			}
+			// more than drain quantum per stripe, so both stripe consumers reschedule while holding all slots:
+			for (int i = 0; i < 3000; ++i) {
+				for (int key = 0; key < 2; ++key) {
+					int i0 = i;
+					AtomicInteger sequence = sequences[key];
+					executor.execute(key, () -> Assert.assertEquals(sequence.getAndIncrement(), i0));
+				}
+			}
+			blocker.countDown();
+		}
+		assertEquals(3000, sequences[0].get());
+		assertEquals(3000, sequences[1].get());
+	}
+}
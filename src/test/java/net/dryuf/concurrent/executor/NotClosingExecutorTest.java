@@ -1,11 +1,20 @@
 package net.dryuf.concurrent.executor;
 
 import org.mockito.Mockito;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
@@ -66,4 +75,160 @@ public class NotClosingExecutorTest
 		executor.execute(() -> {});
 		new ClosingExecutor(executor).close();
 	}
+
+	@Test(timeOut = 1000L)
+	public void testOverflow_fail_rejects()
+	{
+		List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+		try (CloseableExecutor executor = new NotClosingExecutor(tasks::add, null, 2, OverflowPolicy.fail())) {
+			executor.execute(() -> {});
+			executor.execute(() -> {});
+			expectThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+			tasks.remove(0).run();
+			executor.execute(() -> {});
+			new ArrayList<>(tasks).forEach(Runnable::run);
+		}
+	}
+
+	@Test(timeOut = 1000L)
+	public void testOverflow_callerRuns_runsInCaller()
+	{
+		List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+		try (CloseableExecutor executor = new NotClosingExecutor(tasks::add, null, 1, OverflowPolicy.callerRuns())) {
+			executor.execute(() -> {});
+			Thread[] thread = new Thread[1];
+			executor.execute(() -> thread[0] = Thread.currentThread());
+			Assert.assertSame(thread[0], Thread.currentThread());
+			Assert.assertEquals(tasks.size(), 1);
+			tasks.remove(0).run();
+		}
+	}
+
+	@Test(timeOut = 1000L)
+	public void testOverflow_submit_releasesSlot()
+	{
+		List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+		try (CloseableExecutor executor = new NotClosingExecutor(tasks::add, null, 1, OverflowPolicy.fail())) {
+			CompletableFuture<Integer> f0 = executor.submit(() -> 0);
+			expectThrows(RejectedExecutionException.class, () -> executor.submit(() -> 1));
+			tasks.remove(0).run();
+			Assert.assertEquals((int) f0.join(), 0);
+			CompletableFuture<Integer> f2 = executor.submit(() -> 2);
+			tasks.remove(0).run();
+			Assert.assertEquals((int) f2.join(), 2);
+		}
+		try (CloseableExecutor executor = new NotClosingExecutor(tasks::add, null, 1, OverflowPolicy.callerRuns())) {
+			CompletableFuture<Integer> f0 = executor.submit(() -> 0);
+			CompletableFuture<Thread> f1 = executor.submit(Thread::currentThread);
+			Assert.assertSame(f1.join(), Thread.currentThread());
+			tasks.remove(0).run();
+			Assert.assertEquals((int) f0.join(), 0);
+		}
+	}
+
+	@Test(timeOut = 1000L)
+	public void testOverflow_dropOldest_cancelsOldest()
+	{
+		List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger executed = new AtomicInteger();
+		try (CloseableExecutor executor = new NotClosingExecutor(tasks::add, null, 2, OverflowPolicy.dropOldest())) {
+			CompletableFuture<Integer> f0 = executor.submit(() -> executed.addAndGet(1));
+			CompletableFuture<Integer> f1 = executor.submit(() -> executed.addAndGet(10));
+			CompletableFuture<Integer> f2 = executor.submit(() -> executed.addAndGet(100));
+			Assert.assertTrue(f0.isCancelled());
+			new ArrayList<>(tasks).forEach(Runnable::run);
+			Assert.assertEquals(executed.get(), 110);
+			Assert.assertEquals((int) f1.join(), 10);
+			Assert.assertEquals((int) f2.join(), 110);
+		}
+	}
+
+	@Test(timeOut = 1000L)
+	public void testOverflow_blockTimeout_rejectsAfterTimeout()
+	{
+		List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+		try (CloseableExecutor executor = new NotClosingExecutor(tasks::add, null, 1, OverflowPolicy.block(50, TimeUnit.MILLISECONDS))) {
+			executor.execute(() -> {});
+			long started = System.nanoTime();
+			expectThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+			Assert.assertTrue(System.nanoTime()-started >= TimeUnit.MILLISECONDS.toNanos(50));
+			tasks.remove(0).run();
+		}
+	}
+
+	@Test(timeOut = 5000L)
+	public void testOverflow_block_wakesInFifoOrder() throws Exception
+	{
+		List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		ExecutorService producers = Executors.newCachedThreadPool();
+		try (CloseableExecutor executor = new NotClosingExecutor(tasks::add, null, 1, OverflowPolicy.block())) {
+			executor.execute(() -> {});
+			List<CompletableFuture<Void>> blocked = new ArrayList<>();
+			for (int i = 0; i < 4; ++i) {
+				int id = i;
+				blocked.add(CompletableFuture.runAsync(() -> executor.execute(() -> order.add(id)), producers));
+				// make sure the producers are blocked in the expected order
+				Thread.sleep(20);
+			}
+			for (int i = 0; i < 5; ++i) {
+				while (tasks.isEmpty()) {
+					Thread.sleep(1);
+				}
+				tasks.remove(0).run();
+			}
+			for (CompletableFuture<Void> future: blocked) {
+				future.get();
+			}
+			Assert.assertEquals(order, Arrays.asList(0, 1, 2, 3));
+		}
+		finally {
+			producers.shutdown();
+		}
+	}
+
+	@Test(timeOut = 1000L)
+	public void testClose_concurrent_firstWaitsForPending() throws Exception
+	{
+		List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+		ExecutorService closers = Executors.newCachedThreadPool();
+		try {
+			NotClosingExecutor closeable = new NotClosingExecutor(tasks::add);
+			closeable.execute(() -> {});
+			CompletableFuture<Void> closing = CompletableFuture.runAsync(closeable::close, closers);
+			Thread.sleep(20);
+			// second close returns immediately and must not take over waiting:
+			closeable.close();
+			Assert.assertFalse(closing.isDone());
+			tasks.remove(0).run();
+			closing.get();
+		}
+		finally {
+			closers.shutdown();
+		}
+	}
+
+	@Test(timeOut = 1000L)
+	public void testOverflow_block_closeRejectsBlocked() throws Exception
+	{
+		ExecutorService executor = Executors.newCachedThreadPool();
+		CountDownLatch latch = new CountDownLatch(1);
+		NotClosingExecutor closeable = new NotClosingExecutor(executor, null, 1, OverflowPolicy.block());
+		closeable.execute(() -> {
+			try {
+				latch.await();
+			}
+			catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> closeable.execute(() -> {}), executor);
+		Thread.sleep(20);
+		CompletableFuture<Void> closing = CompletableFuture.runAsync(closeable::close, executor);
+		expectThrows(Exception.class, blocked::get);
+		Assert.assertFalse(closing.isDone());
+		latch.countDown();
+		closing.get();
+		new ClosingExecutor(executor).close();
+	}
 }
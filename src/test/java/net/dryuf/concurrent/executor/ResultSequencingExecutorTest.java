@@ -4,8 +4,15 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -45,6 +52,78 @@ public class ResultSequencingExecutorTest
 		Assert.assertEquals(result, expected);
 	}
 
+	@Test(timeOut = 10000L)
+	public void testSmallRing()
+	{
+		List<Integer> expected = IntStream.rangeClosed(0, 1023).boxed().collect(Collectors.toList());
+		List<Integer> result = new ArrayList<>();
+		try (CloseableExecutor executor = new ClosingExecutor(Executors.newFixedThreadPool(4));
+		     ResultSequencingExecutor rse = new ResultSequencingExecutor(executor, 4)) {
+			for (int i = 0; i < 1024; ++i) {
+				final int i0 = i;
+				rse.submit(() -> { if (ThreadLocalRandom.current().nextInt(16) == 0) Thread.sleep(1); return i0; })
+						.thenAccept(result::add);
+			}
+		}
+		Assert.assertEquals(result, expected);
+	}
+
+	@Test(timeOut = 10000L)
+	public void testCancel() throws Exception
+	{
+		List<Integer> result = new ArrayList<>();
+		CountDownLatch blocker = new CountDownLatch(1);
+		try (CloseableExecutor executor = new ClosingExecutor(Executors.newSingleThreadExecutor());
+		     ResultSequencingExecutor rse = new ResultSequencingExecutor(executor)) {
+			CompletableFuture<Integer> first = rse.submit(() -> { blocker.await(); return 0; });
+			CompletableFuture<Integer> second = rse.submit(() -> { result.add(-1); return 1; });
+			CompletableFuture<Integer> third = rse.submit(() -> 2);
+			first.thenAccept(result::add);
+			second.whenComplete((v, ex) -> result.add(ex instanceof CancellationException ? 1 : -2));
+			third.thenAccept(result::add);
+			Assert.assertTrue(second.cancel(true));
+			Assert.assertTrue(second.isDone());
+			Assert.assertTrue(second.isCancelled());
+			Assert.expectThrows(CancellationException.class, second::get);
+			blocker.countDown();
+			Assert.assertEquals((int) third.get(), 2);
+		}
+		Assert.assertEquals(result, Arrays.asList(1, 0, 2));
+	}
+
+	@Test(timeOut = 10000L)
+	public void testHandlerSubmitsIntoFullRing() throws Exception
+	{
+		List<Integer> result = Collections.synchronizedList(new ArrayList<>());
+		try (CloseableExecutor executor = new ClosingExecutor(Executors.newFixedThreadPool(2));
+		     ResultSequencingExecutor rse = new ResultSequencingExecutor(executor, 2)) {
+			CompletableFuture<CompletableFuture<Integer>> nested = new CompletableFuture<>();
+			CompletableFuture<Integer> fa = rse.submit(() -> 0);
+			rse.submit(() -> 1);
+			fa.thenRun(() -> {
+				rse.submit(() -> 2).thenAccept(result::add);
+				nested.complete(rse.submit(() -> 3));
+			});
+			Assert.assertEquals((int) nested.get().get(), 3);
+		}
+		Assert.assertEquals(result, Arrays.asList(2));
+	}
+
+	@Test(timeOut = 10000L)
+	public void testRejected() throws Exception
+	{
+		try (ResultSequencingExecutor rse = new ResultSequencingExecutor((Runnable r) -> {
+			throw new RejectedExecutionException();
+		})) {
+			Assert.expectThrows(RejectedExecutionException.class, () -> rse.submit(() -> 0));
+		}
+		try (ResultSequencingExecutor rse = new ResultSequencingExecutor()) {
+			CompletableFuture<Integer> future = rse.submit(() -> { throw new IllegalStateException(); });
+			ExecutionException ex = Assert.expectThrows(ExecutionException.class, future::get);
+			Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+	}
+
 	private Void doLittle()
 	{
 		littleVar *= 17;
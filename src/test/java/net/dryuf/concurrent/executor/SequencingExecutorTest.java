@@ -7,6 +7,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -116,4 +117,100 @@ public class SequencingExecutorTest
 		}
 		assertTrue(Thread.interrupted());
 	}
+
+	@Test(timeOut = 100_000L)
+	public void execute_drainQuantum_rescheduled() throws InterruptedException
+	{
+		AtomicInteger executions = new AtomicInteger();
+		ExecutorService delegate = Executors.newSingleThreadExecutor();
+		CountDownLatch blocker = new CountDownLatch(1);
+		try (SequencingExecutor executor = new SequencingExecutor(new ClosingExecutor(delegate) {
+			@Override
+			protected void execute0(Runnable runnable)
+			{
+				executions.incrementAndGet();
+				super.execute0(runnable);
+			}
+		}, 10, 0, TimeUnit.NANOSECONDS)) {
+			AtomicInteger sequence = new AtomicInteger();
+			executor.execute(() -> {
+				try {
+					blocker.await();
+				}
+				catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			for (int i = 0; i < 1000; ++i) {
+				int i0 = i;
+				executor.execute(() -> Assert.assertEquals(sequence.getAndIncrement(), i0));
+			}
+			blocker.countDown();
+			executor.close();
+			assertEquals(1000, sequence.get());
+		}
+		assertTrue(executions.get() >= 100, "Expected rescheduling after each quantum: "+executions.get());
+	}
+
+	@Test(timeOut = 100_000L)
+	public void execute_drainTime_rescheduled() throws InterruptedException
+	{
+		AtomicInteger executions = new AtomicInteger();
+		ExecutorService delegate = Executors.newSingleThreadExecutor();
+		try (SequencingExecutor executor = new SequencingExecutor(new ClosingExecutor(delegate) {
+			@Override
+			protected void execute0(Runnable runnable)
+			{
+				executions.incrementAndGet();
+				super.execute0(runnable);
+			}
+		}, Integer.MAX_VALUE, 1, TimeUnit.MILLISECONDS)) {
+			AtomicInteger sequence = new AtomicInteger();
+			for (int i = 0; i < 20; ++i) {
+				int i0 = i;
+				executor.execute(() -> {
+					Assert.assertEquals(sequence.getAndIncrement(), i0);
+					try {
+						Thread.sleep(2);
+					}
+					catch (InterruptedException e) {
+						throw new RuntimeException(e);
+					}
+				});
+			}
+			executor.close();
+			assertEquals(20, sequence.get());
+		}
+		assertTrue(executions.get() >= 10, "Expected rescheduling after time budget: "+executions.get());
+	}
+
+	@Test(timeOut = 10_000L)
+	public void execute_drainQuantumOnFullExecutor_continuesInline() throws InterruptedException
+	{
+		ExecutorService delegate = Executors.newSingleThreadExecutor();
+		try (SequencingExecutor executor = new SequencingExecutor(
+			new NotClosingExecutor(delegate, null, 1, OverflowPolicy.block()), 10, 0, TimeUnit.NANOSECONDS
+		)) {
+			AtomicInteger sequence = new AtomicInteger();
+			CountDownLatch blocker = new CountDownLatch(1);
+			executor.execute(() -> {
+				try {
+					blocker.await();
+				}
+				catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			for (int i = 0; i < 100; ++i) {
+				int i0 = i;
+				executor.execute(() -> Assert.assertEquals(sequence.getAndIncrement(), i0));
+			}
+			blocker.countDown();
+			executor.close();
+			assertEquals(100, sequence.get());
+		}
+		finally {
+			delegate.shutdown();
+		}
+	}
 }